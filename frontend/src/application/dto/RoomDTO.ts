@@ -4,7 +4,9 @@ export interface RoomDTO {
   roomName: string;
   createdAt: string;
   isActive: boolean;
-  participants: ParticipantDTO[];
+  // Left out for large rooms; load them page by page instead
+  participants?: ParticipantDTO[];
+  participantCount?: number;
 }
 
 export interface ParticipantDTO {
@@ -25,13 +27,21 @@ export interface ChatMessageDTO {
   sentAt: string;
 }
 
+export interface ChatHistoryPageDTO {
+  messages: ChatMessageDTO[];
+  beforeCursor: string | null;
+  afterCursor: string | null;
+  hasMore: boolean;
+}
+
 export interface CreateRoomResponseDTO {
   id: string;
   roomCode: string;
   roomName: string;
   createdAt: string;
   isActive: boolean;
-  participants: ParticipantDTO[];
+  participants?: ParticipantDTO[];
+  participantCount?: number;
   sessionId: string;
   username: string;
 }
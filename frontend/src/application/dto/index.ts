@@ -2,6 +2,7 @@ export type {
   RoomDTO,
   ParticipantDTO,
   ChatMessageDTO,
+  ChatHistoryPageDTO,
   CreateRoomResponseDTO,
   JoinRoomResponseDTO
 } from './RoomDTO';
@@ -5,7 +5,8 @@ export class Room {
     public readonly roomName: string,
     public readonly createdAt: Date,
     public readonly isActive: boolean,
-    public readonly participants: string[]
+    public readonly participants: string[],
+    private readonly totalParticipants?: number
   ) {}
 
   static fromDTO(dto: any): Room {
@@ -15,7 +16,8 @@ export class Room {
       dto.roomName,
       new Date(dto.createdAt),
       dto.isActive,
-      dto.participants?.map((p: any) => p.id) || []
+      dto.participants?.map((p: any) => p.id) || [],
+      dto.participantCount
     );
   }
 
@@ -24,6 +26,7 @@ export class Room {
   }
 
   get participantCount(): number {
-    return this.participants.length;
+    // participants is left out for large rooms
+    return this.totalParticipants ?? this.participants.length;
   }
 }
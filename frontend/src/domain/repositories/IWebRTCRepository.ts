@@ -1,8 +1,8 @@
 export interface WebRTCSignal {
-  type: 'offer' | 'answer' | 'ice-candidate';
+  type: 'offer' | 'answer' | 'ice-candidate' | 'ice-candidates' | 'end-of-candidates';
   senderSessionId: string;
   targetSessionId?: string;
-  data: any;
+  data?: any;
 }
 
 export interface RemotePeer {
@@ -14,6 +14,7 @@ export interface RemotePeer {
 export interface IWebRTCRepository {
   initialize(videoElement: HTMLVideoElement): Promise<MediaStream>;
   createOffer(remoteSessionId: string): Promise<void>;
+  closePeer(remoteSessionId: string): void;
   handleSignal(signal: WebRTCSignal): Promise<void>;
   toggleAudio(enabled: boolean): void;
   toggleVideo(enabled: boolean): void;
@@ -2,15 +2,27 @@ import { WebRTCSignal } from './IWebRTCRepository';
 import { ChatMessage } from '../entities/ChatMessage';
 
 export interface ParticipantEvent {
-  type: 'join' | 'leave' | 'status';
+  type: 'join' | 'leave' | 'status' | 'digest';
   participant?: {
     username: string;
     sessionId: string;
   };
+  // digest: joins in join order and session ids that left, batched for large rooms
+  joined?: {
+    username: string;
+    sessionId: string;
+  }[];
+  left?: string[];
+  participantCount?: number;
   sessionId?: string;
   username?: string;
   isMuted?: boolean;
   isVideoEnabled?: boolean;
+  changes?: {
+    sessionId: string;
+    isMuted?: boolean;
+    isVideoEnabled?: boolean;
+  }[];
   timestamp?: string;
 }
 
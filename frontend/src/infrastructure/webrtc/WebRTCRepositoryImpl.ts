@@ -66,6 +66,12 @@ export class WebRTCRepositoryImpl implements IWebRTCRepository {
       await this.handleAnswer(remoteSessionId, signal.data);
     } else if (signal.type === 'ice-candidate') {
       await this.handleIceCandidate(remoteSessionId, signal.data);
+    } else if (signal.type === 'ice-candidates') {
+      for (const candidate of signal.data) {
+        await this.handleIceCandidate(remoteSessionId, candidate);
+      }
+    } else if (signal.type === 'end-of-candidates') {
+      await this.handleEndOfCandidates(remoteSessionId);
     }
   }
 
@@ -110,6 +116,17 @@ export class WebRTCRepositoryImpl implements IWebRTCRepository {
     }
   }
 
+  private async handleEndOfCandidates(remoteSessionId: string): Promise<void> {
+    const peerConnection = this.peerConnections.get(remoteSessionId);
+    if (!peerConnection) return;
+
+    try {
+      await peerConnection.addIceCandidate();
+    } catch (error) {
+      console.error('Error handling end of candidates:', error);
+    }
+  }
+
   private getOrCreatePeerConnection(remoteSessionId: string): RTCPeerConnection {
     let peerConnection = this.peerConnections.get(remoteSessionId);
 
@@ -132,6 +149,13 @@ export class WebRTCRepositoryImpl implements IWebRTCRepository {
             targetSessionId: remoteSessionId,
             data: event.candidate,
           });
+        } else {
+          // Gathering is complete; the server flushes any candidates it is still batching
+          this.wsRepository.sendSignal({
+            type: 'end-of-candidates',
+            senderSessionId: this.sessionId,
+            targetSessionId: remoteSessionId,
+          });
         }
       };
 
@@ -162,6 +186,10 @@ export class WebRTCRepositoryImpl implements IWebRTCRepository {
     return peerConnection;
   }
 
+  closePeer(remoteSessionId: string): void {
+    this.removePeerConnection(remoteSessionId);
+  }
+
   private removePeerConnection(remoteSessionId: string): void {
     const peerConnection = this.peerConnections.get(remoteSessionId);
     if (peerConnection) {
@@ -11,6 +11,7 @@ export class WebSocketRepositoryImpl implements IWebSocketRepository {
   private sessionId: string = '';
   private username: string = '';
   private roomId: string = '';
+  private useSockJS: boolean = false;
 
   private onSignalCallback?: (signal: WebRTCSignal) => void;
   private onChatMessageCallback?: (message: ChatMessage) => void;
@@ -27,11 +28,14 @@ export class WebSocketRepositoryImpl implements IWebSocketRepository {
     this.sessionId = sessionId;
     this.username = username;
 
+    let connected = false;
+
     this.client = new Client({
-      webSocketFactory: () => new SockJS(`${API_CONFIG.wsBaseURL}${API_CONFIG.websocket.endpoint}`),
+      webSocketFactory: () => this.createWebSocket(),
 
       onConnect: () => {
-        console.log('WebSocket connected');
+        connected = true;
+        console.log(`WebSocket connected (${this.useSockJS ? 'SockJS' : 'native'})`);
         this.subscribeToTopics();
         this.notifyJoin();
         onConnected();
@@ -49,6 +53,15 @@ export class WebSocketRepositoryImpl implements IWebSocketRepository {
         onError(error);
       },
 
+      onWebSocketClose: () => {
+        // A native socket that never got through (proxy or firewall blocking upgrades)
+        // falls back to SockJS on the next reconnect attempt
+        if (!connected && !this.useSockJS) {
+          console.warn('Native WebSocket unavailable, falling back to SockJS');
+          this.useSockJS = true;
+        }
+      },
+
       reconnectDelay: API_CONFIG.websocket.reconnectInterval,
       heartbeatIncoming: API_CONFIG.websocket.heartbeatInterval,
       heartbeatOutgoing: API_CONFIG.websocket.heartbeatInterval,
@@ -57,6 +70,14 @@ export class WebSocketRepositoryImpl implements IWebSocketRepository {
     this.client.activate();
   }
 
+  private createWebSocket(): WebSocket {
+    if (this.useSockJS) {
+      return new SockJS(`${API_CONFIG.wsBaseURL}${API_CONFIG.websocket.endpoint}`) as WebSocket;
+    }
+    const nativeBaseURL = API_CONFIG.wsBaseURL.replace(/^http/, 'ws');
+    return new WebSocket(`${nativeBaseURL}${API_CONFIG.websocket.nativeEndpoint}`);
+  }
+
   private subscribeToTopics(): void {
     if (!this.client) return;
 
@@ -43,6 +43,10 @@ export const useWebRTC = (sessionId: string) => {
     }
   }, []);
 
+  const closePeer = useCallback((remoteSessionId: string) => {
+    webrtcRepositoryRef.current?.closePeer(remoteSessionId);
+  }, []);
+
   const toggleAudio = useCallback(() => {
     if (webrtcRepositoryRef.current) {
       const newMuted = !isMuted;
@@ -80,6 +84,7 @@ export const useWebRTC = (sessionId: string) => {
     isVideoEnabled,
     initialize,
     createOffer,
+    closePeer,
     toggleAudio,
     toggleVideo,
     cleanup,
@@ -112,13 +112,20 @@ export default function RoomPage({ params }: { params: Promise<{ roomCode: strin
   };
 
   const handleParticipantEvent = (event: ParticipantEvent) => {
-    if (event.type === 'join' && event.participant) {
-      if (event.participant.sessionId !== sessionId) {
+    // Large rooms and bursts of joins arrive as one digest instead of single join/leave events
+    const joined = event.type === 'join' && event.participant ? [event.participant]
+      : event.type === 'digest' ? event.joined ?? [] : [];
+    const left = event.type === 'leave' && event.participant ? [event.participant.sessionId]
+      : event.type === 'digest' ? event.left ?? [] : [];
+
+    left.forEach((remoteSessionId) => webrtc.closePeer(remoteSessionId));
+    joined
+      .filter((participant) => participant.sessionId !== sessionId && !left.includes(participant.sessionId))
+      .forEach((participant) => {
         setTimeout(() => {
-          webrtc.createOffer(event.participant!.sessionId);
+          webrtc.createOffer(participant.sessionId);
         }, 1000);
-      }
-    }
+      });
   };
 
   const toggleMute = () => {
@@ -11,6 +11,7 @@ export const API_CONFIG = {
   },
   websocket: {
     endpoint: '/ws',
+    nativeEndpoint: '/ws-native',
     reconnectInterval: 5000,
     heartbeatInterval: 4000,
   },
@@ -4,7 +4,9 @@ export interface Room {
   roomName: string;
   createdAt: string;
   isActive: boolean;
-  participants: Participant[];
+  // Left out for large rooms; load them page by page instead
+  participants?: Participant[];
+  participantCount?: number;
 }
 
 export interface Participant {
@@ -32,11 +34,22 @@ export interface WebRTCSignal {
 }
 
 export interface ParticipantEvent {
-  type: 'join' | 'leave' | 'status';
+  type: 'join' | 'leave' | 'status' | 'digest';
   participant?: {
     username: string;
     sessionId: string;
   };
+  joined?: {
+    username: string;
+    sessionId: string;
+  }[];
+  left?: string[];
+  changes?: {
+    sessionId: string;
+    isMuted?: boolean;
+    isVideoEnabled?: boolean;
+  }[];
+  participantCount?: number;
   sessionId?: string;
   username?: string;
   isMuted?: boolean;
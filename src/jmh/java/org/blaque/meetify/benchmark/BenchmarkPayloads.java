@@ -0,0 +1,99 @@
+package org.blaque.meetify.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.blaque.meetify.config.RawJsonMessageConverter;
+import org.blaque.meetify.config.SignalMessageConverter;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Payloads and codecs shared by the benchmarks, set up the way the application runs them.
+ */
+final class BenchmarkPayloads {
+
+    static final String ROOM_CODE = "BENCH1";
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * The ObjectMapper Spring Boot configures: ISO dates from {@code jackson-datatype-jsr310}.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * The STOMP converter chain of {@code WebSocketConfig}: the custom converters first, then
+     * Spring's defaults.
+     */
+    static CompositeMessageConverter messageConverter(ObjectMapper objectMapper) {
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(objectMapper);
+        return new CompositeMessageConverter(List.of(
+                new SignalMessageConverter(),
+                new RawJsonMessageConverter(),
+                new StringMessageConverter(),
+                new ByteArrayMessageConverter(),
+                jackson));
+    }
+
+    /**
+     * An offer with audio and two video sections as a browser produces it, about 3.5 KB.
+     */
+    static byte[] offerSignal() {
+        StringBuilder sdp = new StringBuilder("v=0\r\no=- 4611731400430051336 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n")
+                .append("a=group:BUNDLE 0 1 2\r\na=extmap-allow-mixed\r\na=msid-semantic: WMS stream\r\n");
+        String[][] sections = {
+                {"audio", "111 opus/48000/2", "63 red/48000/2", "9 G722/8000", "0 PCMU/8000", "8 PCMA/8000",
+                        "13 CN/8000", "110 telephone-event/48000"},
+                {"video", "96 VP8/90000", "97 rtx/90000", "98 VP9/90000", "99 rtx/90000", "100 H264/90000",
+                        "101 rtx/90000", "45 AV1/90000", "46 rtx/90000"},
+                {"video", "96 VP8/90000", "97 rtx/90000", "98 VP9/90000", "99 rtx/90000", "100 H264/90000",
+                        "101 rtx/90000", "45 AV1/90000", "46 rtx/90000"}};
+        for (int mid = 0; mid < sections.length; mid++) {
+            sdp.append("m=").append(sections[mid][0]).append(" 9 UDP/TLS/RTP/SAVPF 96\r\nc=IN IP4 0.0.0.0\r\n")
+                    .append("a=ice-ufrag:Kx9f\r\na=ice-pwd:0n3rVXzP1wbE6eYkT0q2aL8j\r\na=ice-options:trickle\r\n")
+                    .append("a=fingerprint:sha-256 4A:AD:B9:B1:3F:82:18:3B:54:02:12:DF:3E:5D:49:6B:19:E5:7C:AB:3B:6A:1F:4E:2C:99:08:7A:D3:5D:8F:1C\r\n")
+                    .append("a=setup:actpass\r\na=mid:").append(mid).append("\r\na=sendrecv\r\na=rtcp-mux\r\n")
+                    .append("a=extmap:2 http://www.webrtc.org/experiments/rtp-hdrext/abs-send-time\r\n")
+                    .append("a=extmap:3 http://www.ietf.org/id/draft-holmer-rmcat-transport-wide-cc-extensions-01\r\n");
+            for (int c = 1; c < sections[mid].length; c++) {
+                String payloadType = sections[mid][c].substring(0, sections[mid][c].indexOf(' '));
+                sdp.append("a=rtpmap:").append(sections[mid][c]).append("\r\n")
+                        .append("a=rtcp-fb:").append(payloadType).append(" transport-cc\r\n")
+                        .append("a=rtcp-fb:").append(payloadType).append(" nack\r\n");
+            }
+        }
+        return signal("offer", "{\"type\":\"offer\",\"sdp\":\"" + sdp.toString().replace("\r\n", "\\r\\n") + "\"}");
+    }
+
+    static byte[] iceCandidateSignal() {
+        return signal("ice-candidate", "{\"candidate\":\"candidate:2713480271 1 udp 1686052607 203.0.113.45 52844 "
+                + "typ srflx raddr 192.168.1.23 rport 52844 generation 0 ufrag Kx9f network-id 1\","
+                + "\"sdpMid\":\"0\",\"sdpMLineIndex\":0,\"usernameFragment\":\"Kx9f\"}");
+    }
+
+    static byte[] chatMessageRequest(String roomId) {
+        return ("{\"roomId\":\"" + roomId + "\",\"senderUsername\":\"alice\","
+                + "\"senderSessionId\":\"3f1c9a52-8d0e-4b7a-9f6e-2c1d5e7a8b90\","
+                + "\"message\":\"Could everyone check the shared document before we start the review?\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] signal(String type, String data) {
+        return ("{\"type\":\"" + type + "\",\"senderSessionId\":\"3f1c9a52-8d0e-4b7a-9f6e-2c1d5e7a8b90\","
+                + "\"targetSessionId\":\"7b2e4d61-0c9f-4e3a-8b5d-6a1f2e3c4d5e\",\"data\":" + data + "}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
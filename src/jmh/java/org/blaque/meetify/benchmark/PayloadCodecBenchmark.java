@@ -0,0 +1,139 @@
+package org.blaque.meetify.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and encoding of the payloads on the signaling and chat paths, through the same
+ * converters the STOMP pipeline uses. The {@code ...AsMap} benchmarks run signals through
+ * Jackson with untyped {@code data}, as the handlers took them before {@code SignalMessageConverter},
+ * as the baseline to compare against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PayloadCodecBenchmark {
+
+    private CompositeMessageConverter messageConverter;
+    private MessageHeaders jsonHeaders;
+
+    private Message<byte[]> offerMessage;
+    private Message<byte[]> iceCandidateMessage;
+    private WebRTCSignalDTO offer;
+    private WebRTCSignalDTO iceCandidate;
+
+    private MappingJackson2MessageConverter mapConverter;
+    private MapSignal offerAsMap;
+    private MapSignal iceCandidateAsMap;
+
+    private ObjectReader chatReader;
+    private ObjectWriter chatWriter;
+    private byte[] chatJson;
+    private ChatMessageDTO chatMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = BenchmarkPayloads.objectMapper();
+        messageConverter = BenchmarkPayloads.messageConverter(objectMapper);
+        jsonHeaders = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON));
+
+        offerMessage = MessageBuilder.createMessage(BenchmarkPayloads.offerSignal(), jsonHeaders);
+        iceCandidateMessage = MessageBuilder.createMessage(BenchmarkPayloads.iceCandidateSignal(), jsonHeaders);
+        offer = decodeOffer();
+        iceCandidate = decodeIceCandidate();
+
+        mapConverter = new MappingJackson2MessageConverter();
+        mapConverter.setObjectMapper(objectMapper);
+        offerAsMap = decodeOfferAsMap();
+        iceCandidateAsMap = decodeIceCandidateAsMap();
+
+        chatReader = objectMapper.readerFor(ChatMessageDTO.class);
+        chatWriter = objectMapper.writerFor(ChatMessageDTO.class);
+        chatMessage = ChatMessageDTO.builder()
+                .id(UUID.randomUUID())
+                .senderUsername("alice")
+                .senderSessionId(UUID.randomUUID().toString())
+                .message("Could everyone check the shared document before we start the review?")
+                .sentAt(LocalDateTime.now())
+                .build();
+        chatJson = chatWriter.writeValueAsBytes(chatMessage);
+    }
+
+    @Benchmark
+    public WebRTCSignalDTO decodeOffer() {
+        return (WebRTCSignalDTO) messageConverter.fromMessage(offerMessage, WebRTCSignalDTO.class);
+    }
+
+    @Benchmark
+    public Message<?> encodeOffer() {
+        return messageConverter.toMessage(offer, jsonHeaders);
+    }
+
+    @Benchmark
+    public WebRTCSignalDTO decodeIceCandidate() {
+        return (WebRTCSignalDTO) messageConverter.fromMessage(iceCandidateMessage, WebRTCSignalDTO.class);
+    }
+
+    @Benchmark
+    public Message<?> encodeIceCandidate() {
+        return messageConverter.toMessage(iceCandidate, jsonHeaders);
+    }
+
+    @Benchmark
+    public MapSignal decodeOfferAsMap() {
+        return (MapSignal) mapConverter.fromMessage(offerMessage, MapSignal.class);
+    }
+
+    @Benchmark
+    public Message<?> encodeOfferAsMap() {
+        return mapConverter.toMessage(offerAsMap, jsonHeaders);
+    }
+
+    @Benchmark
+    public MapSignal decodeIceCandidateAsMap() {
+        return (MapSignal) mapConverter.fromMessage(iceCandidateMessage, MapSignal.class);
+    }
+
+    @Benchmark
+    public Message<?> encodeIceCandidateAsMap() {
+        return mapConverter.toMessage(iceCandidateAsMap, jsonHeaders);
+    }
+
+    @Benchmark
+    public ChatMessageDTO decodeChatMessage() throws IOException {
+        return chatReader.readValue(chatJson);
+    }
+
+    @Benchmark
+    public byte[] encodeChatMessage() throws IOException {
+        return chatWriter.writeValueAsBytes(chatMessage);
+    }
+
+    /**
+     * A signal with untyped {@code data}, which Jackson reads into a {@code LinkedHashMap} tree.
+     */
+    public record MapSignal(String type, String senderSessionId, String targetSessionId, Object data) {
+    }
+}
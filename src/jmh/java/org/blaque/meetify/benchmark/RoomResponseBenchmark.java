@@ -0,0 +1,74 @@
+package org.blaque.meetify.benchmark;
+
+import org.blaque.meetify.config.LargeRoomProperties;
+import org.blaque.meetify.dto.ParticipantPage;
+import org.blaque.meetify.dto.RoomResponse;
+import org.blaque.meetify.service.PresenceRegistry;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.blaque.meetify.service.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@link RoomResponse} of a room held in the presence registry, which is what
+ * {@code GET /api/rooms/{roomCode}} costs once the room is resolved, against the first
+ * {@link ParticipantPage} large rooms are listed with instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoomResponseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int participants;
+
+    private RoomService roomService;
+
+    @Setup
+    public void setUp() {
+        PresenceRegistry presenceRegistry = new PresenceRegistry();
+        RoomPresence room = presenceRegistry.registerRoom(
+                UUID.randomUUID(), BenchmarkPayloads.ROOM_CODE, "Benchmark room", LocalDateTime.now());
+        LocalDateTime joinedAt = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < participants; i++) {
+            presenceRegistry.addParticipant(room, ParticipantPresence.builder()
+                    .id(UUID.randomUUID())
+                    .roomId(room.getRoomId())
+                    .username("participant-" + i)
+                    .sessionId(UUID.randomUUID().toString())
+                    // Joins in random order, so the sort by join time has work to do
+                    .joinedAt(joinedAt.plusNanos((long) (Math.random() * 3_600_000_000_000L)))
+                    .isMuted(i % 3 == 0)
+                    .isVideoEnabled(i % 4 != 0)
+                    .build());
+        }
+
+        // Lists participants inline at every size, to compare with paging
+        LargeRoomProperties largeRoomProperties = new LargeRoomProperties();
+        largeRoomProperties.setParticipantThreshold(Integer.MAX_VALUE);
+        // Only the registry is touched once the room is registered
+        roomService = new RoomService(
+                null, null, presenceRegistry, null, null, null, null, null, largeRoomProperties, null);
+    }
+
+    @Benchmark
+    public RoomResponse getRoomByCode() {
+        return roomService.getRoomByCode(BenchmarkPayloads.ROOM_CODE);
+    }
+
+    @Benchmark
+    public ParticipantPage getParticipantPage() {
+        return roomService.getParticipantPage(BenchmarkPayloads.ROOM_CODE, null, null);
+    }
+}
@@ -0,0 +1,201 @@
+package org.blaque.meetify.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.config.ChatPersistenceProperties;
+import org.blaque.meetify.config.EventBusProperties;
+import org.blaque.meetify.config.EventLogProperties;
+import org.blaque.meetify.config.RecentChatProperties;
+import org.blaque.meetify.config.SignalingProperties;
+import org.blaque.meetify.controller.WebSocketController;
+import org.blaque.meetify.service.ChatMessageWriter;
+import org.blaque.meetify.service.ChatService;
+import org.blaque.meetify.service.EventRecorder;
+import org.blaque.meetify.service.PresenceRegistry;
+import org.blaque.meetify.service.RecentChatMessages;
+import org.blaque.meetify.service.RoomEventBus;
+import org.blaque.meetify.service.SignalingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A SEND frame as it arrives off the socket, through STOMP decoding, {@code @MessageMapping}
+ * dispatch, payload conversion and {@link WebSocketController}, to the broadcast encoded as a
+ * MESSAGE frame. The room event bus is a stub that does the encoding the broker would do and
+ * keeps the frame, so nothing is written to a socket or database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StompPipelineBenchmark {
+
+    private static final String WEB_SOCKET_SESSION_ID = "ws-session-1";
+
+    private GenericApplicationContext context;
+    private SimpAnnotationMethodMessageHandler handler;
+    private EncodingRoomEventBus roomEventBus;
+    private EventRecorder eventRecorder;
+    private final StompDecoder decoder = new StompDecoder();
+
+    private byte[] offerFrame;
+    private byte[] iceCandidateFrame;
+    private byte[] chatFrame;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = BenchmarkPayloads.objectMapper();
+        CompositeMessageConverter messageConverter = BenchmarkPayloads.messageConverter(objectMapper);
+        roomEventBus = new EncodingRoomEventBus(messageConverter);
+
+        PresenceRegistry presenceRegistry = new PresenceRegistry();
+        UUID roomId = UUID.randomUUID();
+        presenceRegistry.registerRoom(roomId, BenchmarkPayloads.ROOM_CODE, "Benchmark room", LocalDateTime.now());
+
+        ChatMessageWriter chatMessageWriter = new ChatMessageWriter(
+                null, new ChatPersistenceProperties(), new SimpleMeterRegistry()) {
+            @Override
+            public void enqueue(PendingChatMessage message) {
+                // Persistence is write-behind and off the measured path
+            }
+        };
+        // saveMessage makes no database calls, so neither the repositories nor the timers are used
+        RecentChatMessages recentChatMessages = new RecentChatMessages(
+                new RecentChatProperties(), new EventBusProperties(), new SimpleMeterRegistry());
+        ChatService chatService = new ChatService(
+                null, null, null, presenceRegistry, chatMessageWriter, null, objectMapper, null, recentChatMessages);
+        SignalingService signalingService = new SignalingService(roomEventBus, new SignalingProperties(), null);
+        // Events are formatted by the writer thread; the benchmark logback.xml discards the lines
+        eventRecorder = new EventRecorder(new EventLogProperties(), objectMapper, new SimpleMeterRegistry());
+        eventRecorder.start();
+        WebSocketController controller = new WebSocketController(
+                roomEventBus, chatService, signalingService, null, eventRecorder);
+
+        context = new GenericApplicationContext();
+        context.registerBean(WebSocketController.class, () -> controller);
+        context.refresh();
+
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+        handler = new SimpAnnotationMethodMessageHandler(channel, channel, new SimpMessagingTemplate(channel));
+        handler.setDestinationPrefixes(List.of("/app"));
+        handler.setMessageConverter(messageConverter);
+        handler.setApplicationContext(context);
+        handler.afterPropertiesSet();
+        handler.start();
+
+        String destination = "/app/signal/" + BenchmarkPayloads.ROOM_CODE;
+        offerFrame = sendFrame(destination, BenchmarkPayloads.offerSignal());
+        iceCandidateFrame = sendFrame(destination, BenchmarkPayloads.iceCandidateSignal());
+        chatFrame = sendFrame("/app/chat/" + BenchmarkPayloads.ROOM_CODE,
+                BenchmarkPayloads.chatMessageRequest(roomId.toString()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.stop();
+        context.close();
+        eventRecorder.stop();
+    }
+
+    @Benchmark
+    public byte[] handleOffer() {
+        return dispatch(offerFrame);
+    }
+
+    @Benchmark
+    public byte[] handleIceCandidate() {
+        return dispatch(iceCandidateFrame);
+    }
+
+    @Benchmark
+    public byte[] handleChatMessage() {
+        return dispatch(chatFrame);
+    }
+
+    /**
+     * What {@code StompSubProtocolHandler} does with an inbound frame, minus the channel hop.
+     */
+    private byte[] dispatch(byte[] frame) {
+        Message<byte[]> message = decoder.decode(ByteBuffer.wrap(frame)).get(0);
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        accessor.setSessionId(WEB_SOCKET_SESSION_ID);
+        accessor.setSessionAttributes(new HashMap<>());
+        handler.handleMessage(MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders()));
+        return roomEventBus.lastFrame;
+    }
+
+    private static byte[] sendFrame(String destination, byte[] payload) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setContentLength(payload.length);
+        return new StompEncoder().encode(accessor.getMessageHeaders(), payload);
+    }
+
+    /**
+     * Converts and encodes each event as the simple broker and outbound channel would for
+     * one subscriber.
+     */
+    private static final class EncodingRoomEventBus implements RoomEventBus {
+
+        private final CompositeMessageConverter messageConverter;
+        private final StompEncoder encoder = new StompEncoder();
+        private final MessageHeaders jsonHeaders =
+                new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON));
+        private long messageId;
+
+        byte[] lastFrame;
+
+        EncodingRoomEventBus(CompositeMessageConverter messageConverter) {
+            this.messageConverter = messageConverter;
+        }
+
+        @Override
+        public void publish(String roomCode, String destination, Object payload) {
+            encode(destination, payload);
+        }
+
+        @Override
+        public boolean sendToParticipant(String roomCode, String participantSessionId, Object payload) {
+            encode("/queue/signal/" + participantSessionId, payload);
+            return true;
+        }
+
+        private void encode(String destination, Object payload) {
+            Message<?> converted = messageConverter.toMessage(payload, jsonHeaders);
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setMessageId(WEB_SOCKET_SESSION_ID + "-" + messageId++);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            lastFrame = encoder.encode(accessor.getMessageHeaders(), (byte[]) converted.getPayload());
+        }
+    }
+}
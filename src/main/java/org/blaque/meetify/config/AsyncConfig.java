@@ -0,0 +1,27 @@
+package org.blaque.meetify.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String PRESENCE_WRITE_EXECUTOR = "presenceWriteExecutor";
+
+    /**
+     * Single-threaded so that presence writes for the same participant reach the database in order.
+     */
+    @Bean(name = PRESENCE_WRITE_EXECUTOR)
+    public ThreadPoolTaskExecutor presenceWriteExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("presence-writer-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
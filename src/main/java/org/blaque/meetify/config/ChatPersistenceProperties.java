@@ -0,0 +1,36 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.chat.persistence")
+public class ChatPersistenceProperties {
+
+    /**
+     * Maximum number of messages waiting to be written. Producers block when it is full.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Number of messages written in a single JDBC batch.
+     */
+    private int batchSize = 200;
+
+    /**
+     * Longest time a queued message waits before its batch is flushed.
+     */
+    private Duration flushInterval = Duration.ofMillis(250);
+
+    /**
+     * Delay before retrying a batch that failed for a non-data reason (e.g. lost connection).
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * How long shutdown waits for the queue to drain.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,48 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.chat.storage")
+public class ChatStorageProperties {
+
+    /**
+     * Number of future monthly partitions of {@code chat_messages} kept created.
+     */
+    private int partitionsAhead = 2;
+
+    /**
+     * How often partitions are created, archived and dropped, and archive segments rescanned.
+     */
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Archive {
+
+        /**
+         * Export months older than {@code hot-months} into segment files and drop their partitions.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Where segment files are written. Every node must see the same directory.
+         */
+        private Path directory = Path.of("data", "chat-archive");
+
+        /**
+         * Number of months, including the current one, kept in the database.
+         */
+        private int hotMonths = 6;
+
+        /**
+         * Messages per compressed block; a history page decompresses at most a few blocks.
+         */
+        private int blockSize = 500;
+    }
+}
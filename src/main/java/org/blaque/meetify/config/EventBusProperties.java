@@ -0,0 +1,40 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.event-bus")
+public class EventBusProperties {
+
+    /**
+     * {@code in-process} for a single node, {@code postgres} to fan out between nodes
+     * with LISTEN/NOTIFY on the application database.
+     */
+    private String type = "in-process";
+
+    /**
+     * Identifies this node so it can ignore its own notifications.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * How long the listener connection waits for notifications before applying
+     * LISTEN/UNLISTEN changes; bounds how quickly a new room subscription takes effect.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Payloads that do not fit into a NOTIFY are parked in a table for this long.
+     */
+    private Duration overflowRetention = Duration.ofMinutes(5);
+
+    /**
+     * How often a node lists the participants attached to it; a node's routes are forgotten
+     * after three missed heartbeats.
+     */
+    private Duration presenceHeartbeat = Duration.ofSeconds(5);
+}
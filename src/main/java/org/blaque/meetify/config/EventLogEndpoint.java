@@ -0,0 +1,59 @@
+package org.blaque.meetify.config;
+
+import lombok.RequiredArgsConstructor;
+import org.blaque.meetify.service.EventRecorder;
+import org.blaque.meetify.service.EventRecorder.Settings;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/eventlog}: reads and changes the event log settings without a restart.
+ * The level of the {@code org.blaque.meetify.events} logger itself is managed through
+ * {@code /actuator/loggers}.
+ */
+@Component
+@Endpoint(id = "eventlog")
+@RequiredArgsConstructor
+public class EventLogEndpoint {
+
+    private final EventRecorder eventRecorder;
+
+    @ReadOperation
+    public Settings settings() {
+        return eventRecorder.getSettings();
+    }
+
+    /**
+     * Changes only the given settings. {@code sampleRate} applies to {@code type}, or is the
+     * default rate when no type is given; a type without a rate falls back to the default again.
+     */
+    @WriteOperation
+    public Settings update(@Nullable Boolean enabled,
+                           @Nullable Boolean redactBodies,
+                           @Nullable String type,
+                           @Nullable Double sampleRate) {
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) {
+            String reason = "sampleRate must be between 0 and 1";
+            throw new InvalidEndpointRequestException(reason, reason);
+        }
+        return eventRecorder.update(settings -> {
+            Settings updated = settings;
+            if (enabled != null) {
+                updated = updated.withEnabled(enabled);
+            }
+            if (redactBodies != null) {
+                updated = updated.withRedactBodies(redactBodies);
+            }
+            if (type != null) {
+                updated = updated.withSampleRate(type, sampleRate);
+            } else if (sampleRate != null) {
+                updated = updated.withDefaultSampleRate(sampleRate);
+            }
+            return updated;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.event-log")
+public class EventLogProperties {
+
+    /**
+     * Record room events (signals, chat messages, status updates, joins and leaves) to the
+     * {@code org.blaque.meetify.events} logger. Can be switched at runtime through
+     * {@code /actuator/eventlog}, like the sampling and redaction settings below.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Events waiting for the writer. Rounded up to a power of two; events recorded while it
+     * is full are dropped and counted.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * How long the writer waits before looking at an empty buffer again.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Fraction of events recorded for event types without a sample rate of their own.
+     */
+    private double defaultSampleRate = 1.0;
+
+    /**
+     * Fraction of events recorded per event type, from 0 to 1. A rate for "signal" also
+     * applies to "signal.offer", unless that type has its own.
+     */
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+    /**
+     * Replace free-text fields with their length before they are written.
+     */
+    private boolean redactBodies = true;
+
+    /**
+     * Event fields treated as free text.
+     */
+    private Set<String> redactedFields = new LinkedHashSet<>(Set.of("message"));
+}
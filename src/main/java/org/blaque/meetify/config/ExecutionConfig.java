@@ -0,0 +1,20 @@
+package org.blaque.meetify.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "meetify.execution", name = "dispatch", havingValue = "room-lanes")
+    public RoomLaneExecutor roomLaneExecutor(ExecutionProperties properties, Environment environment,
+                                             MeterRegistry meterRegistry) {
+        return new RoomLaneExecutor(properties.getRoomLanes(), properties.getRoomLaneCapacity(),
+                Threading.VIRTUAL.isActive(environment), meterRegistry);
+    }
+}
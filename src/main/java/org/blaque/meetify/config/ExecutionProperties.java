@@ -0,0 +1,41 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Thread model for STOMP message handling. Virtual threads are switched on with
+ * {@code spring.threads.virtual.enabled}, which also moves Tomcat request handling onto them.
+ */
+@Data
+@ConfigurationProperties(prefix = "meetify.execution")
+public class ExecutionProperties {
+
+    /**
+     * How inbound STOMP messages are dispatched: {@code pool} hands them to an unordered
+     * thread pool, {@code room-lanes} queues SENDs on their room's FIFO lane and other
+     * frames on their session's.
+     */
+    private String dispatch = "pool";
+
+    /**
+     * Number of lanes used by the {@code room-lanes} dispatcher.
+     */
+    private int roomLanes = 16;
+
+    /**
+     * Frames each lane queues before the receiving thread has to wait for room.
+     */
+    private int roomLaneCapacity = 10_000;
+
+    /**
+     * Core and max size of the inbound channel pool when running on platform threads;
+     * 0 keeps Spring's default of twice the number of processors.
+     */
+    private int inboundPoolSize = 0;
+
+    /**
+     * Same as {@link #inboundPoolSize} for the outbound channel.
+     */
+    private int outboundPoolSize = 0;
+}
@@ -0,0 +1,21 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.large-room")
+public class LargeRoomProperties {
+
+    /**
+     * Rooms with at least this many participants get joins, leaves and status changes as one
+     * digest frame per {@code participant-status.broadcast-interval}, and their participant
+     * list only through the paged participants endpoint.
+     */
+    private int participantThreshold = 50;
+
+    /**
+     * Participants per page when the client does not ask for a page size.
+     */
+    private int participantPageSize = 100;
+}
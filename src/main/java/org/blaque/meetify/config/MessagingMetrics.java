@@ -0,0 +1,345 @@
+package org.blaque.meetify.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.blaque.meetify.service.PresenceRegistry;
+import org.blaque.meetify.service.SessionRoutingTable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Micrometer instrumentation of the STOMP pipeline, scraped with everything else from
+ * {@code /actuator/prometheus}. Handler time covers payload conversion and the
+ * {@code @MessageMapping} method. Broadcasts are stamped when published, so the time until
+ * each copy is handed to its subscriber's WebSocket session includes the broker's subscription
+ * matching and any wait on the outbound channel, and ends when the frame enters the session's
+ * outbound queue; the wait from there to the socket write is {@code meetify.websocket.outbound.wait},
+ * recorded by {@code SlowConsumerGuard}. Targeted signals bypass the broker through
+ * {@code SessionRoutingTable} and are stamped there. Session counts come from
+ * {@link WebSocketMessageBrokerStats}; the channel thread pools are published by Spring Boot
+ * as {@code executor.*}, tagged with the executor bean's name.
+ */
+@Component
+public class MessagingMetrics {
+
+    /**
+     * {@link System#nanoTime()} a broadcast was published at. A plain message header, so it
+     * is copied onto each subscriber's message but never written to a STOMP frame.
+     */
+    public static final String PUBLISHED_AT_HEADER = "meetify.publishedAt";
+
+    private static final List<String> DESTINATION_TYPES = List.of("chat", "signal", "participant", "signal-queue", "other");
+
+    private final MeterRegistry meterRegistry;
+    private final SimpAnnotationMethodMessageHandler annotationHandler;
+    private final AbstractBrokerMessageHandler brokerHandler;
+    private final List<HandlerTimer> handlerTimers = new ArrayList<>();
+    private final Timer unmappedHandlerTimer;
+    private final Map<String, DistributionSummary> fanOut = new HashMap<>();
+    private final Map<String, Timer> dispatchTimers = new HashMap<>();
+    private final Map<String, Timer> deliveryTimers = new HashMap<>();
+    private final ThreadLocal<long[]> handlerStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    public MessagingMetrics(MeterRegistry meterRegistry,
+                            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+                            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel,
+                            @Qualifier("brokerChannel") AbstractSubscribableChannel brokerChannel,
+                            @Qualifier("simpAnnotationMethodMessageHandler") SimpAnnotationMethodMessageHandler annotationHandler,
+                            @Qualifier("simpleBrokerMessageHandler") AbstractBrokerMessageHandler brokerHandler,
+                            WebSocketMessageBrokerStats brokerStats,
+                            PresenceRegistry presenceRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.annotationHandler = annotationHandler;
+        this.brokerHandler = brokerHandler;
+
+        String appPrefix = annotationHandler.getDestinationPrefixes().stream().findFirst().orElse("");
+        annotationHandler.getHandlerMethods().forEach((mapping, handlerMethod) -> {
+            for (String pattern : mapping.getDestinationConditions().getPatterns()) {
+                handlerTimers.add(new HandlerTimer(pattern, handlerTimer(handlerMethod.getMethod().getName(),
+                        trimSlash(appPrefix) + pattern)));
+            }
+        });
+        this.unmappedHandlerTimer = handlerTimer("unmapped", "none");
+
+        for (String type : DESTINATION_TYPES) {
+            fanOut.put(type, DistributionSummary.builder("meetify.stomp.broker.fanout")
+                    .description("Subscriptions a broadcast was delivered to")
+                    .baseUnit("subscriptions")
+                    .tag("type", type)
+                    .register(meterRegistry));
+            dispatchTimers.put(type, Timer.builder("meetify.stomp.broker.dispatch")
+                    .description("Time for the broker to hand a broadcast to every subscriber")
+                    .tag("type", type)
+                    .register(meterRegistry));
+            deliveryTimers.put(type, Timer.builder("meetify.stomp.broker.delivery")
+                    .description("Time from publish until a copy is queued on the subscriber's WebSocket session")
+                    .tag("type", type)
+                    .register(meterRegistry));
+        }
+
+        clientInboundChannel.addInterceptor(new HandlerTimingInterceptor());
+        brokerChannel.addInterceptor(new BrokerTimingInterceptor());
+        clientOutboundChannel.addInterceptor(new DeliveryTimingInterceptor());
+        if (brokerHandler instanceof SimpleBrokerMessageHandler simpleBroker) {
+            simpleBroker.setSubscriptionRegistry(new FanOutRecordingRegistry(simpleBroker.getSubscriptionRegistry()));
+        }
+
+        registerBrokerStats(brokerStats);
+        Gauge.builder("meetify.rooms.active", presenceRegistry, registry -> registry.rooms().size())
+                .description("Rooms with presence held on this node")
+                .register(meterRegistry);
+        Gauge.builder("meetify.participants.connected", presenceRegistry, PresenceRegistry::sessionCount)
+                .description("Participants present in rooms on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Groups room destinations by what they carry, keeping tag values bounded.
+     */
+    public static String destinationType(@Nullable String destination) {
+        if (destination == null) {
+            return "other";
+        }
+        if (destination.startsWith(SessionRoutingTable.SIGNAL_QUEUE_PREFIX)) {
+            return "signal-queue";
+        }
+        if (destination.startsWith("/topic/room/")) {
+            if (destination.endsWith("/chat")) {
+                return "chat";
+            }
+            if (destination.endsWith("/signal")) {
+                return "signal";
+            }
+            if (destination.endsWith("/participant")) {
+                return "participant";
+            }
+        }
+        return "other";
+    }
+
+    private Timer handlerTimer(String handler, String destination) {
+        return Timer.builder("meetify.stomp.handler")
+                .description("Time spent handling an /app message, payload conversion included")
+                .tag("handler", handler)
+                .tag("destination", destination)
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    private Timer handlerTimerFor(@Nullable String destination) {
+        if (destination == null) {
+            return null;
+        }
+        for (String prefix : annotationHandler.getDestinationPrefixes()) {
+            if (destination.startsWith(prefix)) {
+                String lookup = destination.substring(trimSlash(prefix).length());
+                PathMatcher pathMatcher = annotationHandler.getPathMatcher();
+                for (HandlerTimer handlerTimer : handlerTimers) {
+                    if (pathMatcher.match(handlerTimer.pattern(), lookup)) {
+                        return handlerTimer.timer();
+                    }
+                }
+                return unmappedHandlerTimer;
+            }
+        }
+        // Not addressed to a @MessageMapping method
+        return null;
+    }
+
+    private void registerBrokerStats(WebSocketMessageBrokerStats brokerStats) {
+        sessionGauge(brokerStats, "websocket", SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+        sessionGauge(brokerStats, "http-streaming", SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+        sessionGauge(brokerStats, "http-polling", SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+        sessionsClosed(brokerStats, "limit-exceeded", SubProtocolWebSocketHandler.Stats::getLimitExceededSessions);
+        sessionsClosed(brokerStats, "no-messages-received", SubProtocolWebSocketHandler.Stats::getNoMessagesReceivedSessions);
+        sessionsClosed(brokerStats, "transport-error", SubProtocolWebSocketHandler.Stats::getTransportErrorSessions);
+        stompFrames(brokerStats, "connect", StompSubProtocolHandler.Stats::getTotalConnect);
+        stompFrames(brokerStats, "connected", StompSubProtocolHandler.Stats::getTotalConnected);
+        stompFrames(brokerStats, "disconnect", StompSubProtocolHandler.Stats::getTotalDisconnect);
+    }
+
+    private void sessionGauge(WebSocketMessageBrokerStats brokerStats, String transport,
+                              ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        Gauge.builder("meetify.websocket.sessions", brokerStats, stats -> sessionStat(stats, value))
+                .description("Open WebSocket and SockJS sessions")
+                .tag("transport", transport)
+                .register(meterRegistry);
+    }
+
+    private void sessionsClosed(WebSocketMessageBrokerStats brokerStats, String reason,
+                                ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        FunctionCounter.builder("meetify.websocket.sessions.closed", brokerStats, stats -> sessionStat(stats, value))
+                .description("Sessions closed by the server")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private void stompFrames(WebSocketMessageBrokerStats brokerStats, String command,
+                             ToIntFunction<StompSubProtocolHandler.Stats> value) {
+        FunctionCounter.builder("meetify.stomp.frames", brokerStats, stats -> {
+                    StompSubProtocolHandler.Stats stompStats = stats.getStompSubProtocolStats();
+                    return stompStats == null ? 0 : value.applyAsInt(stompStats);
+                })
+                .description("STOMP session frames handled")
+                .tag("command", command)
+                .register(meterRegistry);
+    }
+
+    private static double sessionStat(WebSocketMessageBrokerStats brokerStats,
+                                      ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        SubProtocolWebSocketHandler.Stats stats = brokerStats.getWebSocketSessionStats();
+        return stats == null ? 0 : value.applyAsInt(stats);
+    }
+
+    private static String trimSlash(String prefix) {
+        return prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+
+    @Nullable
+    private static Long publishedAt(MessageHeaders headers) {
+        return headers.get(PUBLISHED_AT_HEADER, Long.class);
+    }
+
+    private record HandlerTimer(String pattern, Timer timer) {
+    }
+
+    /**
+     * Times {@code @MessageMapping} dispatch on the inbound channel's threads.
+     */
+    private final class HandlerTimingInterceptor implements ExecutorChannelInterceptor {
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            if (handler == annotationHandler) {
+                handlerStart.get()[0] = System.nanoTime();
+            }
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                        @Nullable Exception ex) {
+            if (handler != annotationHandler
+                    || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                return;
+            }
+            Timer timer = handlerTimerFor(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            if (timer != null) {
+                timer.record(System.nanoTime() - handlerStart.get()[0], TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stamps broadcasts on their way to the broker and times the broker's fan-out, which
+     * runs on the publishing thread.
+     */
+    private final class BrokerTimingInterceptor implements ExecutorChannelInterceptor {
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                return message;
+            }
+            MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+            accessor.setHeader(PUBLISHED_AT_HEADER, System.nanoTime());
+            return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                        @Nullable Exception ex) {
+            Long publishedAt = publishedAt(message.getHeaders());
+            if (handler == brokerHandler && publishedAt != null) {
+                String type = destinationType(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                dispatchTimers.get(type).record(System.nanoTime() - publishedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Times stamped messages once the WebSocket handler has taken them off the outbound channel.
+     */
+    private final class DeliveryTimingInterceptor implements ExecutorChannelInterceptor {
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                        @Nullable Exception ex) {
+            Long publishedAt = publishedAt(message.getHeaders());
+            if (publishedAt != null) {
+                String type = destinationType(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                deliveryTimers.get(type).record(System.nanoTime() - publishedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Records how many subscriptions each broadcast matched, leaving the lookup itself to
+     * the broker's registry.
+     */
+    private final class FanOutRecordingRegistry implements SubscriptionRegistry {
+
+        private final SubscriptionRegistry delegate;
+
+        FanOutRecordingRegistry(SubscriptionRegistry delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void registerSubscription(Message<?> subscribeMessage) {
+            delegate.registerSubscription(subscribeMessage);
+        }
+
+        @Override
+        public void unregisterSubscription(Message<?> unsubscribeMessage) {
+            delegate.unregisterSubscription(unsubscribeMessage);
+        }
+
+        @Override
+        public void unregisterAllSubscriptions(String sessionId) {
+            delegate.unregisterAllSubscriptions(sessionId);
+        }
+
+        @Override
+        public MultiValueMap<String, String> findSubscriptions(Message<?> message) {
+            MultiValueMap<String, String> subscriptions = delegate.findSubscriptions(message);
+            int count = 0;
+            for (Collection<String> sessionSubscriptions : subscriptions.values()) {
+                count += sessionSubscriptions.size();
+            }
+            fanOut.get(destinationType(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))).record(count);
+            return subscriptions;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.participant-status")
+public class ParticipantStatusProperties {
+
+    /**
+     * Minimum time between two status delta frames sent to the same room.
+     */
+    private Duration broadcastInterval = Duration.ofMillis(100);
+
+    /**
+     * How often the latest participant states are written to the database.
+     */
+    private Duration flushInterval = Duration.ofSeconds(2);
+}
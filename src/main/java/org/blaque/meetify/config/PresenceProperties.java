@@ -0,0 +1,33 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.presence")
+public class PresenceProperties {
+
+    /**
+     * STOMP heartbeat the server sends and expects from clients. A client that misses
+     * heartbeats is disconnected by the broker.
+     */
+    private Duration heartbeat = Duration.ofSeconds(10);
+
+    /**
+     * How long a participant may stay without a WebSocket session, after a disconnect or
+     * since joining, before it is removed from its room. Covers SockJS reconnects.
+     */
+    private Duration disconnectGrace = Duration.ofSeconds(30);
+
+    /**
+     * How often stale participants and idle rooms are reaped.
+     */
+    private Duration reaperInterval = Duration.ofSeconds(15);
+
+    /**
+     * A room with no connected participants and nobody leaving within this period is closed.
+     */
+    private Duration emptyRoomTimeout = Duration.ofMinutes(10);
+}
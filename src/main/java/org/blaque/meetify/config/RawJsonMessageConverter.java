@@ -0,0 +1,45 @@
+package org.blaque.meetify.config;
+
+import org.blaque.meetify.dto.RawJson;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Sends {@link RawJson} payloads, such as events relayed from another node, as-is.
+ */
+public class RawJsonMessageConverter extends AbstractMessageConverter {
+
+    public RawJsonMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RawJson.class == clazz;
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return false;
+    }
+
+    @Override
+    @Nullable
+    protected Object convertToInternal(Object payload, @Nullable MessageHeaders headers, @Nullable Object conversionHint) {
+        RawJson json = (RawJson) payload;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length());
+        try {
+            json.writeTo(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,35 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.chat.recent")
+public class RecentChatProperties {
+
+    /**
+     * Serve the latest history pages of live rooms from memory. Only takes effect with the
+     * in-process event bus, since messages sent through other nodes never pass this one.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Latest messages kept per room. History pages are at most 200 messages, so rooms whose
+     * ring is smaller than a requested page fall back to the database.
+     */
+    private int capacity = 256;
+
+    /**
+     * Estimated heap used by the rings of all rooms together; the least useful rings are
+     * evicted beyond it.
+     */
+    private DataSize memoryLimit = DataSize.ofMegabytes(64);
+
+    /**
+     * A room's ring is dropped after this long without chat messages or history reads.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,22 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.room-cache")
+public class RoomCacheProperties {
+
+    /**
+     * Maximum number of rooms kept per index (by code and by id).
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a resolved room is trusted before it is read again. Bounds how long a
+     * room closed by another node still resolves here.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,28 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.room-events")
+public class RoomEventLogProperties {
+
+    /**
+     * Chat and participant events kept per room for resync. A client that missed more than
+     * this gets a full snapshot instead.
+     */
+    private int capacity = 256;
+
+    /**
+     * A room's log is dropped after this long without events or resyncs; clients then
+     * resync from a snapshot.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of rooms whose logs are kept on this node.
+     */
+    private long maximumRooms = 10_000;
+}
@@ -0,0 +1,153 @@
+package org.blaque.meetify.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbound channel executor that stripes messages over a fixed number of single-consumer
+ * lanes. SENDs go to the lane of the {@code {roomCode}} in their destination, so messages
+ * for one room are handled in arrival order while different rooms run in parallel. Every
+ * other frame (CONNECT, SUBSCRIBE, UNSUBSCRIBE, DISCONNECT) goes to its session's lane, so a
+ * session's subscriptions are never handled after its DISCONNECT.
+ * <p>
+ * Lanes alone cannot order a session's SENDs against its other frames, since those run on
+ * different lanes; {@code WebSocketConfig} turns on {@code preserveReceiveOrder} whenever
+ * lanes are used, which hands a session's next frame to a lane only once the previous one
+ * was handled.
+ * <p>
+ * Each lane queues up to {@code capacity} frames. When a lane is full the receiving thread
+ * waits up to {@link #OFFER_TIMEOUT_MILLIS} for room, then the frame is rejected and logged by
+ * the channel. A handler that blocks holds up every room on its lane, so lanes should be
+ * combined with the write-behind paths rather than synchronous database work.
+ */
+@Slf4j
+public class RoomLaneExecutor implements Executor, DisposableBean {
+
+    private static final String APP_PREFIX = "/app/";
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    static final long OFFER_TIMEOUT_MILLIS = 1000;
+
+    private final ThreadPoolExecutor[] lanes;
+
+    public RoomLaneExecutor(int laneCount, int capacity, boolean virtualThreads, MeterRegistry meterRegistry) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "stomp-lane-" + i;
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name(name).factory()
+                    : Thread.ofPlatform().name(name).daemon(true).factory();
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacity), threadFactory, RoomLaneExecutor::awaitRoom);
+
+            ThreadPoolExecutor lane = lanes[i];
+            Gauge.builder("meetify.stomp.lane.queue.depth", lane, executor -> executor.getQueue().size())
+                    .description("Inbound STOMP messages waiting on a room lane")
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        lanes[laneOf(task)].execute(task);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int queueDepth(int lane) {
+        return lanes[lane].getQueue().size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("STOMP lane did not drain, {} messages dropped", lane.shutdownNow().size());
+            }
+        }
+    }
+
+    private int laneOf(Runnable task) {
+        return task instanceof MessageHandlingRunnable handlingRunnable ? laneOf(handlingRunnable.getMessage()) : 0;
+    }
+
+    int laneOf(Message<?> message) {
+        int hash = 0;
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            hash = roomHash(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        }
+        if (hash == 0) {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            hash = sessionId != null ? sessionId.hashCode() : 0;
+        }
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Holds the receiving thread until the lane has room, which slows the client down
+     * instead of growing the queue.
+     */
+    private static void awaitRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("STOMP lane is shut down");
+        }
+        try {
+            if (lane.getQueue().offer(task, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RejectedExecutionException("STOMP lane full for " + OFFER_TIMEOUT_MILLIS + " ms");
+    }
+
+    /**
+     * Hashes the room code in {@code /app/{type}/{roomCode}/...} or
+     * {@code /topic/room/{roomCode}/...} without allocating; returns 0 for other destinations.
+     */
+    static int roomHash(String destination) {
+        if (destination == null) {
+            return 0;
+        }
+        int start;
+        if (destination.startsWith(APP_PREFIX)) {
+            int typeEnd = destination.indexOf('/', APP_PREFIX.length());
+            if (typeEnd < 0) {
+                return 0;
+            }
+            start = typeEnd + 1;
+        } else if (destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            start = ROOM_TOPIC_PREFIX.length();
+        } else {
+            return 0;
+        }
+
+        int hash = 0;
+        for (int i = start; i < destination.length(); i++) {
+            char c = destination.charAt(i);
+            if (c == '/') {
+                break;
+            }
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,187 @@
+package org.blaque.meetify.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming codec for {@link WebRTCSignalDTO}. Decoding reads the envelope fields with a
+ * token parser and keeps {@code data} as a {@link RawJson} view over the inbound frame,
+ * so SDP and candidates never become a {@code LinkedHashMap} tree. Encoding measures the
+ * frame first and writes it into one exactly sized array, which becomes the payload as is,
+ * so a frame costs one allocation whichever thread, platform or virtual, encodes it.
+ */
+public class SignalMessageConverter extends AbstractMessageConverter {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public SignalMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return WebRTCSignalDTO.class == clazz;
+    }
+
+    @Override
+    @Nullable
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, @Nullable Object conversionHint) {
+        Object payload = message.getPayload();
+        byte[] bytes = payload instanceof byte[] raw ? raw : payload.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (JsonParser parser = jsonFactory.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MessageConversionException(message, "Signal payload must be a JSON object");
+            }
+            WebRTCSignalDTO signal = new WebRTCSignalDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type" -> signal.setType(parser.getValueAsString());
+                    case "senderSessionId" -> signal.setSenderSessionId(parser.getValueAsString());
+                    case "targetSessionId" -> signal.setTargetSessionId(parser.getValueAsString());
+                    case "data" -> signal.setData(value == JsonToken.VALUE_NULL ? null : sliceValue(parser, bytes));
+                    default -> parser.skipChildren();
+                }
+            }
+            return signal;
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "Could not read signal: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Nullable
+    protected Object convertToInternal(Object payload, @Nullable MessageHeaders headers, @Nullable Object conversionHint) {
+        WebRTCSignalDTO signal = (WebRTCSignalDTO) payload;
+        RawJson data = signal.getData();
+
+        int fields = count(signal.getType()) + count(signal.getSenderSessionId())
+                + count(signal.getTargetSessionId()) + count(data);
+        int size = 2 + Math.max(0, fields - 1)
+                + fieldLength("type", signal.getType())
+                + fieldLength("senderSessionId", signal.getSenderSessionId())
+                + fieldLength("targetSessionId", signal.getTargetSessionId())
+                + (data != null ? "data".length() + 3 + data.length() : 0);
+
+        Frame frame = new Frame(size);
+        frame.append('{');
+        boolean first = true;
+        first = frame.appendField("type", signal.getType(), first);
+        first = frame.appendField("senderSessionId", signal.getSenderSessionId(), first);
+        first = frame.appendField("targetSessionId", signal.getTargetSessionId(), first);
+        if (data != null) {
+            frame.appendName("data", first);
+            frame.append(data);
+        }
+        frame.append('}');
+        return frame.bytes();
+    }
+
+    private static int count(@Nullable Object value) {
+        return value != null ? 1 : 0;
+    }
+
+    private static int fieldLength(String name, @Nullable String value) {
+        return value != null ? name.length() + 3 + quotedLength(value) : 0;
+    }
+
+    private static int quotedLength(String value) {
+        return 2 + (isPlainAscii(value) ? value.length() : JsonStringEncoder.getInstance().quoteAsUTF8(value).length);
+    }
+
+    private static boolean isPlainAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips the current value and returns its exact bytes from the source frame.
+     */
+    private RawJson sliceValue(JsonParser parser, byte[] bytes) throws IOException {
+        int start = (int) parser.currentTokenLocation().getByteOffset();
+        parser.skipChildren();
+        parser.finishToken();
+        int end = (int) parser.currentLocation().getByteOffset();
+        return RawJson.slice(bytes, start, end - start);
+    }
+
+    /**
+     * A frame being written into an array sized for it up front.
+     */
+    private static final class Frame {
+
+        private final byte[] bytes;
+        private int length;
+
+        Frame(int size) {
+            this.bytes = new byte[size];
+        }
+
+        byte[] bytes() {
+            if (length != bytes.length) {
+                throw new IllegalStateException("Signal frame measured " + bytes.length + " bytes but wrote " + length);
+            }
+            return bytes;
+        }
+
+        void append(char c) {
+            bytes[length++] = (byte) c;
+        }
+
+        void append(RawJson value) {
+            value.copyTo(bytes, length);
+            length += value.length();
+        }
+
+        boolean appendField(String name, @Nullable String value, boolean first) {
+            if (value == null) {
+                return first;
+            }
+            appendName(name, first);
+            appendString(value);
+            return false;
+        }
+
+        void appendName(String name, boolean first) {
+            if (!first) {
+                append(',');
+            }
+            appendString(name);
+            append(':');
+        }
+
+        private void appendString(String value) {
+            append('"');
+            if (isPlainAscii(value)) {
+                for (int i = 0; i < value.length(); i++) {
+                    bytes[length++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+                System.arraycopy(escaped, 0, bytes, length, escaped.length);
+                length += escaped.length;
+            }
+            append('"');
+        }
+    }
+}
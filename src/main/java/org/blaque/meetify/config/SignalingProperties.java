@@ -0,0 +1,33 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.signaling")
+public class SignalingProperties {
+
+    private IceCoalescing iceCoalescing = new IceCoalescing();
+
+    @Data
+    public static class IceCoalescing {
+
+        /**
+         * Buffer trickle ICE candidates per (sender, target) pair and deliver them as one
+         * "ice-candidates" frame. Clients must understand the batched frame type.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first candidate of a batch may wait for more to arrive.
+         */
+        private Duration window = Duration.ofMillis(25);
+
+        /**
+         * A batch is delivered as soon as it reaches this many candidates.
+         */
+        private int maxBatchSize = 32;
+    }
+}
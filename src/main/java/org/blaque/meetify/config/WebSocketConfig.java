@@ -1,25 +1,133 @@
 package org.blaque.meetify.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final Environment environment;
+    private final ExecutionProperties executionProperties;
+    private final ObjectProvider<RoomLaneExecutor> roomLaneExecutor;
+    private final PresenceProperties presenceProperties;
+    private final WebSocketProperties webSocketProperties;
+    private final List<WebSocketHandlerDecoratorFactory> handlerDecoratorFactories;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        long heartbeat = presenceProperties.getHeartbeat().toMillis();
+        // Clients that stop sending heartbeats are disconnected, which lets the presence reaper remove them
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeat, heartbeat})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
+        // Keep offers, answers and (batched) ICE candidates in send order per session. SessionRoutingTable's
+        // per-session ordered channels rely on the outbound interceptor this installs
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        RoomLaneExecutor lanes = roomLaneExecutor.getIfAvailable();
+        if (lanes != null) {
+            registration.executor(lanes);
+        } else {
+            configureChannel(registration, "stomp-inbound-", executionProperties.getInboundPoolSize());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureChannel(registration, "stomp-outbound-", executionProperties.getOutboundPoolSize());
     }
 
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new SignalMessageConverter());
+        messageConverters.add(new RawJsonMessageConverter());
+        return true;
+    }
+
+    /**
+     * {@code /ws-native} is a plain WebSocket endpoint: no SockJS framing or JSON escaping,
+     * and Tomcat negotiates permessage-deflate with clients that offer it, which shrinks SDP
+     * several times over. {@code /ws} stays as the SockJS fallback for networks that block
+     * WebSocket upgrades. Deflate can be turned off for both with the system property
+     * {@code org.apache.tomcat.websocket.DISABLE_BUILTIN_EXTENSIONS=true}.
+     */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Lanes split a session's frames by room; this keeps them in the order they arrived
+        registry.setPreserveReceiveOrder(roomLaneExecutor.getIfAvailable() != null);
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*");
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit((int) webSocketProperties.getMessageSizeLimit().toBytes())
+                .setSendBufferSizeLimit((int) webSocketProperties.getSendBufferSizeLimit().toBytes())
+                .setSendTimeLimit((int) webSocketProperties.getSendTimeLimit().toMillis());
+        handlerDecoratorFactories.forEach(registration::addDecoratorFactory);
+    }
+
+    /**
+     * Container buffers have to hold a whole message, since STOMP sessions do not accept
+     * partial WebSocket messages.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        int bufferSize = (int) webSocketProperties.getMessageSizeLimit().toBytes();
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(bufferSize);
+        container.setMaxBinaryMessageBufferSize(bufferSize);
+        container.setMaxSessionIdleTimeout(webSocketProperties.getIdleTimeout().toMillis());
+        return container;
+    }
+
+    /**
+     * Runs a channel on virtual threads when they are enabled, so handlers blocked on JPA
+     * no longer hold a pool thread that signaling traffic is waiting for.
+     */
+    private void configureChannel(ChannelRegistration registration, String threadNamePrefix, int poolSize) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(new VirtualThreadTaskExecutor(threadNamePrefix));
+        } else if (poolSize > 0) {
+            registration.taskExecutor()
+                    .corePoolSize(poolSize)
+                    .maxPoolSize(poolSize);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package org.blaque.meetify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "meetify.websocket")
+public class WebSocketProperties {
+
+    /**
+     * Largest inbound STOMP message, and the size of the container's per-session text and
+     * binary buffers. SDP offers of rooms with several video tracks run to tens of kilobytes.
+     */
+    private DataSize messageSizeLimit = DataSize.ofKilobytes(128);
+
+    /**
+     * Outbound data queued for a session that is not keeping up at which it is closed at
+     * once, whatever the kind of the queued messages.
+     */
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+    /**
+     * How long a single write to a session may block before the session is closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /**
+     * Sessions with no traffic at all, STOMP heartbeats included, are closed by the container
+     * after this long.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(2);
+
+    private SlowConsumer slowConsumer = new SlowConsumer();
+
+    @Data
+    public static class SlowConsumer {
+
+        /**
+         * Queued outbound bytes per session above which droppable messages are shed: redundant
+         * heartbeats, participant status deltas (the client gets one room snapshot instead)
+         * and ICE candidates from participants who have left. Chat, offers and answers are
+         * never dropped.
+         */
+        private DataSize budget = DataSize.ofKilobytes(128);
+
+        /**
+         * A session still over budget after shedding for this long is disconnected.
+         */
+        private Duration overBudgetTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -4,11 +4,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.blaque.meetify.dto.*;
 import org.blaque.meetify.service.ChatService;
+import org.blaque.meetify.service.RoomEventLog;
 import org.blaque.meetify.service.RoomService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -16,8 +23,14 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class RoomController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int MAX_SEARCH_ROOMS = 50;
+    private static final int SNAPSHOT_CHAT_LIMIT = 50;
+
     private final RoomService roomService;
     private final ChatService chatService;
+    private final RoomEventLog roomEventLog;
 
     @PostMapping
     public ResponseEntity<RoomResponse> createRoom(@Valid @RequestBody CreateRoomRequest request) {
@@ -31,6 +44,17 @@ public class RoomController {
         return ResponseEntity.ok(room);
     }
 
+    /**
+     * The room's participants in join order, a page at a time; the only way to list the
+     * participants of large rooms, whose {@link RoomResponse} carries just the count.
+     */
+    @GetMapping("/{roomCode}/participants")
+    public ResponseEntity<ParticipantPage> getParticipants(@PathVariable String roomCode,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(roomService.getParticipantPage(roomCode, after, limit));
+    }
+
     @PostMapping("/join")
     public ResponseEntity<ParticipantResponse> joinRoom(@Valid @RequestBody JoinRoomRequest request) {
         String sessionId = UUID.randomUUID().toString();
@@ -48,10 +72,88 @@ public class RoomController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * What a reconnecting client missed after {@code since} of {@code epoch} (the last
+     * room-seq and room-epoch headers it saw): the events themselves while this node still
+     * has them, otherwise a snapshot of the room and its latest chat page. Subscribe before
+     * calling this, then apply frames with a higher room-seq than the returned sequence.
+     */
+    @GetMapping("/{roomCode}/events")
+    public ResponseEntity<RoomResyncResponse> resync(@PathVariable String roomCode,
+                                                     @RequestParam(required = false) String epoch,
+                                                     @RequestParam(defaultValue = "0") long since) {
+        UUID roomId = roomService.getRoomId(roomCode);
+        RoomEventLog.Since missed = roomEventLog.since(roomCode, epoch, since);
+        if (missed.events() != null) {
+            return ResponseEntity.ok(RoomResyncResponse.builder()
+                    .epoch(missed.epoch())
+                    .sequence(missed.sequence())
+                    .snapshot(false)
+                    .events(missed.events())
+                    .build());
+        }
+        // Taken after the position, so it may already reflect events the client receives next
+        return ResponseEntity.ok(RoomResyncResponse.builder()
+                .epoch(missed.epoch())
+                .sequence(missed.sequence())
+                .snapshot(true)
+                .room(roomService.getRoomByCode(roomCode))
+                .chat(chatService.getMessagePage(roomId, null, null, SNAPSHOT_CHAT_LIMIT))
+                .build());
+    }
+
     @GetMapping("/{roomCode}/messages")
-    public ResponseEntity<List<ChatMessageDTO>> getChatHistory(@PathVariable String roomCode) {
-        RoomResponse room = roomService.getRoomByCode(roomCode);
-        List<ChatMessageDTO> messages = chatService.getRoomMessages(UUID.fromString(String.valueOf(room.getId())));
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<ChatHistoryPage> getChatHistory(@PathVariable String roomCode,
+                                                          @RequestParam(required = false) String before,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        UUID roomId = roomService.getRoomId(roomCode);
+        ChatHistoryPage page = chatService.getMessagePage(roomId, before, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/{roomCode}/messages/search")
+    public ResponseEntity<ChatSearchPage> searchRoomChat(@PathVariable String roomCode,
+                                                         @RequestParam String q,
+                                                         @RequestParam(defaultValue = "0") int offset,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return searchChat(List.of(roomCode), q, offset, limit);
+    }
+
+    /**
+     * Searches several rooms at once; rooms are named explicitly, since knowing a room code is
+     * what grants access to its chat.
+     */
+    @GetMapping("/messages/search")
+    public ResponseEntity<ChatSearchPage> searchChat(@RequestParam List<String> rooms,
+                                                     @RequestParam String q,
+                                                     @RequestParam(defaultValue = "0") int offset,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        if (rooms.size() > MAX_SEARCH_ROOMS) {
+            throw new IllegalArgumentException("At most " + MAX_SEARCH_ROOMS + " rooms can be searched at once");
+        }
+        Map<UUID, String> roomIds = new LinkedHashMap<>();
+        for (String roomCode : rooms) {
+            roomIds.put(roomService.getRoomIdIncludingClosed(roomCode), roomCode);
+        }
+        return ResponseEntity.ok(chatService.search(roomIds, q, offset, limit));
+    }
+
+    @GetMapping("/{roomCode}/messages/export")
+    public ResponseEntity<StreamingResponseBody> exportChatHistory(@PathVariable String roomCode,
+                                                                   @RequestParam(defaultValue = "false") boolean gzip) {
+        UUID roomId = roomService.getRoomIdIncludingClosed(roomCode);
+        String fileName = roomCode + "-chat.ndjson" + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = outputStream -> chatService.exportMessages(roomId, outputStream, gzip);
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
     }
 }
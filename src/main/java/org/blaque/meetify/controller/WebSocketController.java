@@ -2,17 +2,20 @@ package org.blaque.meetify.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.blaque.meetify.dto.ChatMessageDTO;
+import org.blaque.meetify.dto.ChatMessageRequest;
+import org.blaque.meetify.dto.ParticipantInfoDTO;
+import org.blaque.meetify.dto.ParticipantStatusDTO;
 import org.blaque.meetify.dto.WebRTCSignalDTO;
 import org.blaque.meetify.service.ChatService;
+import org.blaque.meetify.service.EventRecorder;
+import org.blaque.meetify.service.ParticipantStatusAggregator;
+import org.blaque.meetify.service.RoomEventBus;
+import org.blaque.meetify.service.SignalingService;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 @Controller
@@ -20,30 +23,24 @@ import java.util.UUID;
 @Slf4j
 public class WebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventBus roomEventBus;
     private final ChatService chatService;
+    private final SignalingService signalingService;
+    private final ParticipantStatusAggregator participantStatusAggregator;
+    private final EventRecorder eventRecorder;
 
     /**
      * Handle WebRTC signaling messages (offer, answer, ice-candidate)
      * Client sends to: /app/signal/{roomCode}
      * Server broadcasts to: /topic/room/{roomCode}/signal
+     * or /queue/signal/{targetSessionId} for targeted signals
      */
     @MessageMapping("/signal/{roomCode}")
     public void handleSignaling(@DestinationVariable String roomCode, @Payload WebRTCSignalDTO signal) {
-        log.info("WebRTC signal received in room {}: type={}, from={}, to={}",
-                roomCode, signal.getType(), signal.getSenderSessionId(), signal.getTargetSessionId());
+        eventRecorder.record("signal." + signal.getType(), roomCode,
+                "from", signal.getSenderSessionId(), "to", signal.getTargetSessionId());
 
-        if (signal.getTargetSessionId() != null && !signal.getTargetSessionId().isEmpty()) {
-            messagingTemplate.convertAndSend(
-                    "/queue/signal/" + signal.getTargetSessionId(),
-                    signal
-            );
-        } else {
-            messagingTemplate.convertAndSend(
-                    "/topic/room/" + roomCode + "/signal",
-                    signal
-            );
-        }
+        signalingService.relay(roomCode, signal);
     }
 
     /**
@@ -52,24 +49,21 @@ public class WebSocketController {
      * Server broadcasts to: /topic/room/{roomCode}/chat
      */
     @MessageMapping("/chat/{roomCode}")
-    public void handleChatMessage(@DestinationVariable String roomCode, @Payload Map<String, String> payload) {
-        String roomIdStr = payload.get("roomId");
-        String senderUsername = payload.get("senderUsername");
-        String senderSessionId = payload.get("senderSessionId");
-        String message = payload.get("message");
-
-        log.info("Chat message received in room {}: from={}, message={}",
-                roomCode, senderUsername, message);
+    public void handleChatMessage(@DestinationVariable String roomCode, @Payload ChatMessageRequest payload) {
+        eventRecorder.record("chat", roomCode,
+                "from", payload.getSenderSessionId(), "username", payload.getSenderUsername(),
+                "message", payload.getMessage());
 
         try {
-            UUID roomId = UUID.fromString(roomIdStr);
-
-            ChatMessageDTO chatMessage = chatService.saveMessage(roomId, senderUsername, senderSessionId, message);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/room/" + roomCode + "/chat",
-                    chatMessage
-            );
+            UUID roomId = UUID.fromString(payload.getRoomId());
+
+            chatService.saveMessage(
+                    roomId, payload.getSenderUsername(), payload.getSenderSessionId(), payload.getMessage(),
+                    chatMessage -> roomEventBus.publish(
+                            roomCode,
+                            "/topic/room/" + roomCode + "/chat",
+                            chatMessage
+                    ));
         } catch (Exception e) {
             log.error("Error handling chat message", e);
         }
@@ -78,53 +72,41 @@ public class WebSocketController {
     /**
      * Handle participant status updates (mute/unmute, video on/off)
      * Client sends to: /app/participant/{roomCode}/status
-     * Server broadcasts to: /topic/room/{roomCode}/participant
+     * Server broadcasts batched deltas to: /topic/room/{roomCode}/participant
      */
     @MessageMapping("/participant/{roomCode}/status")
-    public void handleParticipantStatus(@DestinationVariable String roomCode, @Payload Map<String, Object> status) {
-        log.info("Participant status update in room {}: {}", roomCode, status);
+    public void handleParticipantStatus(@DestinationVariable String roomCode, @Payload ParticipantStatusDTO status) {
+        eventRecorder.record("status", roomCode,
+                "sessionId", status.getSessionId(), "muted", status.getIsMuted(), "video", status.getIsVideoEnabled());
 
-        messagingTemplate.convertAndSend(
-                "/topic/room/" + roomCode + "/participant",
-                status
-        );
+        if (!participantStatusAggregator.submit(status.getSessionId(), status.getIsMuted(), status.getIsVideoEnabled())) {
+            log.warn("Status update for unknown participant {} in room {}", status.getSessionId(), roomCode);
+        }
     }
 
     /**
      * Handle participant join notification
      * Client sends to: /app/participant/{roomCode}/join
-     * Server broadcasts to: /topic/room/{roomCode}/participant
+     * Server broadcasts to: /topic/room/{roomCode}/participant, folded into the next digest in large rooms
      */
     @MessageMapping("/participant/{roomCode}/join")
-    public void handleParticipantJoin(@DestinationVariable String roomCode, @Payload Map<String, String> participant) {
-        log.info("Participant joined room {}: {}", roomCode, participant);
+    public void handleParticipantJoin(@DestinationVariable String roomCode, @Payload ParticipantInfoDTO participant) {
+        eventRecorder.record("participant.join", roomCode,
+                "sessionId", participant.getSessionId(), "username", participant.getUsername());
 
-        messagingTemplate.convertAndSend(
-                "/topic/room/" + roomCode + "/participant",
-                Map.of(
-                        "type", "join",
-                        "participant", participant,
-                        "timestamp", LocalDateTime.now().toString()
-                )
-        );
+        participantStatusAggregator.announceJoin(roomCode, participant);
     }
 
     /**
      * Handle participant leave notification
      * Client sends to: /app/participant/{roomCode}/leave
-     * Server broadcasts to: /topic/room/{roomCode}/participant
+     * Server broadcasts to: /topic/room/{roomCode}/participant, folded into the next digest in large rooms
      */
     @MessageMapping("/participant/{roomCode}/leave")
-    public void handleParticipantLeave(@DestinationVariable String roomCode, @Payload Map<String, String> participant) {
-        log.info("Participant left room {}: {}", roomCode, participant);
+    public void handleParticipantLeave(@DestinationVariable String roomCode, @Payload ParticipantInfoDTO participant) {
+        eventRecorder.record("participant.leave", roomCode,
+                "sessionId", participant.getSessionId(), "username", participant.getUsername());
 
-        messagingTemplate.convertAndSend(
-                "/topic/room/" + roomCode + "/participant",
-                Map.of(
-                        "type", "leave",
-                        "participant", participant,
-                        "timestamp", LocalDateTime.now().toString()
-                )
-        );
+        participantStatusAggregator.announceLeave(roomCode, participant);
     }
 }
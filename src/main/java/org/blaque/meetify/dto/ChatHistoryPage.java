@@ -0,0 +1,20 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatHistoryPage {
+
+    private List<ChatMessageDTO> messages; // oldest first
+    private String beforeCursor; // pass as "before" to load older messages
+    private String afterCursor; // pass as "after" to load newer messages
+    private Boolean hasMore; // more messages exist in the requested direction
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @Builder
 public class ChatMessageDTO {
 
+    private UUID id;
     private String senderUsername;
     private String senderSessionId;
     private String message;
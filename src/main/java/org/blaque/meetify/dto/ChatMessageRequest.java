@@ -0,0 +1,16 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageRequest {
+
+    private String roomId;
+    private String senderUsername;
+    private String senderSessionId;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatSearchHit {
+
+    private String roomCode;
+    private ChatMessageDTO message;
+    private String snippet; // HTML-escaped excerpt with matches wrapped in <mark></mark>
+    private Double rank;
+}
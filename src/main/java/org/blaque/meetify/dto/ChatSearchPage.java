@@ -0,0 +1,19 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatSearchPage {
+
+    private List<ChatSearchHit> hits; // best match first
+    private Integer nextOffset; // pass as "offset" to load the next page
+    private Boolean hasMore;
+}
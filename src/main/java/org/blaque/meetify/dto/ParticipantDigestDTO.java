@@ -0,0 +1,22 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantDigestDTO {
+
+    private String type; // "digest"
+    private List<ParticipantInfoDTO> joined; // in join order
+    private List<String> left; // session ids
+    private List<ParticipantStatusDTO> changes; // latest state of each participant that changed
+    private Integer participantCount; // room size after the changes
+    private String timestamp;
+}
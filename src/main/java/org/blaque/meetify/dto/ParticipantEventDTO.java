@@ -0,0 +1,17 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantEventDTO {
+
+    private String type; // "join", "leave"
+    private ParticipantInfoDTO participant;
+    private String timestamp;
+}
@@ -0,0 +1,20 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantPage {
+
+    private List<ParticipantResponse> participants; // in join order
+    private String afterCursor; // pass as "after" to load the next page
+    private Boolean hasMore; // more participants joined after this page
+    private Integer participantCount;
+}
@@ -0,0 +1,20 @@
+package org.blaque.meetify.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ParticipantStatusDTO {
+
+    private String sessionId;
+    private String username;
+    private Boolean isMuted;
+    private Boolean isVideoEnabled;
+}
@@ -0,0 +1,19 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantStatusDeltaDTO {
+
+    private String type; // "status"
+    private List<ParticipantStatusDTO> changes; // latest state of each participant that changed
+    private String timestamp;
+}
@@ -0,0 +1,108 @@
+package org.blaque.meetify.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * An opaque, already-encoded JSON value (an SDP description or ICE candidate) that the
+ * server relays without looking inside. It is usually a view over the inbound frame's
+ * bytes, so relaying it costs neither a parse tree nor a copy.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    private RawJson(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static RawJson slice(byte[] bytes, int offset, int length) {
+        return new RawJson(bytes, offset, length);
+    }
+
+    public static RawJson of(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new RawJson(bytes, 0, bytes.length);
+    }
+
+    public static RawJson quoted(String value) {
+        return of("\"" + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + "\"");
+    }
+
+    /**
+     * Joins values into a JSON array without re-encoding them.
+     */
+    public static RawJson array(List<RawJson> values) {
+        int size = 2 + Math.max(0, values.size() - 1);
+        for (RawJson value : values) {
+            size += value.length;
+        }
+        byte[] bytes = new byte[size];
+        int position = 0;
+        bytes[position++] = '[';
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                bytes[position++] = ',';
+            }
+            RawJson value = values.get(i);
+            System.arraycopy(value.bytes, value.offset, bytes, position, value.length);
+            position += value.length;
+        }
+        bytes[position] = ']';
+        return new RawJson(bytes, 0, size);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes, offset, length);
+    }
+
+    /**
+     * Copies the value into {@code target} at {@code position}; the caller ensures capacity.
+     */
+    public void copyTo(byte[] target, int position) {
+        System.arraycopy(bytes, offset, target, position, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    static class Serializer extends JsonSerializer<RawJson> {
+
+        @Override
+        public void serialize(RawJson value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(value.toString());
+        }
+    }
+
+    static class Deserializer extends JsonDeserializer<RawJson> {
+
+        @Override
+        public RawJson deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return RawJson.of(parser.readValueAsTree().toString());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.blaque.meetify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomEventDTO {
+
+    private Long sequence;
+    private String destination; // the /topic/room/{roomCode}/... destination it was broadcast to
+    private Object payload; // the frame body as it was broadcast
+}
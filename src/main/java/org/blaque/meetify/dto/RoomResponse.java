@@ -20,5 +20,6 @@ public class RoomResponse {
     private String roomName;
     private LocalDateTime createdAt;
     private Boolean isActive;
-    private List<ParticipantResponse> participants;
+    private List<ParticipantResponse> participants; // null in large rooms, page through /participants instead
+    private Integer participantCount;
 }
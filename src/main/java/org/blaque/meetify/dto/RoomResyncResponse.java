@@ -0,0 +1,24 @@
+package org.blaque.meetify.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomResyncResponse {
+
+    private String epoch; // pass back as "epoch" on the next resync
+    private Long sequence; // last event covered by this response
+    private Boolean snapshot; // true when room and chat replace the client's state instead of events
+    private List<RoomEventDTO> events; // oldest first, only when snapshot is false
+    private RoomResponse room;
+    private ChatHistoryPage chat; // latest chat page
+}
@@ -14,5 +14,5 @@ public class WebRTCSignalDTO {
     private String type; // "offer", "answer", "ice-candidate"
     private String senderSessionId;
     private String targetSessionId;
-    private Object data; // SDP or ICE candidate data
+    private RawJson data; // SDP or ICE candidate data, relayed as-is
 }
@@ -0,0 +1,128 @@
+package org.blaque.meetify.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.blaque.meetify.service.ChatMessageWriter.PendingChatMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to chat messages: batched inserts for the write-behind path,
+ * streaming reads for transcript exports and full-text search.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO chat_messages (id, room_id, sender_username, sender_session_id, message, sent_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    static final String SELECT_BY_ROOM_SQL = """
+            SELECT id, sender_username, sender_session_id, message, sent_at
+            FROM chat_messages
+            WHERE room_id = ?
+            ORDER BY sent_at, id
+            """;
+
+    /**
+     * Every match in the given rooms is found through the index and ranked, since the top
+     * ranks are only known once all are; the cost grows with the number of matches, not with
+     * the page. Snippets, the expensive part per row, are built for the rows of the page
+     * alone. The {@code to_tsvector} expression must match {@code idx_chat_messages_message_fts}.
+     */
+    static final String SEARCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', ?) AS query),
+                 hits AS (SELECT c.id, c.room_id, c.sender_username, c.sender_session_id, c.message, c.sent_at,
+                                 ts_rank_cd(to_tsvector('simple', c.message), q.query) AS rank
+                          FROM chat_messages c, q
+                          WHERE c.room_id = ANY (?) AND to_tsvector('simple', c.message) @@ q.query
+                          ORDER BY rank DESC, c.sent_at DESC, c.id DESC
+                          LIMIT ? OFFSET ?)
+            SELECT hits.*, ts_headline('simple', hits.message, q.query, ?) AS snippet
+            FROM hits, q
+            ORDER BY hits.rank DESC, hits.sent_at DESC, hits.id DESC
+            """;
+
+    // Control characters rather than tags, so callers can HTML-escape the snippet before placing their own
+    public static final char HIGHLIGHT_START = '\u0002';
+    public static final char HIGHLIGHT_STOP = '\u0003';
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + HIGHLIGHT_START + "\", StopSel=\"" + HIGHLIGHT_STOP
+            + "\", MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBatch(List<PendingChatMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, message) -> {
+            ps.setObject(1, message.getId());
+            ps.setObject(2, message.getRoomId());
+            ps.setString(3, message.getSenderUsername());
+            ps.setString(4, message.getSenderSessionId());
+            ps.setString(5, message.getMessage());
+            ps.setTimestamp(6, Timestamp.valueOf(message.getSentAt()));
+        });
+    }
+
+    /**
+     * Streams a room's messages in chronological order without materialising them.
+     * Postgres only uses a server-side cursor for the fetch size when the call runs inside
+     * a transaction, so the call joins the caller's or opens a read-only one.
+     */
+    @Transactional(readOnly = true)
+    public void forEachInRoom(UUID roomId, int fetchSize, Consumer<ChatMessageDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    SELECT_BY_ROOM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, roomId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(ChatMessageDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .senderUsername(rs.getString("sender_username"))
+                .senderSessionId(rs.getString("sender_session_id"))
+                .message(rs.getString("message"))
+                .sentAt(rs.getTimestamp("sent_at").toLocalDateTime())
+                .build()));
+    }
+
+    /**
+     * Messages of the given rooms matching a web-search style query ({@code "quoted phrases"},
+     * {@code or}, {@code -excluded}), best match first, with snippets whose matches are
+     * delimited by {@link #HIGHLIGHT_START} and {@link #HIGHLIGHT_STOP}.
+     */
+    public List<SearchMatch> search(Collection<UUID> roomIds, String query, int offset, int limit) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SEARCH_SQL);
+            ps.setString(1, query);
+            ps.setArray(2, connection.createArrayOf("uuid", roomIds.toArray()));
+            ps.setInt(3, limit);
+            ps.setInt(4, offset);
+            ps.setString(5, HEADLINE_OPTIONS);
+            return ps;
+        }, (rs, rowNum) -> new SearchMatch(
+                rs.getObject("room_id", UUID.class),
+                ChatMessageDTO.builder()
+                        .id(rs.getObject("id", UUID.class))
+                        .senderUsername(rs.getString("sender_username"))
+                        .senderSessionId(rs.getString("sender_session_id"))
+                        .message(rs.getString("message"))
+                        .sentAt(rs.getTimestamp("sent_at").toLocalDateTime())
+                        .build(),
+                rs.getString("snippet"),
+                rs.getDouble("rank")));
+    }
+
+    public record SearchMatch(UUID roomId, ChatMessageDTO message, String snippet, double rank) {
+    }
+}
@@ -2,13 +2,44 @@ package org.blaque.meetify.repository;
 
 import org.blaque.meetify.entity.ChatMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID> {
 
-    List<ChatMessage> findByRoomIdOrderBySentAtAsc(UUID roomId);
+    @Query(value = """
+            SELECT * FROM chat_messages
+            WHERE room_id = :roomId
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessage> findLatest(@Param("roomId") UUID roomId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM chat_messages
+            WHERE room_id = :roomId AND (sent_at, id) < (:sentAt, :id)
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessage> findBefore(@Param("roomId") UUID roomId,
+                                 @Param("sentAt") LocalDateTime sentAt,
+                                 @Param("id") UUID id,
+                                 @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM chat_messages
+            WHERE room_id = :roomId AND (sent_at, id) > (:sentAt, :id)
+            ORDER BY sent_at ASC, id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessage> findAfter(@Param("roomId") UUID roomId,
+                                @Param("sentAt") LocalDateTime sentAt,
+                                @Param("id") UUID id,
+                                @Param("limit") int limit);
 }
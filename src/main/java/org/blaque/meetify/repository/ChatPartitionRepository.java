@@ -0,0 +1,116 @@
+package org.blaque.meetify.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL and bulk reads for the monthly partitions of {@code chat_messages}, named
+ * {@code chat_messages_YYYYMM}. Partition names are derived from {@link YearMonth}s only,
+ * never from user input, which is why they can be formatted into statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("chat_messages_(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String partitionName(YearMonth month) {
+        return "chat_messages_" + month.format(SUFFIX);
+    }
+
+    /**
+     * Months that currently have their own partition; the default partition is not included.
+     */
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'chat_messages'::regclass
+                        """, String.class)
+                .stream()
+                .map(name -> {
+                    Matcher matcher = PARTITION_NAME.matcher(name);
+                    return matcher.matches() ? YearMonth.parse(matcher.group(1), SUFFIX) : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Creates the month's partition, first moving any of its rows out of the default
+     * partition so the attach does not fail. Must run inside a transaction.
+     */
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE chat_messages INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM chat_messages_default
+                    WHERE sent_at >= ?::timestamp AND sent_at < ?::timestamp
+                    RETURNING *
+                )
+                INSERT INTO %s SELECT * FROM moved
+                """.formatted(name), from, to);
+        jdbcTemplate.execute("ALTER TABLE chat_messages ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Streams a partition's rows ordered by {@code (room_id, sent_at, id)}, the order chat
+     * archive segments are written in. Must run inside a transaction for the fetch size to apply.
+     */
+    public void forEachInPartition(YearMonth month, int fetchSize, BiConsumer<UUID, ChatMessageDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                            SELECT room_id, id, sender_username, sender_session_id, message, sent_at
+                            FROM %s
+                            ORDER BY room_id, sent_at, id
+                            """.formatted(partitionName(month)),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getObject("room_id", UUID.class), ChatMessageDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .senderUsername(rs.getString("sender_username"))
+                .senderSessionId(rs.getString("sender_session_id"))
+                .message(rs.getString("message"))
+                .sentAt(rs.getTimestamp("sent_at").toLocalDateTime())
+                .build()));
+    }
+
+    public void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE chat_messages DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock so only one node maintains partitions at a time.
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('meetify.chat_partitions'))", Boolean.class));
+    }
+}
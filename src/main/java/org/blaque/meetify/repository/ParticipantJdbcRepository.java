@@ -0,0 +1,73 @@
+package org.blaque.meetify.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC writes for the participants table, used by the asynchronous presence writer
+ * where loading the entity first would only add a round-trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParticipantJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(UUID id, UUID roomId, String username, String sessionId, LocalDateTime joinedAt,
+                       boolean isMuted, boolean isVideoEnabled) {
+        jdbcTemplate.update("""
+                        INSERT INTO participants (id, room_id, username, session_id, joined_at,
+                                                  is_connected, is_muted, is_video_enabled)
+                        VALUES (?, ?, ?, ?, ?, true, ?, ?)
+                        """,
+                id, roomId, username, sessionId, Timestamp.valueOf(joinedAt), isMuted, isVideoEnabled);
+    }
+
+    public int markDisconnected(String sessionId, LocalDateTime leftAt) {
+        return jdbcTemplate.update(
+                "UPDATE participants SET is_connected = false, left_at = ? WHERE session_id = ?",
+                Timestamp.valueOf(leftAt), sessionId);
+    }
+
+    public int markDisconnected(Collection<String> sessionIds, LocalDateTime leftAt) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE participants SET is_connected = false, left_at = ? WHERE is_connected AND session_id = ANY (?)");
+            statement.setTimestamp(1, Timestamp.valueOf(leftAt));
+            statement.setArray(2, connection.createArrayOf("varchar", sessionIds.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Disconnects participants still marked connected in rooms that have been closed.
+     */
+    public int markDisconnectedInClosedRooms(LocalDateTime leftAt) {
+        return jdbcTemplate.update("""
+                        UPDATE participants p
+                        SET is_connected = false, left_at = ?
+                        FROM rooms r
+                        WHERE p.room_id = r.id AND p.is_connected AND NOT r.is_active
+                        """,
+                Timestamp.valueOf(leftAt));
+    }
+
+    public void updateStatuses(List<ParticipantPresence> participants) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE participants SET is_muted = ?, is_video_enabled = ? WHERE session_id = ?",
+                participants, participants.size(), (ps, participant) -> {
+                    ps.setBoolean(1, participant.getIsMuted());
+                    ps.setBoolean(2, participant.getIsVideoEnabled());
+                    ps.setString(3, participant.getSessionId());
+                });
+    }
+}
@@ -16,4 +16,6 @@ public interface ParticipantRepository extends JpaRepository<Participant, UUID>
     List<Participant> findByRoomIdAndIsConnectedTrue(UUID roomId);
 
     List<Participant> findByRoomId(UUID roomId);
+
+    List<Participant> findByIsConnectedTrueAndRoomIsActiveTrue();
 }
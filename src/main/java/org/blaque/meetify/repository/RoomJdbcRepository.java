@@ -0,0 +1,54 @@
+package org.blaque.meetify.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based maintenance of the rooms table, run by the presence reaper.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RoomJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Closes every active room created before {@code idleSince} that has no connected
+     * participants and nobody who left after {@code idleSince}, skipping {@code occupiedRoomIds}.
+     *
+     * @return the codes of the rooms that were closed
+     */
+    public List<String> closeIdleRooms(LocalDateTime idleSince, LocalDateTime closedAt, Collection<UUID> occupiedRoomIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    UPDATE rooms r
+                    SET is_active = false, closed_at = ?
+                    WHERE r.is_active
+                      AND r.created_at < ?
+                      AND r.id <> ALL (?)
+                      AND NOT EXISTS (SELECT 1
+                                      FROM participants p
+                                      WHERE p.room_id = r.id
+                                        AND (p.is_connected OR p.left_at >= ?))
+                    RETURNING r.room_code
+                    """);
+            statement.setTimestamp(1, Timestamp.valueOf(closedAt));
+            statement.setTimestamp(2, Timestamp.valueOf(idleSince));
+            statement.setArray(3, connection.createArrayOf("uuid", occupiedRoomIds.toArray()));
+            statement.setTimestamp(4, Timestamp.valueOf(idleSince));
+            return statement;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+
+    public int reopen(UUID roomId) {
+        return jdbcTemplate.update("UPDATE rooms SET is_active = true, closed_at = null WHERE id = ?", roomId);
+    }
+}
@@ -4,6 +4,7 @@ import org.blaque.meetify.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +14,6 @@ public interface RoomRepository extends JpaRepository<Room, UUID> {
     Optional<Room> findByRoomCode(String roomCode);
 
     Optional<Room> findByRoomCodeAndIsActiveTrue(String roomCode);
+
+    List<Room> findByIsActiveTrue();
 }
@@ -0,0 +1,147 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.ChatStorageProperties;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.blaque.meetify.service.ChatSegment.Block;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Read side of the chat archive: the cold months exported by {@link ChatPartitionMaintainer}.
+ * Segment indexes are kept in memory, so a history page only reads and decompresses the
+ * blocks that overlap the requested keyset range. Every archived message is older than
+ * every message still in the database, which lets callers simply continue a page from
+ * the database into the archive or the other way round.
+ */
+@Component
+@Slf4j
+public class ChatArchive {
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock rescanLock = new ReentrantLock();
+    private volatile NavigableMap<YearMonth, ChatSegment> segments = Collections.emptyNavigableMap();
+
+    public ChatArchive(ChatStorageProperties properties, ObjectMapper objectMapper) {
+        this.directory = properties.getArchive().getDirectory();
+        this.objectMapper = objectMapper;
+        rescan();
+    }
+
+    /**
+     * Picks up segments written since the last scan, including ones written by other nodes.
+     */
+    public void rescan() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        rescanLock.lock();
+        try {
+            NavigableMap<YearMonth, ChatSegment> updated = new TreeMap<>(segments);
+            try (DirectoryStream<Path> indexFiles = Files.newDirectoryStream(directory, "*" + ChatSegment.INDEX_SUFFIX)) {
+                for (Path indexFile : indexFiles) {
+                    YearMonth month = ChatSegment.monthOf(indexFile);
+                    if (month != null && !updated.containsKey(month)) {
+                        updated.put(month, ChatSegment.open(directory, month));
+                        log.info("Loaded chat archive segment {}", month);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Failed to scan chat archive directory {}", directory, e);
+            }
+            segments = Collections.unmodifiableNavigableMap(updated);
+        } finally {
+            rescanLock.unlock();
+        }
+    }
+
+    public boolean contains(YearMonth month) {
+        return segments.containsKey(month);
+    }
+
+    /**
+     * Up to {@code limit} archived messages before {@code cursor} (or the newest ones when it
+     * is {@code null}), newest first.
+     */
+    public List<ChatMessageDTO> findBefore(UUID roomId, ChatCursor cursor, int limit) {
+        List<ChatMessageDTO> result = new ArrayList<>(Math.min(limit, 64));
+        for (ChatSegment segment : segments.descendingMap().values()) {
+            List<Block> blocks = segment.blocks(roomId);
+            for (int b = blocks.size() - 1; b >= 0 && result.size() < limit; b--) {
+                Block block = blocks.get(b);
+                if (cursor != null && block.first().compareTo(cursor) >= 0) {
+                    continue;
+                }
+                List<ChatMessageDTO> messages = read(segment, block);
+                for (int i = messages.size() - 1; i >= 0 && result.size() < limit; i--) {
+                    if (cursor == null || ChatCursor.of(messages.get(i)).compareTo(cursor) < 0) {
+                        result.add(messages.get(i));
+                    }
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} archived messages after {@code cursor}, oldest first.
+     */
+    public List<ChatMessageDTO> findAfter(UUID roomId, ChatCursor cursor, int limit) {
+        List<ChatMessageDTO> result = new ArrayList<>(Math.min(limit, 64));
+        for (ChatSegment segment : segments.values()) {
+            for (Block block : segment.blocks(roomId)) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                if (block.last().compareTo(cursor) <= 0) {
+                    continue;
+                }
+                for (ChatMessageDTO message : read(segment, block)) {
+                    if (result.size() < limit && ChatCursor.of(message).compareTo(cursor) > 0) {
+                        result.add(message);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Streams a room's archived messages in chronological order, one block in memory at a time.
+     */
+    public void forEachInRoom(UUID roomId, Consumer<ChatMessageDTO> consumer) {
+        for (ChatSegment segment : segments.values()) {
+            for (Block block : segment.blocks(roomId)) {
+                read(segment, block).forEach(consumer);
+            }
+        }
+    }
+
+    private List<ChatMessageDTO> read(ChatSegment segment, Block block) {
+        try {
+            return segment.read(block, objectMapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read chat archive segment " + segment.getMonth(), e);
+        }
+    }
+}
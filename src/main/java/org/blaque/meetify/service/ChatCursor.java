@@ -0,0 +1,58 @@
+package org.blaque.meetify.service;
+
+import lombok.Value;
+import org.blaque.meetify.dto.ChatMessageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position in a room's chat history, ordered by {@code (sent_at, id)}.
+ * Ids compare as unsigned bytes, the way Postgres orders {@code uuid} values.
+ */
+@Value
+public class ChatCursor implements Comparable<ChatCursor> {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime sentAt;
+    UUID id;
+
+    public static ChatCursor of(ChatMessageDTO chatMessage) {
+        return new ChatCursor(chatMessage.getSentAt(), chatMessage.getId());
+    }
+
+    public static ChatCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new ChatCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    @Override
+    public int compareTo(ChatCursor other) {
+        int bySentAt = sentAt.compareTo(other.sentAt);
+        if (bySentAt != 0) {
+            return bySentAt;
+        }
+        int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+    }
+
+    public String encode() {
+        String raw = sentAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
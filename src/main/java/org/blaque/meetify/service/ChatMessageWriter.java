@@ -0,0 +1,258 @@
+package org.blaque.meetify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.ChatPersistenceProperties;
+import org.blaque.meetify.repository.ChatMessageJdbcRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for chat messages. Messages are queued after they have been
+ * broadcast and flushed to {@code chat_messages} in JDBC batches, either when a batch
+ * fills up or when the oldest queued message has waited {@code flush-interval}.
+ * <p>
+ * The queue is bounded and producers block when it is full, so no message is dropped
+ * under load; a failed batch is retried until it is written. On shutdown the flusher keeps
+ * draining and retrying for at most {@code shutdown-timeout}, and whatever is still unwritten
+ * then is logged and counted as rejected. Messages queued as the flusher exits are written
+ * by stop() or by their producer in a single attempt.
+ */
+@Service
+@Slf4j
+public class ChatMessageWriter implements SmartLifecycle {
+
+    private final ChatMessageJdbcRepository chatMessageJdbcRepository;
+    private final ChatPersistenceProperties properties;
+    private final BlockingQueue<PendingChatMessage> queue;
+
+    private final Timer flushTimer;
+    private final Counter persistedCounter;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+    private volatile long stopDeadlineNanos;
+    private Thread flusher;
+
+    public ChatMessageWriter(ChatMessageJdbcRepository chatMessageJdbcRepository,
+                             ChatPersistenceProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.chatMessageJdbcRepository = chatMessageJdbcRepository;
+        this.properties = properties;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("meetify.chat.persistence.queue.depth", queue, BlockingQueue::size)
+                .description("Chat messages waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("meetify.chat.persistence.flush")
+                .description("Time spent writing one batch of chat messages")
+                .register(meterRegistry);
+        this.persistedCounter = Counter.builder("meetify.chat.persistence.messages")
+                .tag("outcome", "persisted")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("meetify.chat.persistence.messages")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(PendingChatMessage message) {
+        if (!running) {
+            // Late messages arriving while the context stops are written directly
+            flush(List.of(message));
+            return;
+        }
+        try {
+            // Waits for room while the flusher runs; once it has stopped nothing would make room
+            while (!queue.offer(message, properties.getFlushInterval().toNanos(), TimeUnit.NANOSECONDS)) {
+                if (!running) {
+                    flush(List.of(message));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flush(List.of(message));
+            return;
+        }
+        if (!running) {
+            // stop() flipped the flag after the check above and the flusher may already have exited
+            drainStopped();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::drainLoop, "chat-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        stopDeadlineNanos = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flusher.isAlive()) {
+            drainStopped();
+        }
+        if (flusher.isAlive() || !queue.isEmpty()) {
+            log.error("Chat writer did not drain within {}; {} messages were not persisted",
+                    properties.getShutdownTimeout(), queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the WebSocket message broker so no new messages arrive while draining
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void drainLoop() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<PendingChatMessage> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingChatMessage first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingChatMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (!running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                flushWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flushWithRetry(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Retries transient failures until the batch is written or, once the writer is stopping,
+     * until the shutdown timeout has passed.
+     */
+    private void flushWithRetry(List<PendingChatMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        while (true) {
+            try {
+                flushTimer.record(() -> chatMessageJdbcRepository.insertBatch(batch));
+                persistedCounter.increment(batch.size());
+                log.debug("Flushed {} chat messages", batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Chat batch of {} rejected, retrying row by row", batch.size(), e);
+                batch.forEach(message -> flush(List.of(message)));
+                return;
+            } catch (DataAccessException e) {
+                long backoffNanos = properties.getRetryBackoff().toNanos();
+                if (!running) {
+                    long remaining = stopDeadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejectedCounter.increment(batch.size());
+                        log.error("Failed to persist {} chat messages before the shutdown timeout", batch.size(), e);
+                        return;
+                    }
+                    backoffNanos = Math.min(backoffNanos, remaining);
+                }
+                log.warn("Failed to persist {} chat messages, retrying in {}",
+                        batch.size(), properties.getRetryBackoff(), e);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    rejectedCounter.increment(batch.size());
+                    log.error("Interrupted while retrying; {} chat messages were not persisted", batch.size());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes whatever producers queued after the flusher's last look at the queue. A producer
+     * that still saw {@code running} queued before stop() drains, so one of the two finds it.
+     */
+    private void drainStopped() {
+        List<PendingChatMessage> late = new ArrayList<>();
+        queue.drainTo(late);
+        if (!late.isEmpty()) {
+            flush(late);
+        }
+    }
+
+    private void flush(List<PendingChatMessage> messages) {
+        try {
+            flushTimer.record(() -> chatMessageJdbcRepository.insertBatch(messages));
+            persistedCounter.increment(messages.size());
+        } catch (DataAccessException e) {
+            rejectedCounter.increment(messages.size());
+            log.error("Failed to persist chat message {}", messages.get(0).getId(), e);
+        }
+    }
+
+    @Value
+    @Builder
+    public static class PendingChatMessage {
+
+        UUID id;
+        UUID roomId;
+        String senderUsername;
+        String senderSessionId;
+        String message;
+        LocalDateTime sentAt;
+    }
+}
@@ -0,0 +1,182 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.ChatStorageProperties;
+import org.blaque.meetify.repository.ChatPartitionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps {@code chat_messages} partitioned by month. Each pass creates the partitions for the
+ * coming months and, when archiving is enabled, moves months older than {@code hot-months}
+ * out of the database in two steps:
+ * <ol>
+ *     <li>the partition is exported to a {@link ChatSegment} while it is still queryable;</li>
+ *     <li>a later pass, once every node has had a rescan to pick the segment up, drops it.</li>
+ * </ol>
+ * History reads never see a gap, and paging by keyset never sees a duplicate.
+ * <p>
+ * Every step runs in its own transaction under a cluster-wide advisory lock, so the exclusive
+ * lock an ATTACH or DETACH takes on {@code chat_messages} is held only for that statement's
+ * transaction and never while a month is exported; exports run in read-only transactions.
+ * Passes run on their own thread, since an export can take minutes.
+ */
+@Service
+@Slf4j
+public class ChatPartitionMaintainer {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final ChatPartitionRepository chatPartitionRepository;
+    private final ChatArchive chatArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChatStorageProperties properties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-partition-maintenance").daemon(true).factory());
+
+    public ChatPartitionMaintainer(ChatPartitionRepository chatPartitionRepository,
+                                   ChatArchive chatArchive,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   ChatStorageProperties properties) {
+        this.chatPartitionRepository = chatPartitionRepository;
+        this.chatArchive = chatArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalMillis = properties.getMaintenanceInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void maintain() {
+        chatArchive.rescan();
+        try {
+            List<YearMonth> partitions = chatPartitionRepository.findPartitionMonths();
+            createUpcomingPartitions(partitions);
+            if (properties.getArchive().isEnabled()) {
+                archiveColdPartitions(partitions);
+            }
+        } catch (Exception e) {
+            log.error("Chat partition maintenance failed", e);
+        }
+    }
+
+    private void createUpcomingPartitions(List<YearMonth> partitions) {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitions.contains(month)) {
+                continue;
+            }
+            boolean created = underLock(transactionTemplate, () -> {
+                // Another node may have created it since the partitions were listed
+                if (chatPartitionRepository.findPartitionMonths().contains(month)) {
+                    return false;
+                }
+                chatPartitionRepository.createPartition(month);
+                return true;
+            });
+            if (created) {
+                log.info("Created chat partition {}", ChatPartitionRepository.partitionName(month));
+            }
+        }
+    }
+
+    private void archiveColdPartitions(List<YearMonth> partitions) {
+        YearMonth oldestHot = YearMonth.now().minusMonths(Math.max(1, properties.getArchive().getHotMonths()) - 1);
+        for (YearMonth month : partitions) {
+            if (!month.isBefore(oldestHot)) {
+                continue;
+            }
+            if (!chatArchive.contains(month)) {
+                if (underLock(readOnlyTransactionTemplate, () -> export(month))) {
+                    chatArchive.rescan();
+                }
+            } else if (segmentAge(month).compareTo(properties.getMaintenanceInterval()) >= 0) {
+                boolean dropped = underLock(transactionTemplate, () -> {
+                    if (!chatPartitionRepository.findPartitionMonths().contains(month)) {
+                        return false;
+                    }
+                    chatPartitionRepository.dropPartition(month);
+                    return true;
+                });
+                if (dropped) {
+                    log.info("Dropped archived chat partition {}", ChatPartitionRepository.partitionName(month));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one step in its own transaction, provided this node gets the maintenance lock.
+     *
+     * @return {@code false} if another node holds the lock or the step had nothing to do
+     */
+    private boolean underLock(TransactionTemplate template, BooleanSupplier step) {
+        return Boolean.TRUE.equals(template.execute(status ->
+                chatPartitionRepository.tryLockMaintenance() && step.getAsBoolean()));
+    }
+
+    private boolean export(YearMonth month) {
+        Path directory = properties.getArchive().getDirectory();
+        long[] count = {0};
+        try (ChatSegment.Writer writer = new ChatSegment.Writer(
+                directory, month, properties.getArchive().getBlockSize(), objectMapper)) {
+            chatPartitionRepository.forEachInPartition(month, EXPORT_FETCH_SIZE, (roomId, message) -> {
+                try {
+                    writer.append(roomId, message);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive chat partition " + month, e);
+        }
+        log.info("Archived {} chat messages of {} to {}", count[0], month, directory);
+        return true;
+    }
+
+    private Duration segmentAge(YearMonth month) {
+        try {
+            Instant written = Files.getLastModifiedTime(
+                    ChatSegment.indexFile(properties.getArchive().getDirectory(), month)).toInstant();
+            return Duration.between(written, Instant.now());
+        } catch (IOException e) {
+            return Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.blaque.meetify.dto.ChatMessageDTO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One archived month of chat history: an append-only data file of gzip blocks, each holding
+ * up to {@code block-size} NDJSON messages of a single room in {@code (sent_at, id)} order,
+ * and an index file mapping each room to its blocks' offsets and key ranges. The index is
+ * written last and renamed into place, so a segment is complete once its index exists.
+ */
+final class ChatSegment {
+
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4d434853; // "MCHS"
+    private static final int VERSION = 1;
+
+    private final YearMonth month;
+    private final Path dataFile;
+    private final Map<UUID, List<Block>> blocksByRoom;
+
+    private ChatSegment(YearMonth month, Path dataFile, Map<UUID, List<Block>> blocksByRoom) {
+        this.month = month;
+        this.dataFile = dataFile;
+        this.blocksByRoom = blocksByRoom;
+    }
+
+    static Path dataFile(Path directory, YearMonth month) {
+        return directory.resolve("chat-" + month + DATA_SUFFIX);
+    }
+
+    static Path indexFile(Path directory, YearMonth month) {
+        return directory.resolve("chat-" + month + INDEX_SUFFIX);
+    }
+
+    /**
+     * Parses the month out of an index file name, or returns {@code null} for other files.
+     */
+    static YearMonth monthOf(Path indexFile) {
+        String name = indexFile.getFileName().toString();
+        if (!name.startsWith("chat-") || !name.endsWith(INDEX_SUFFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(name.substring("chat-".length(), name.length() - INDEX_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    static ChatSegment open(Path directory, YearMonth month) throws IOException {
+        Map<UUID, List<Block>> blocksByRoom = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile(directory, month))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a chat segment index: " + indexFile(directory, month));
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID roomId = new UUID(in.readLong(), in.readLong());
+                Block block = new Block(
+                        new ChatCursor(fromMicros(in.readLong()), new UUID(in.readLong(), in.readLong())),
+                        new ChatCursor(fromMicros(in.readLong()), new UUID(in.readLong(), in.readLong())),
+                        in.readLong(),
+                        in.readInt(),
+                        in.readInt());
+                blocksByRoom.computeIfAbsent(roomId, id -> new ArrayList<>()).add(block);
+            }
+        }
+        return new ChatSegment(month, dataFile(directory, month), blocksByRoom);
+    }
+
+    YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * The room's blocks in ascending key order; empty if the room has no messages this month.
+     */
+    List<Block> blocks(UUID roomId) {
+        return blocksByRoom.getOrDefault(roomId, List.of());
+    }
+
+    List<ChatMessageDTO> read(Block block, ObjectMapper objectMapper) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                    throw new IOException("Truncated chat segment " + dataFile);
+                }
+            }
+        }
+
+        List<ChatMessageDTO> messages = new ArrayList<>(block.count());
+        ObjectReader reader = objectMapper.readerFor(ChatMessageDTO.class);
+        try (MappingIterator<ChatMessageDTO> iterator = reader.readValues(
+                new GZIPInputStream(new ByteArrayInputStream(buffer.array())))) {
+            iterator.forEachRemaining(messages::add);
+        }
+        return messages;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * A compressed run of one room's messages and the keys of its first and last message.
+     */
+    record Block(ChatCursor first, ChatCursor last, long offset, int length, int count) {
+    }
+
+    /**
+     * Builds a segment from messages supplied in {@code (room_id, sent_at, id)} order.
+     * Nothing is visible to readers until {@link #finish()} renames the index into place.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path directory;
+        private final YearMonth month;
+        private final int blockSize;
+        private final ObjectWriter objectWriter;
+        private final OutputStream data;
+        private final List<UUID> indexRooms = new ArrayList<>();
+        private final List<Block> indexBlocks = new ArrayList<>();
+
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        private GZIPOutputStream blockStream;
+        private UUID blockRoom;
+        private ChatMessageDTO blockFirst;
+        private ChatMessageDTO blockLast;
+        private int blockCount;
+        private long offset;
+
+        Writer(Path directory, YearMonth month, int blockSize, ObjectMapper objectMapper) throws IOException {
+            this.directory = directory;
+            this.month = month;
+            this.blockSize = blockSize;
+            this.objectWriter = objectMapper.writerFor(ChatMessageDTO.class);
+            Files.createDirectories(directory);
+            this.data = new BufferedOutputStream(Files.newOutputStream(dataFile(directory, month),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        }
+
+        void append(UUID roomId, ChatMessageDTO message) throws IOException {
+            if (blockStream != null && (!roomId.equals(blockRoom) || blockCount >= blockSize)) {
+                closeBlock();
+            }
+            if (blockStream == null) {
+                blockStream = new GZIPOutputStream(blockBytes);
+                blockRoom = roomId;
+                blockFirst = message;
+            }
+            blockStream.write(objectWriter.writeValueAsBytes(message));
+            blockStream.write('\n');
+            blockLast = message;
+            blockCount++;
+        }
+
+        /**
+         * Flushes the last block, syncs the data file and publishes the index.
+         */
+        void finish() throws IOException {
+            if (blockStream != null) {
+                closeBlock();
+            }
+            data.close();
+            try (FileChannel channel = FileChannel.open(dataFile(directory, month), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            Path temporary = directory.resolve(indexFile(directory, month).getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(indexBlocks.size());
+                for (int i = 0; i < indexBlocks.size(); i++) {
+                    UUID roomId = indexRooms.get(i);
+                    Block block = indexBlocks.get(i);
+                    out.writeLong(roomId.getMostSignificantBits());
+                    out.writeLong(roomId.getLeastSignificantBits());
+                    writeCursor(out, block.first());
+                    writeCursor(out, block.last());
+                    out.writeLong(block.offset());
+                    out.writeInt(block.length());
+                    out.writeInt(block.count());
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, indexFile(directory, month), StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+
+        private void closeBlock() throws IOException {
+            // Closing the gzip stream releases its deflater; closing the byte buffer is a no-op
+            blockStream.close();
+            byte[] bytes = blockBytes.toByteArray();
+            data.write(bytes);
+
+            indexRooms.add(blockRoom);
+            indexBlocks.add(new Block(ChatCursor.of(blockFirst), ChatCursor.of(blockLast), offset, bytes.length, blockCount));
+            offset += bytes.length;
+
+            blockBytes.reset();
+            blockStream = null;
+            blockCount = 0;
+        }
+
+        private static void writeCursor(DataOutputStream out, ChatCursor cursor) throws IOException {
+            out.writeLong(toMicros(cursor.getSentAt()));
+            out.writeLong(cursor.getId().getMostSignificantBits());
+            out.writeLong(cursor.getId().getLeastSignificantBits());
+        }
+    }
+}
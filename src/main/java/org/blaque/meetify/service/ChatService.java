@@ -1,56 +1,270 @@
 package org.blaque.meetify.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.dto.ChatHistoryPage;
 import org.blaque.meetify.dto.ChatMessageDTO;
+import org.blaque.meetify.dto.ChatSearchHit;
+import org.blaque.meetify.dto.ChatSearchPage;
 import org.blaque.meetify.entity.ChatMessage;
-import org.blaque.meetify.entity.Room;
+import org.blaque.meetify.repository.ChatMessageJdbcRepository;
 import org.blaque.meetify.repository.ChatMessageRepository;
-import org.blaque.meetify.repository.RoomRepository;
+import org.blaque.meetify.service.ChatMessageWriter.PendingChatMessage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_DEPTH = 1000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int EXPORT_BUFFER_SIZE = 8192;
+    // Each export streaming database rows holds a pooled connection until its client has read them
+    private static final int MAX_CONCURRENT_EXPORT_QUERIES = 2;
+
     private final ChatMessageRepository chatMessageRepository;
-    private final RoomRepository roomRepository;
+    private final ChatMessageJdbcRepository chatMessageJdbcRepository;
+    private final RoomCache roomCache;
+    private final PresenceRegistry presenceRegistry;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatArchive chatArchive;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCallTimers databaseCallTimers;
+    private final RecentChatMessages recentChatMessages;
+
+    private final Semaphore exportQueryPermits = new Semaphore(MAX_CONCURRENT_EXPORT_QUERIES);
 
-    @Transactional
-    public ChatMessageDTO saveMessage(UUID roomId, String senderUsername, String senderSessionId, String message) {
-        Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found"));
+    /**
+     * Accepts a chat message, hands it to {@code broadcast} and then queues it for persistence,
+     * so a full write queue delays the sender but not the room. The room is only checked by id;
+     * the row itself is written asynchronously by {@link ChatMessageWriter} with the room id as
+     * a plain foreign key.
+     */
+    public ChatMessageDTO saveMessage(UUID roomId, String senderUsername, String senderSessionId, String message,
+                                      Consumer<ChatMessageDTO> broadcast) {
+        if (presenceRegistry.findRoom(roomId).isEmpty() && roomCache.findById(roomId).isEmpty()) {
+            throw new RuntimeException("Room not found");
+        }
 
-        ChatMessage chatMessage = ChatMessage.builder()
-                .room(room)
+        PendingChatMessage chatMessage = PendingChatMessage.builder()
+                .id(UUID.randomUUID())
+                .roomId(roomId)
                 .senderUsername(senderUsername)
                 .senderSessionId(senderSessionId)
                 .message(message)
+                .sentAt(LocalDateTime.now())
                 .build();
 
-        chatMessage = chatMessageRepository.save(chatMessage);
-        log.info("Chat message saved from {} in room {}", senderUsername, roomId);
+        ChatMessageDTO accepted = ChatMessageDTO.builder()
+                .id(chatMessage.getId())
+                .senderUsername(chatMessage.getSenderUsername())
+                .senderSessionId(chatMessage.getSenderSessionId())
+                .message(chatMessage.getMessage())
+                .sentAt(chatMessage.getSentAt())
+                .build();
+        recentChatMessages.append(roomId, accepted);
+        broadcast.accept(accepted);
 
-        return mapToChatMessageDTO(chatMessage);
+        chatMessageWriter.enqueue(chatMessage);
+        return accepted;
+    }
+
+    /**
+     * Returns one page of a room's history using keyset pagination on {@code (sent_at, id)}.
+     * Without a cursor the newest page is returned; {@code before} pages towards older
+     * messages and {@code after} towards newer ones. Messages are always returned oldest first.
+     * <p>
+     * Pages near the end of a live room's history are served from {@link RecentChatMessages}.
+     * Other pages read the database, and archived months are older than anything in it, so a
+     * page that runs out of database rows continues into the {@link ChatArchive} and vice versa.
+     * Not transactional, so that pages served from memory do not take a connection; each page
+     * makes at most one database query.
+     */
+    public ChatHistoryPage getMessagePage(UUID roomId, String before, String after, int limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of 'before' and 'after' may be given");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int fetchSize = pageSize + 1;
+
+        List<ChatMessageDTO> rows;
+        boolean newestFirst;
+        if (after != null) {
+            ChatCursor cursor = ChatCursor.decode(after);
+            rows = recentChatMessages.after(roomId, cursor, fetchSize);
+            if (rows == null) {
+                rows = loadAfter(roomId, cursor, fetchSize);
+            }
+            newestFirst = false;
+        } else {
+            ChatCursor cursor = before != null ? ChatCursor.decode(before) : null;
+            rows = recentChatMessages.before(roomId, cursor, fetchSize);
+            if (rows == null) {
+                rows = loadBefore(roomId, cursor, fetchSize);
+            }
+            newestFirst = true;
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatMessageDTO> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (newestFirst) {
+            Collections.reverse(page);
+        }
+
+        return ChatHistoryPage.builder()
+                .messages(page)
+                .beforeCursor(page.isEmpty() ? before : ChatCursor.of(page.get(0)).encode())
+                .afterCursor(page.isEmpty() ? after : ChatCursor.of(page.get(page.size() - 1)).encode())
+                .hasMore(hasMore)
+                .build();
     }
 
+    private List<ChatMessageDTO> loadAfter(UUID roomId, ChatCursor cursor, int fetchSize) {
+        List<ChatMessageDTO> rows = new ArrayList<>(chatArchive.findAfter(roomId, cursor, fetchSize));
+        if (rows.size() < fetchSize) {
+            ChatCursor from = rows.isEmpty() ? cursor : ChatCursor.of(rows.get(rows.size() - 1));
+            int remaining = fetchSize - rows.size();
+            databaseCallTimers.record("chat.history",
+                            () -> chatMessageRepository.findAfter(roomId, from.getSentAt(), from.getId(), remaining))
+                    .forEach(message -> rows.add(mapToChatMessageDTO(message)));
+        }
+        return rows;
+    }
+
+    private List<ChatMessageDTO> loadBefore(UUID roomId, ChatCursor cursor, int fetchSize) {
+        List<ChatMessageDTO> rows = new ArrayList<>(fetchSize);
+        databaseCallTimers.record("chat.history", () -> cursor == null
+                        ? chatMessageRepository.findLatest(roomId, fetchSize)
+                        : chatMessageRepository.findBefore(roomId, cursor.getSentAt(), cursor.getId(), fetchSize))
+                .forEach(message -> rows.add(mapToChatMessageDTO(message)));
+        if (rows.size() < fetchSize) {
+            ChatCursor from = rows.isEmpty() ? cursor : ChatCursor.of(rows.get(rows.size() - 1));
+            rows.addAll(chatArchive.findBefore(roomId, from, fetchSize - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * Writes a room's full transcript as NDJSON, one {@link ChatMessageDTO} per line, archived
+     * months first. Rows are read through a server-side cursor and archive segments one block
+     * at a time, so heap use does not depend on the size of the transcript. Messages still
+     * queued in {@link ChatMessageWriter} are not included. A month that is archived but whose
+     * partition is not dropped yet is written once, from the archive.
+     * <p>
+     * A database connection is only held while rows are streamed, which is paced by the client
+     * and can last up to {@code spring.mvc.async.request-timeout}. At most
+     * {@value #MAX_CONCURRENT_EXPORT_QUERIES} exports do so at once; others wait for their turn
+     * rather than draining the pool.
+     */
+    public void exportMessages(UUID roomId, OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE) : outputStream;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            // Lines are ended explicitly; the default separator would start every later line with a space
+            generator.setRootValueSeparator(null);
+            Consumer<ChatMessageDTO> writeLine = message -> {
+                try {
+                    generator.writeObject(message);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            ChatCursor[] lastArchived = {null};
+            chatArchive.forEachInRoom(roomId, message -> {
+                writeLine.accept(message);
+                lastArchived[0] = ChatCursor.of(message);
+            });
+            exportQueryPermits.acquire();
+            // Includes writing to the client, which paces the cursor
+            Timer.Sample sample = Timer.start();
+            try {
+                chatMessageJdbcRepository.forEachInRoom(roomId, EXPORT_FETCH_SIZE, message -> {
+                    if (lastArchived[0] == null || ChatCursor.of(message).compareTo(lastArchived[0]) > 0) {
+                        writeLine.accept(message);
+                    }
+                });
+            } finally {
+                sample.stop(databaseCallTimers.timer("chat.export"));
+                exportQueryPermits.release();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to export chat messages", e);
+        }
+    }
+
+    /**
+     * Full-text search over the given rooms (room id to room code), ranked by relevance and
+     * paged by offset up to {@value #MAX_SEARCH_DEPTH} results deep. Only messages still in
+     * the database are searched; archived months are not.
+     */
     @Transactional(readOnly = true)
-    public List<ChatMessageDTO> getRoomMessages(UUID roomId) {
-        return chatMessageRepository.findByRoomIdOrderBySentAtAsc(roomId)
-                .stream()
-                .map(this::mapToChatMessageDTO)
-                .collect(Collectors.toList());
+    public ChatSearchPage search(Map<UUID, String> rooms, String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (rooms.isEmpty()) {
+            throw new IllegalArgumentException("At least one room must be given");
+        }
+        int start = Math.max(0, offset);
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+        if (start >= MAX_SEARCH_DEPTH) {
+            return ChatSearchPage.builder().hits(List.of()).hasMore(false).build();
+        }
+
+        List<ChatMessageJdbcRepository.SearchMatch> matches = databaseCallTimers.record("chat.search",
+                () -> chatMessageJdbcRepository.search(rooms.keySet(), query, start, pageSize + 1));
+        boolean hasMore = matches.size() > pageSize && start + pageSize < MAX_SEARCH_DEPTH;
+        List<ChatSearchHit> hits = matches.stream()
+                .limit(pageSize)
+                .map(match -> ChatSearchHit.builder()
+                        .roomCode(rooms.get(match.roomId()))
+                        .message(match.message())
+                        .snippet(highlight(match.snippet()))
+                        .rank(match.rank())
+                        .build())
+                .toList();
+
+        return ChatSearchPage.builder()
+                .hits(hits)
+                .nextOffset(hasMore ? start + pageSize : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static String highlight(String snippet) {
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(String.valueOf(ChatMessageJdbcRepository.HIGHLIGHT_START), "<mark>")
+                .replace(String.valueOf(ChatMessageJdbcRepository.HIGHLIGHT_STOP), "</mark>");
     }
 
     private ChatMessageDTO mapToChatMessageDTO(ChatMessage chatMessage) {
         return ChatMessageDTO.builder()
+                .id(chatMessage.getId())
                 .senderUsername(chatMessage.getSenderUsername())
                 .senderSessionId(chatMessage.getSenderSessionId())
                 .message(chatMessage.getMessage())
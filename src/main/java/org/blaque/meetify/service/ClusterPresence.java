@@ -0,0 +1,125 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This node's view of presence on the other nodes, fed by {@link PostgresRoomEventBus}:
+ * applies their {@link PresenceChange}s to the local {@link PresenceRegistry} and tracks which
+ * participants hold a WebSocket session elsewhere. A remote route counts while its node keeps
+ * listing it in heartbeats, so routes of a node that died or whose detach was missed expire.
+ * <p>
+ * It also decides which node reaps a participant: the one it joined through, or, once that
+ * node stopped sending heartbeats or is not known, the live node with the lowest id.
+ */
+class ClusterPresence {
+
+    private final String nodeId;
+    private final PresenceRegistry presenceRegistry;
+    private final Duration routeTtl;
+
+    private final ConcurrentMap<String, RemoteRoute> remoteRoutes = new ConcurrentHashMap<>();
+    // Participant session id -> node it joined through
+    private final ConcurrentMap<String, String> homes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Instant> nodesLastSeen = new ConcurrentHashMap<>();
+
+    ClusterPresence(String nodeId, PresenceRegistry presenceRegistry, Duration routeTtl) {
+        this.nodeId = nodeId;
+        this.presenceRegistry = presenceRegistry;
+        this.routeTtl = routeTtl;
+    }
+
+    /**
+     * Records participants that joined through this node.
+     */
+    void joinedHere(PresenceChange change) {
+        change.participants().forEach(participant -> homes.put(participant.getSessionId(), nodeId));
+    }
+
+    void apply(String origin, PresenceChange change) {
+        switch (change.kind()) {
+            case JOINED -> {
+                RoomPresence room = presenceRegistry.findRoom(change.roomCode())
+                        .orElseGet(() -> presenceRegistry.registerRoom(
+                                change.roomId(), change.roomCode(), change.roomName(), change.roomCreatedAt()));
+                for (ParticipantPresence participant : change.participants()) {
+                    presenceRegistry.addParticipantIfAbsent(room, participant);
+                    homes.put(participant.getSessionId(), origin);
+                }
+            }
+            case LEFT -> forget(change.sessionIds());
+            case STATUS -> {
+                for (ParticipantPresence participant : change.participants()) {
+                    presenceRegistry.updateStatus(
+                            participant.getSessionId(), participant.getIsMuted(), participant.getIsVideoEnabled());
+                }
+            }
+        }
+    }
+
+    /**
+     * Records routes a node reported, in a heartbeat or as they changed.
+     */
+    void routesChanged(String node, Collection<String> attached, Collection<String> detached, Instant at) {
+        if (attached != null) {
+            attached.forEach(sessionId -> remoteRoutes.put(sessionId, new RemoteRoute(node, at)));
+        }
+        if (detached != null) {
+            for (String sessionId : detached) {
+                if (remoteRoutes.computeIfPresent(sessionId, (id, route) -> route.node().equals(node) ? null : route) == null) {
+                    presenceRegistry.markDetached(sessionId, at);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called for everything a node sends; its heartbeats keep it live.
+     */
+    void nodeSeen(String node, Instant at) {
+        nodesLastSeen.put(node, at);
+    }
+
+    boolean isReaper(String sessionId, Instant now) {
+        String home = homes.get(sessionId);
+        if (nodeId.equals(home)) {
+            return true;
+        }
+        if (home != null && isLive(home, now)) {
+            return false;
+        }
+        return nodesLastSeen.entrySet().stream()
+                .filter(node -> isLive(node.getKey(), now))
+                .noneMatch(node -> node.getKey().compareTo(nodeId) < 0);
+    }
+
+    private boolean isLive(String node, Instant now) {
+        Instant lastSeen = nodesLastSeen.get(node);
+        return lastSeen != null && lastSeen.plus(routeTtl).isAfter(now);
+    }
+
+    boolean isAttachedElsewhere(String sessionId, Instant now) {
+        RemoteRoute route = remoteRoutes.get(sessionId);
+        return route != null && route.listedAt().plus(routeTtl).isAfter(now);
+    }
+
+    /**
+     * Removes participants that left, whichever node saw them leave.
+     */
+    void forget(Collection<String> sessionIds) {
+        for (String sessionId : sessionIds) {
+            presenceRegistry.removeParticipant(sessionId);
+            remoteRoutes.remove(sessionId);
+            homes.remove(sessionId);
+        }
+    }
+
+    private record RemoteRoute(String node, Instant listedAt) {
+    }
+}
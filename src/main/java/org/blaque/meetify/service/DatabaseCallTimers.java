@@ -0,0 +1,36 @@
+package org.blaque.meetify.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Latency of the database calls the services make, as {@code meetify.db.calls{operation}}.
+ * JPA repository methods are additionally timed by Spring Data as
+ * {@code spring.data.repository.invocations}; the JDBC repositories only show up here.
+ */
+@Component
+public class DatabaseCallTimers {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public DatabaseCallTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        return timer(operation).record(call);
+    }
+
+    public Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, key -> Timer.builder("meetify.db.calls")
+                .description("Database calls made by the services")
+                .tag("operation", key)
+                .register(meterRegistry));
+    }
+}
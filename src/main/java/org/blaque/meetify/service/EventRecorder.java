@@ -0,0 +1,240 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.With;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.EventLogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sampled, structured record of room events. The recording thread only makes the sampling
+ * decision and puts the event into a lock-free {@link EventRing}; a single writer thread
+ * formats events as JSON lines on the {@code org.blaque.meetify.events} logger, so no
+ * console or file I/O happens on STOMP or request threads.
+ * <p>
+ * Event fields are passed as alternating names and values. Enabling, sample rates and
+ * redaction form an immutable {@link Settings} snapshot that {@link #update} replaces at
+ * runtime; redaction is applied by the writer.
+ */
+@Service
+@Slf4j
+public class EventRecorder implements SmartLifecycle {
+
+    private static final Logger EVENTS = LoggerFactory.getLogger("org.blaque.meetify.events");
+
+    // Event types come partly from clients (signal types), so resolved rates are only cached up to this
+    private static final int MAX_CACHED_TYPES = 256;
+
+    private final EventLogProperties properties;
+    private final JsonFactory jsonFactory;
+    private final EventRing<RecordedEvent> ring;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean running;
+    private Thread writer;
+
+    public EventRecorder(EventLogProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jsonFactory = objectMapper.getFactory();
+        this.ring = new EventRing<>(properties.getBufferSize());
+        this.snapshot = new Snapshot(new Settings(
+                properties.isEnabled(),
+                properties.isRedactBodies(),
+                properties.getDefaultSampleRate(),
+                Map.copyOf(properties.getSampleRates()),
+                Set.copyOf(properties.getRedactedFields())));
+
+        Gauge.builder("meetify.event-log.buffer.depth", ring, EventRing::size)
+                .description("Recorded events waiting for the writer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("meetify.event-log.events")
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("meetify.event-log.events")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+    }
+
+    public void record(String type, String roomCode, Object... fields) {
+        if (!snapshot.sample(type)) {
+            return;
+        }
+        if (!ring.offer(new RecordedEvent(System.currentTimeMillis(), type, roomCode, fields))) {
+            droppedCounter.increment();
+        }
+    }
+
+    public Settings getSettings() {
+        return snapshot.settings();
+    }
+
+    public synchronized Settings update(UnaryOperator<Settings> change) {
+        Settings updated = change.apply(snapshot.settings());
+        snapshot = new Snapshot(updated);
+        log.info("Event log settings changed to {}", updated);
+        return updated;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the WebSocket message broker so the last events are still written
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        while (true) {
+            RecordedEvent event;
+            while ((event = ring.poll()) != null) {
+                write(event);
+            }
+            if (!running && ring.size() == 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, running ? flushIntervalNanos : TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void write(RecordedEvent event) {
+        if (!EVENTS.isInfoEnabled()) {
+            return;
+        }
+        Settings settings = snapshot.settings();
+        StringWriter line = new StringWriter(128);
+        try (JsonGenerator json = jsonFactory.createGenerator(line)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.ofEpochMilli(event.timestamp()).toString());
+            json.writeStringField("type", event.type());
+            if (event.roomCode() != null) {
+                json.writeStringField("room", event.roomCode());
+            }
+            Object[] fields = event.fields();
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                String name = String.valueOf(fields[i]);
+                Object value = fields[i + 1];
+                json.writeFieldName(name);
+                if (value != null && settings.redactBodies() && settings.redactedFields().contains(name)) {
+                    json.writeString("[redacted " + value.toString().length() + " chars]");
+                } else {
+                    json.writeObject(value);
+                }
+            }
+            json.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to format {} event", event.type(), e);
+            return;
+        }
+        EVENTS.info(line.toString());
+        writtenCounter.increment();
+    }
+
+    /**
+     * Runtime switches of the event log, initialised from {@link EventLogProperties}.
+     */
+    public record Settings(@With boolean enabled,
+                           @With boolean redactBodies,
+                           @With double defaultSampleRate,
+                           Map<String, Double> sampleRates,
+                           Set<String> redactedFields) {
+
+        /**
+         * Sets the sample rate of one event type, or removes it when {@code rate} is {@code null}.
+         */
+        public Settings withSampleRate(String type, Double rate) {
+            Map<String, Double> rates = new LinkedHashMap<>(sampleRates);
+            if (rate == null) {
+                rates.remove(type);
+            } else {
+                rates.put(type, rate);
+            }
+            return new Settings(enabled, redactBodies, defaultSampleRate, Map.copyOf(rates), redactedFields);
+        }
+
+        double sampleRate(String type) {
+            String key = type;
+            while (true) {
+                Double rate = sampleRates.get(key);
+                if (rate != null) {
+                    return rate;
+                }
+                int dot = key.lastIndexOf('.');
+                if (dot < 0) {
+                    return defaultSampleRate;
+                }
+                key = key.substring(0, dot);
+            }
+        }
+    }
+
+    private record Snapshot(Settings settings, ConcurrentMap<String, Double> resolvedRates) {
+
+        Snapshot(Settings settings) {
+            this(settings, new ConcurrentHashMap<>());
+        }
+
+        boolean sample(String type) {
+            if (!settings.enabled()) {
+                return false;
+            }
+            Double rate = resolvedRates.get(type);
+            if (rate == null) {
+                rate = settings.sampleRate(type);
+                if (resolvedRates.size() < MAX_CACHED_TYPES) {
+                    resolvedRates.put(type, rate);
+                }
+            }
+            return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+        }
+    }
+
+    private record RecordedEvent(long timestamp, String type, String roomCode, Object[] fields) {
+    }
+}
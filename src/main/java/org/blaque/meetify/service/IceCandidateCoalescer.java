@@ -0,0 +1,129 @@
+package org.blaque.meetify.service;
+
+import lombok.Value;
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Buffers trickle ICE candidates per (room, sender, target) and delivers them as a single
+ * {@value #ICE_CANDIDATES} frame once the window elapses or the batch is full.
+ * <p>
+ * Any other signal for the same pair flushes the pending candidates first and is then
+ * delivered immediately, under the same lock, so the receiver sees signals in the order
+ * the sender produced them. That includes the {@value #END_OF_CANDIDATES} marker a client
+ * sends once gathering completes, so the last candidates do not wait out the window.
+ */
+class IceCandidateCoalescer {
+
+    static final String ICE_CANDIDATE = "ice-candidate";
+    static final String ICE_CANDIDATES = "ice-candidates";
+    static final String END_OF_CANDIDATES = "end-of-candidates";
+
+    private final ConcurrentMap<PairKey, PairBuffer> buffers = new ConcurrentHashMap<>();
+    private final TaskScheduler scheduler;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final BiConsumer<String, WebRTCSignalDTO> delivery;
+
+    IceCandidateCoalescer(TaskScheduler scheduler, Duration window, int maxBatchSize,
+                          BiConsumer<String, WebRTCSignalDTO> delivery) {
+        this.scheduler = scheduler;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.delivery = delivery;
+    }
+
+    void submit(String roomCode, WebRTCSignalDTO signal) {
+        PairKey key = new PairKey(roomCode, signal.getSenderSessionId(), signal.getTargetSessionId());
+
+        if (!ICE_CANDIDATE.equals(signal.getType())) {
+            PairBuffer buffer = buffers.get(key);
+            if (buffer == null) {
+                delivery.accept(roomCode, signal);
+                return;
+            }
+            buffer.lock.lock();
+            try {
+                flushLocked(key, buffer);
+                delivery.accept(roomCode, signal);
+            } finally {
+                buffer.lock.unlock();
+            }
+            return;
+        }
+
+        while (true) {
+            PairBuffer buffer = buffers.computeIfAbsent(key, k -> new PairBuffer());
+            buffer.lock.lock();
+            try {
+                if (buffer.closed) {
+                    // Lost a race with the scheduled flush that retired this buffer
+                    continue;
+                }
+                buffer.candidates.add(signal.getData());
+                if (buffer.candidates.size() >= maxBatchSize) {
+                    flushLocked(key, buffer);
+                } else if (!buffer.flushScheduled) {
+                    buffer.flushScheduled = true;
+                    scheduler.schedule(() -> flushAndRetire(key, buffer), Instant.now().plus(window));
+                }
+                return;
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+    }
+
+    private void flushAndRetire(PairKey key, PairBuffer buffer) {
+        buffer.lock.lock();
+        try {
+            buffer.flushScheduled = false;
+            flushLocked(key, buffer);
+            buffer.closed = true;
+            buffers.remove(key, buffer);
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+
+    private void flushLocked(PairKey key, PairBuffer buffer) {
+        if (buffer.candidates.isEmpty()) {
+            return;
+        }
+        WebRTCSignalDTO batch = WebRTCSignalDTO.builder()
+                .type(buffer.candidates.size() == 1 ? ICE_CANDIDATE : ICE_CANDIDATES)
+                .senderSessionId(key.getSenderSessionId())
+                .targetSessionId(key.getTargetSessionId())
+                .data(buffer.candidates.size() == 1 ? buffer.candidates.get(0) : RawJson.array(buffer.candidates))
+                .build();
+        buffer.candidates.clear();
+        delivery.accept(key.getRoomCode(), batch);
+    }
+
+    @Value
+    private static class PairKey {
+
+        String roomCode;
+        String senderSessionId;
+        String targetSessionId;
+    }
+
+    private static class PairBuffer {
+
+        // Not synchronized: delivery may block, which would pin a virtual thread's carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<RawJson> candidates = new ArrayList<>();
+        private boolean flushScheduled;
+        private boolean closed;
+    }
+}
@@ -0,0 +1,42 @@
+package org.blaque.meetify.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-node bus: everything goes straight to the local broker and routing table.
+ */
+@Service
+@ConditionalOnProperty(prefix = "meetify.event-bus", name = "type", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessRoomEventBus implements RoomEventBus {
+
+    private final RoomEventLog roomEventLog;
+    private final SessionRoutingTable sessionRoutingTable;
+
+    @Override
+    public void publish(String roomCode, String destination, Object payload) {
+        roomEventLog.broadcast(roomCode, destination, payload);
+    }
+
+    @Override
+    public boolean sendToParticipant(String roomCode, String participantSessionId, Object payload) {
+        return sessionRoutingTable.send(participantSessionId, payload);
+    }
+
+    @Override
+    public void replicate(PresenceChange change) {
+        // The only registry is this node's
+    }
+
+    @Override
+    public boolean isAttached(String participantSessionId) {
+        return sessionRoutingTable.isRoutable(participantSessionId);
+    }
+
+    @Override
+    public boolean isReaper(String participantSessionId) {
+        return true;
+    }
+}
@@ -0,0 +1,184 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An encoded STOMP frame waiting in an {@link OutboundQueueSession}, classified by what
+ * may happen to it when the session falls behind. Classification reads the frame's
+ * {@code destination} header and, for signal and participant frames, the leading fields
+ * of the JSON body; everything else is {@link Kind#ESSENTIAL}.
+ */
+final class OutboundFrame {
+
+    enum Kind {
+        /**
+         * Chat, offers, answers, join/leave events and control frames: never dropped.
+         */
+        ESSENTIAL("essential"),
+        /**
+         * A bare EOL heartbeat; redundant whenever any other frame is queued.
+         */
+        HEARTBEAT("heartbeat"),
+        /**
+         * A participant status delta; a snapshot of the room replaces dropped ones.
+         */
+        PARTICIPANT_STATUS("participant-status"),
+        /**
+         * Trickle ICE candidates; useless once their sender has left the room.
+         */
+        ICE_CANDIDATE("ice-candidate");
+
+        private final String tag;
+
+        Kind(String tag) {
+            this.tag = tag;
+        }
+
+        String tag() {
+            return tag;
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String MESSAGE_COMMAND = "MESSAGE\n";
+
+    private final WebSocketMessage<?> message;
+    private final Kind kind;
+    private final int size;
+    private final String destination;
+    private final String senderSessionId;
+    private final long queuedAt = System.nanoTime();
+
+    private OutboundFrame(WebSocketMessage<?> message, Kind kind, String destination, String senderSessionId) {
+        this.message = message;
+        this.kind = kind;
+        this.size = message.getPayloadLength();
+        this.destination = destination;
+        this.senderSessionId = senderSessionId;
+    }
+
+    static OutboundFrame of(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return new OutboundFrame(message, Kind.ESSENTIAL, null, null);
+        }
+        String frame = text.getPayload();
+        if (frame.equals("\n") || frame.equals("\r\n")) {
+            return new OutboundFrame(message, Kind.HEARTBEAT, null, null);
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        if (!frame.startsWith(MESSAGE_COMMAND) || headersEnd < 0) {
+            return new OutboundFrame(message, Kind.ESSENTIAL, null, null);
+        }
+
+        String destination = header(frame, headersEnd, "destination");
+        if (destination == null) {
+            return new OutboundFrame(message, Kind.ESSENTIAL, null, null);
+        }
+        if (destination.endsWith("/participant") || destination.endsWith("/signal")
+                || destination.startsWith(SessionRoutingTable.SIGNAL_QUEUE_PREFIX)) {
+            String[] fields = leadingFields(frame, headersEnd + 2);
+            if ("status".equals(fields[0]) && destination.endsWith("/participant")) {
+                return new OutboundFrame(message, Kind.PARTICIPANT_STATUS, destination, null);
+            }
+            if (IceCandidateCoalescer.ICE_CANDIDATE.equals(fields[0])
+                    || IceCandidateCoalescer.ICE_CANDIDATES.equals(fields[0])) {
+                return new OutboundFrame(message, Kind.ICE_CANDIDATE, destination, fields[1]);
+            }
+        }
+        return new OutboundFrame(message, Kind.ESSENTIAL, destination, null);
+    }
+
+    WebSocketMessage<?> message() {
+        return message;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * {@link System#nanoTime()} the frame was handed to the session.
+     */
+    long queuedAt() {
+        return queuedAt;
+    }
+
+    String destination() {
+        return destination;
+    }
+
+    String senderSessionId() {
+        return senderSessionId;
+    }
+
+    /**
+     * A frame with this frame's headers and a new JSON body, used to replace dropped status
+     * deltas. The {@code message-id} gets a suffix so it stays unique.
+     */
+    OutboundFrame withBody(String body) {
+        String frame = ((TextMessage) message).getPayload();
+        int headersEnd = frame.indexOf("\n\n");
+        StringBuilder rebuilt = new StringBuilder(headersEnd + body.length() + 32).append(MESSAGE_COMMAND);
+        for (String line : frame.substring(MESSAGE_COMMAND.length(), headersEnd).split("\n")) {
+            if (line.startsWith("content-length:")) {
+                continue;
+            }
+            rebuilt.append(line);
+            if (line.startsWith("message-id:")) {
+                rebuilt.append("-snapshot");
+            }
+            rebuilt.append('\n');
+        }
+        rebuilt.append("content-length:").append(body.getBytes(StandardCharsets.UTF_8).length)
+                .append("\n\n").append(body).append('\0');
+        return new OutboundFrame(new TextMessage(rebuilt.toString()), kind, destination, null);
+    }
+
+    private static String header(String frame, int headersEnd, String name) {
+        String prefix = "\n" + name + ":";
+        int start = frame.indexOf(prefix, MESSAGE_COMMAND.length() - 1);
+        if (start < 0 || start >= headersEnd) {
+            return null;
+        }
+        start += prefix.length();
+        int end = frame.indexOf('\n', start);
+        return frame.substring(start, end);
+    }
+
+    /**
+     * Reads the top-level {@code type} and {@code senderSessionId} of the body, stopping as
+     * soon as both are known, so SDP and candidate payloads are not parsed.
+     */
+    private static String[] leadingFields(String frame, int bodyStart) {
+        String[] fields = new String[2];
+        int bodyEnd = frame.endsWith("\0") ? frame.length() - 1 : frame.length();
+        try (JsonParser parser = JSON_FACTORY.createParser(frame.substring(bodyStart, bodyEnd))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return fields;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME && (fields[0] == null || fields[1] == null)) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "type" -> fields[0] = parser.getValueAsString();
+                    case "senderSessionId" -> fields[1] = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // Not JSON; treated as essential
+        }
+        return fields;
+    }
+}
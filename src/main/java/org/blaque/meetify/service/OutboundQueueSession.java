@@ -0,0 +1,315 @@
+package org.blaque.meetify.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.service.OutboundFrame.Kind;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded per-session outbound queue. {@link #sendMessage} only enqueues, and a drain task
+ * writes frames to the socket in order, so a slow client never holds an outbound channel
+ * thread. Once the queued bytes exceed the budget, droppable frames are shed oldest first:
+ * redundant heartbeats, participant status deltas (replaced by one room snapshot when the
+ * queue empties) and ICE candidates from participants who have left. Essential frames are
+ * never dropped; a session that stays over budget, exceeds the hard limit or blocks a
+ * single write past the send time limit is closed instead.
+ * <p>
+ * Status deltas are sequenced by {@link RoomEventLog}, so shedding them leaves a gap in the
+ * client's {@code room-seq}. The snapshot replacing them carries the {@code room-seq} of the
+ * newest one dropped and makes the gap harmless: chat and membership frames, the only other
+ * sequenced ones, are never shed.
+ */
+@Slf4j
+class OutboundQueueSession extends WebSocketSessionDecorator {
+
+    /**
+     * What the queue needs from the rest of the application.
+     */
+    interface Policy {
+
+        /**
+         * Whether the sender is known to have left; a sender this node knows nothing about,
+         * such as a participant on another node, is not gone.
+         */
+        boolean isPeerGone(String senderSessionId);
+
+        /**
+         * A JSON status delta with every participant of the room behind {@code destination},
+         * or {@code null} if the room is gone.
+         */
+        String statusSnapshot(String destination);
+
+        void dropped(Kind kind, String reason);
+
+        /**
+         * A frame was written to the socket after waiting {@code queuedNanos} in the queue.
+         */
+        void written(Kind kind, long queuedNanos);
+
+        void disconnected(String reason);
+    }
+
+    private final Policy policy;
+    private final Executor drainExecutor;
+    private final long budget;
+    private final long hardLimit;
+    private final long overBudgetTimeoutNanos;
+    private final long sendTimeLimitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<OutboundFrame> queue = new ArrayDeque<>();
+    // Latest dropped status frame per destination; its headers frame the replacement snapshot
+    private final Map<String, OutboundFrame> staleStatus = new LinkedHashMap<>();
+    private long queuedBytes;
+    private long overBudgetSince;
+    private boolean draining;
+    private boolean closing;
+    private CloseStatus pendingClose;
+    private volatile long writeStartedAt;
+
+    OutboundQueueSession(WebSocketSession delegate, Policy policy, Executor drainExecutor,
+                         long budget, long hardLimit, long overBudgetTimeoutNanos, long sendTimeLimitNanos) {
+        super(delegate);
+        this.policy = policy;
+        this.drainExecutor = drainExecutor;
+        this.budget = budget;
+        this.hardLimit = hardLimit;
+        this.overBudgetTimeoutNanos = overBudgetTimeoutNanos;
+        this.sendTimeLimitNanos = sendTimeLimitNanos;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        OutboundFrame frame = OutboundFrame.of(message);
+        String violation;
+        lock.lock();
+        try {
+            if (closing) {
+                return;
+            }
+            if (frame.kind() == Kind.HEARTBEAT && (draining || !queue.isEmpty())) {
+                // Any frame on the wire tells the client the connection is alive
+                policy.dropped(Kind.HEARTBEAT, "redundant");
+                return;
+            }
+            queue.add(frame);
+            queuedBytes += frame.size();
+            if (queuedBytes > budget) {
+                shed();
+            }
+            violation = checkLimits(System.nanoTime());
+            if (violation == null) {
+                if (!draining) {
+                    draining = true;
+                    drainExecutor.execute(this::drain);
+                }
+                return;
+            }
+            closing = true;
+            queue.clear();
+            staleStatus.clear();
+            queuedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        policy.disconnected(violation);
+        log.warn("Closing slow WebSocket session {}: {}", getId(), violation);
+        closeDelegate(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    /**
+     * Waits for queued frames, for example a STOMP ERROR frame, to be written before closing.
+     */
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        lock.lock();
+        try {
+            if (draining) {
+                closing = true;
+                pendingClose = status;
+                return;
+            }
+            closing = true;
+        } finally {
+            lock.unlock();
+        }
+        super.close(status);
+    }
+
+    /**
+     * Forgets everything queued once the connection is gone.
+     */
+    void discard() {
+        lock.lock();
+        try {
+            closing = true;
+            queue.clear();
+            staleStatus.clear();
+            queuedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void shed() {
+        Iterator<OutboundFrame> iterator = queue.iterator();
+        while (queuedBytes > budget && iterator.hasNext()) {
+            OutboundFrame frame = iterator.next();
+            switch (frame.kind()) {
+                case HEARTBEAT -> drop(iterator, frame, "over-budget");
+                case PARTICIPANT_STATUS -> {
+                    staleStatus.put(frame.destination(), frame);
+                    drop(iterator, frame, "over-budget");
+                }
+                case ICE_CANDIDATE -> {
+                    if (policy.isPeerGone(frame.senderSessionId())) {
+                        drop(iterator, frame, "peer-closed");
+                    }
+                }
+                case ESSENTIAL -> {
+                }
+            }
+        }
+    }
+
+    private void drop(Iterator<OutboundFrame> iterator, OutboundFrame frame, String reason) {
+        iterator.remove();
+        queuedBytes -= frame.size();
+        policy.dropped(frame.kind(), reason);
+    }
+
+    private String checkLimits(long now) {
+        if (queuedBytes > hardLimit) {
+            return "buffer-limit";
+        }
+        if (queuedBytes <= budget) {
+            overBudgetSince = 0;
+        } else if (overBudgetSince == 0) {
+            overBudgetSince = now;
+        } else if (now - overBudgetSince > overBudgetTimeoutNanos) {
+            return "over-budget";
+        }
+        long writeStarted = writeStartedAt;
+        if (writeStarted != 0 && now - writeStarted > sendTimeLimitNanos) {
+            return "send-timeout";
+        }
+        return null;
+    }
+
+    private void drain() {
+        while (true) {
+            List<OutboundFrame> batch = nextBatch();
+            if (batch == null) {
+                return;
+            }
+            for (OutboundFrame frame : batch) {
+                if (!write(frame)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The next frame to write; once the queue is empty, status snapshots replacing dropped
+     * deltas. Returns {@code null} when there is nothing left, ending the drain task.
+     */
+    private List<OutboundFrame> nextBatch() {
+        List<String> snapshotDestinations;
+        CloseStatus closeStatus;
+        lock.lock();
+        try {
+            OutboundFrame frame = queue.poll();
+            if (frame != null) {
+                queuedBytes -= frame.size();
+                if (queuedBytes <= budget) {
+                    overBudgetSince = 0;
+                }
+                return List.of(frame);
+            }
+            snapshotDestinations = closing ? List.of() : new ArrayList<>(staleStatus.keySet());
+            closeStatus = pendingClose;
+            if (snapshotDestinations.isEmpty()) {
+                draining = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (snapshotDestinations.isEmpty()) {
+            if (closeStatus != null) {
+                closeDelegate(closeStatus);
+            }
+            return null;
+        }
+
+        // Built outside the lock; anything enqueued meanwhile is newer and goes out after the snapshots
+        List<OutboundFrame> snapshots = new ArrayList<>(snapshotDestinations.size());
+        for (String destination : snapshotDestinations) {
+            OutboundFrame template;
+            lock.lock();
+            try {
+                template = staleStatus.remove(destination);
+            } finally {
+                lock.unlock();
+            }
+            String body = template != null ? policy.statusSnapshot(destination) : null;
+            if (body != null) {
+                snapshots.add(template.withBody(body));
+            }
+        }
+        return snapshots;
+    }
+
+    private boolean write(OutboundFrame frame) {
+        long started = System.nanoTime();
+        writeStartedAt = started;
+        try {
+            getDelegate().sendMessage(frame.message());
+            policy.written(frame.kind(), started - frame.queuedAt());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to write to WebSocket session {}", getId(), e);
+            discard();
+            lock.lock();
+            try {
+                draining = false;
+            } finally {
+                lock.unlock();
+            }
+            closeDelegate(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        } finally {
+            writeStartedAt = 0;
+        }
+    }
+
+    private void closeDelegate(CloseStatus status) {
+        try {
+            getDelegate().close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close WebSocket session {}", getId(), e);
+        }
+    }
+}
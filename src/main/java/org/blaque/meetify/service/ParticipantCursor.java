@@ -0,0 +1,53 @@
+package org.blaque.meetify.service;
+
+import lombok.Value;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a room's participant list, ordered by {@code (joined_at, session_id)}.
+ * Participants joining or leaving between two pages neither shift nor repeat the others.
+ */
+@Value
+public class ParticipantCursor implements Comparable<ParticipantCursor> {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime joinedAt;
+    String sessionId;
+
+    public static ParticipantCursor of(ParticipantPresence participant) {
+        return new ParticipantCursor(participant.getJoinedAt(), participant.getSessionId());
+    }
+
+    public static ParticipantCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new ParticipantCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1)
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    @Override
+    public int compareTo(ParticipantCursor other) {
+        int byJoinedAt = joinedAt.compareTo(other.joinedAt);
+        return byJoinedAt != 0 ? byJoinedAt : sessionId.compareTo(other.sessionId);
+    }
+
+    public String encode() {
+        String raw = joinedAt.toString() + SEPARATOR + sessionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,275 @@
+package org.blaque.meetify.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.LargeRoomProperties;
+import org.blaque.meetify.config.ParticipantStatusProperties;
+import org.blaque.meetify.dto.ParticipantDigestDTO;
+import org.blaque.meetify.dto.ParticipantEventDTO;
+import org.blaque.meetify.dto.ParticipantInfoDTO;
+import org.blaque.meetify.dto.ParticipantStatusDTO;
+import org.blaque.meetify.dto.ParticipantStatusDeltaDTO;
+import org.blaque.meetify.repository.ParticipantJdbcRepository;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Collapses mute/video toggles into the latest state per participant. Each room receives
+ * at most one {@link ParticipantStatusDeltaDTO} per {@code broadcast-interval}, and the
+ * latest states are written to the participants table in one batch per {@code flush-interval}.
+ * <p>
+ * Joins and leaves are announced here too. Rooms of at least {@code large-room.participant-threshold}
+ * participants get them folded, with the status changes, into one {@link ParticipantDigestDTO}
+ * per {@code broadcast-interval}, so N joins no longer cost N broadcasts to N subscribers.
+ * Smaller rooms get each join and leave at once, unless a digest is already pending for the
+ * room, which keeps them in order with the changes in it.
+ */
+@Service
+@Slf4j
+public class ParticipantStatusAggregator {
+
+    private final PresenceRegistry presenceRegistry;
+    private final PresenceWriter presenceWriter;
+    private final ParticipantJdbcRepository participantJdbcRepository;
+    private final RoomEventBus roomEventBus;
+    private final TaskScheduler taskScheduler;
+    private final ParticipantStatusProperties properties;
+    private final LargeRoomProperties largeRoomProperties;
+
+    // Pending rooms are only touched inside compute/remove on the outer map, which makes them safe to hand off
+    private final ConcurrentMap<String, PendingRoom> pendingBroadcasts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ParticipantPresence> pendingWrites = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> broadcastTask;
+    private ScheduledFuture<?> flushTask;
+
+    public ParticipantStatusAggregator(PresenceRegistry presenceRegistry,
+                                       PresenceWriter presenceWriter,
+                                       ParticipantJdbcRepository participantJdbcRepository,
+                                       RoomEventBus roomEventBus,
+                                       @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler,
+                                       ParticipantStatusProperties properties,
+                                       LargeRoomProperties largeRoomProperties) {
+        this.presenceRegistry = presenceRegistry;
+        this.presenceWriter = presenceWriter;
+        this.participantJdbcRepository = participantJdbcRepository;
+        this.roomEventBus = roomEventBus;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.largeRoomProperties = largeRoomProperties;
+    }
+
+    @PostConstruct
+    void start() {
+        broadcastTask = taskScheduler.scheduleWithFixedDelay(this::broadcastDeltas, properties.getBroadcastInterval());
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushToDatabase, properties.getFlushInterval());
+    }
+
+    @PreDestroy
+    void stop() {
+        broadcastTask.cancel(false);
+        flushTask.cancel(false);
+
+        List<ParticipantPresence> remaining = drainPendingWrites();
+        if (!remaining.isEmpty()) {
+            participantJdbcRepository.updateStatuses(remaining);
+        }
+    }
+
+    /**
+     * Records a status change; {@code null} fields keep their current value.
+     *
+     * @return {@code false} if the participant is not connected to any room
+     */
+    public boolean submit(String sessionId, Boolean isMuted, Boolean isVideoEnabled) {
+        RoomPresence room = presenceRegistry.findRoomOfSession(sessionId).orElse(null);
+        ParticipantPresence participant = presenceRegistry.updateStatus(sessionId, isMuted, isVideoEnabled).orElse(null);
+        if (room == null || participant == null) {
+            return false;
+        }
+
+        pendingBroadcasts.compute(room.getRoomCode(), (code, pending) -> {
+            PendingRoom updated = pending != null ? pending : new PendingRoom();
+            updated.statuses.put(sessionId, participant);
+            return updated;
+        });
+        pendingWrites.put(sessionId, participant);
+        return true;
+    }
+
+    public void announceJoin(String roomCode, ParticipantInfoDTO participant) {
+        announce(roomCode, participant, true);
+    }
+
+    public void announceLeave(String roomCode, ParticipantInfoDTO participant) {
+        announce(roomCode, participant, false);
+    }
+
+    void broadcastDeltas() {
+        for (String roomCode : pendingBroadcasts.keySet()) {
+            PendingRoom pending = pendingBroadcasts.remove(roomCode);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            try {
+                int participantCount = presenceRegistry.findRoom(roomCode)
+                        .map(RoomPresence::getParticipantCount)
+                        .orElse(0);
+                roomEventBus.publish(
+                        roomCode,
+                        "/topic/room/" + roomCode + "/participant",
+                        pending.hasMembershipChanges() || isLargeRoom(participantCount)
+                                ? toDigest(pending, participantCount)
+                                : toDelta(pending.statuses.values())
+                );
+                if (!pending.statuses.isEmpty()) {
+                    roomEventBus.replicate(PresenceChange.statuses(roomCode, pending.statuses.values()));
+                }
+            } catch (Exception e) {
+                log.error("Failed to broadcast status delta to room {}", roomCode, e);
+            }
+        }
+    }
+
+    /**
+     * The current state of every participant in the room as one status delta, sent in place
+     * of deltas a slow client had to skip.
+     */
+    public Optional<ParticipantStatusDeltaDTO> snapshot(String roomCode) {
+        return presenceRegistry.findRoom(roomCode).map(room -> toDelta(room.getParticipants()));
+    }
+
+    private void announce(String roomCode, ParticipantInfoDTO participant, boolean joined) {
+        boolean[] digested = {false};
+        pendingBroadcasts.compute(roomCode, (code, pending) -> {
+            if (pending != null && !joined) {
+                // A status change of a participant who left is no longer worth sending
+                pending.statuses.remove(participant.getSessionId());
+            }
+            if ((pending == null || !pending.hasMembershipChanges()) && !isLargeRoom(code)) {
+                return pending;
+            }
+            PendingRoom updated = pending != null ? pending : new PendingRoom();
+            updated.membershipChanged(participant, joined);
+            digested[0] = true;
+            return updated;
+        });
+        if (digested[0]) {
+            return;
+        }
+        roomEventBus.publish(
+                roomCode,
+                "/topic/room/" + roomCode + "/participant",
+                ParticipantEventDTO.builder()
+                        .type(joined ? "join" : "leave")
+                        .participant(participant)
+                        .timestamp(LocalDateTime.now().toString())
+                        .build()
+        );
+    }
+
+    private boolean isLargeRoom(String roomCode) {
+        return presenceRegistry.findRoom(roomCode)
+                .map(room -> isLargeRoom(room.getParticipantCount()))
+                .orElse(false);
+    }
+
+    private boolean isLargeRoom(int participantCount) {
+        return participantCount >= largeRoomProperties.getParticipantThreshold();
+    }
+
+    void flushToDatabase() {
+        List<ParticipantPresence> batch = drainPendingWrites();
+        if (!batch.isEmpty()) {
+            // Goes through the presence writer so it is ordered after the participants' inserts
+            presenceWriter.participantStatusesChanged(batch);
+        }
+    }
+
+    private static ParticipantStatusDeltaDTO toDelta(Collection<ParticipantPresence> participants) {
+        return ParticipantStatusDeltaDTO.builder()
+                .type("status")
+                .changes(toStatuses(participants))
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+    }
+
+    private static ParticipantDigestDTO toDigest(PendingRoom pending, int participantCount) {
+        return ParticipantDigestDTO.builder()
+                .type("digest")
+                .joined(new ArrayList<>(pending.joined.values()))
+                .left(new ArrayList<>(pending.left))
+                .changes(toStatuses(pending.statuses.values()))
+                .participantCount(participantCount)
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+    }
+
+    private static List<ParticipantStatusDTO> toStatuses(Collection<ParticipantPresence> participants) {
+        List<ParticipantStatusDTO> changes = new ArrayList<>(participants.size());
+        participants.forEach(participant -> changes.add(ParticipantStatusDTO.builder()
+                .sessionId(participant.getSessionId())
+                .isMuted(participant.getIsMuted())
+                .isVideoEnabled(participant.getIsVideoEnabled())
+                .build()));
+        return changes;
+    }
+
+    private List<ParticipantPresence> drainPendingWrites() {
+        List<ParticipantPresence> batch = new ArrayList<>(pendingWrites.size());
+        for (String sessionId : pendingWrites.keySet()) {
+            ParticipantPresence participant = pendingWrites.remove(sessionId);
+            if (participant != null) {
+                batch.add(participant);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * What a room is owed at the next tick: latest states by session id, and joins and leaves
+     * not yet announced. A join and leave of the same session in one tick cancel out.
+     */
+    private static final class PendingRoom {
+
+        private final Map<String, ParticipantPresence> statuses = new HashMap<>();
+        private final Map<String, ParticipantInfoDTO> joined = new LinkedHashMap<>();
+        private final Set<String> left = new LinkedHashSet<>();
+
+        void membershipChanged(ParticipantInfoDTO participant, boolean hasJoined) {
+            String sessionId = participant.getSessionId();
+            if (hasJoined) {
+                left.remove(sessionId);
+                joined.put(sessionId, participant);
+            } else if (joined.remove(sessionId) == null) {
+                left.add(sessionId);
+            }
+        }
+
+        boolean hasMembershipChanges() {
+            return !joined.isEmpty() || !left.isEmpty();
+        }
+
+        boolean isEmpty() {
+            return statuses.isEmpty() && !hasMembershipChanges();
+        }
+    }
+}
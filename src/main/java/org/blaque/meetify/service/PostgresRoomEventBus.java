@@ -0,0 +1,461 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.EventBusProperties;
+import org.blaque.meetify.dto.RawJson;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans room events out between application nodes with Postgres LISTEN/NOTIFY on the
+ * existing datasource. Every room has its own notification channel, and a node only
+ * LISTENs on the channels of rooms it has local {@code /topic/room/...} subscribers for,
+ * so a room's traffic reaches only the nodes hosting its participants.
+ * <p>
+ * Events are delivered to local subscribers immediately and NOTIFYed from a single
+ * sender thread, which keeps the per-room order across nodes. Payloads larger than a
+ * NOTIFY can carry are parked in {@code room_event_payloads} and passed by reference.
+ * <p>
+ * Presence is replicated on one more channel every node listens on: joins, leaves and
+ * status changes are applied to each node's {@link PresenceRegistry}, and every node lists
+ * the participants whose WebSocket it holds when they attach or detach and in periodic
+ * heartbeats. That tells {@link #sendToParticipant} whether anyone can receive a signal.
+ * <p>
+ * The listener connection is opened straight from the datasource settings, so it does not
+ * take a pooled connection.
+ */
+@Service
+@ConditionalOnProperty(prefix = "meetify.event-bus", name = "type", havingValue = "postgres")
+@Slf4j
+public class PostgresRoomEventBus implements RoomEventBus, SmartLifecycle {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    private static final String CHANNEL_PREFIX = "meetify_room_";
+    static final String PRESENCE_CHANNEL = "meetify_presence";
+    // Keeps a heartbeat of participant ids well within one NOTIFY
+    private static final int HEARTBEAT_CHUNK = 150;
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    private static final int MAX_NOTIFY_BYTES = 7900;
+    private static final Duration RECONNECT_BACKOFF = Duration.ofSeconds(2);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomEventLog roomEventLog;
+    private final SessionRoutingTable sessionRoutingTable;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final EventBusProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterPresence clusterPresence;
+
+    // "{webSocketSessionId}/{subscriptionId}" -> room code
+    private final ConcurrentMap<String, String> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> subscribersPerRoom = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("room-event-notify").daemon(true).factory());
+
+    private volatile boolean running;
+    private Thread listener;
+    private ScheduledFuture<?> overflowCleanupTask;
+    private ScheduledFuture<?> heartbeatTask;
+
+    public PostgresRoomEventBus(DataSourceProperties dataSourceProperties,
+                                JdbcTemplate jdbcTemplate,
+                                RoomEventLog roomEventLog,
+                                SessionRoutingTable sessionRoutingTable,
+                                PresenceRegistry presenceRegistry,
+                                ObjectMapper objectMapper,
+                                @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler,
+                                EventBusProperties properties,
+                                ApplicationEventPublisher eventPublisher) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roomEventLog = roomEventLog;
+        this.sessionRoutingTable = sessionRoutingTable;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.clusterPresence = new ClusterPresence(
+                properties.getNodeId(), presenceRegistry, properties.getPresenceHeartbeat().multipliedBy(3));
+    }
+
+    @Override
+    public void publish(String roomCode, String destination, Object payload) {
+        roomEventLog.broadcast(roomCode, destination, payload);
+        notifyNodes(roomCode, destination, null, payload);
+    }
+
+    /**
+     * Delivers locally when the participant's session lives on this node and otherwise hands
+     * the payload to the room's other nodes, provided one of them reported the participant
+     * attached within the last three heartbeats.
+     */
+    @Override
+    public boolean sendToParticipant(String roomCode, String participantSessionId, Object payload) {
+        if (sessionRoutingTable.send(participantSessionId, payload)) {
+            return true;
+        }
+        if (!running || !clusterPresence.isAttachedElsewhere(participantSessionId, Instant.now())) {
+            return false;
+        }
+        notifyNodes(roomCode, SessionRoutingTable.SIGNAL_QUEUE_PREFIX + participantSessionId, participantSessionId, payload);
+        return true;
+    }
+
+    @Override
+    public void replicate(PresenceChange change) {
+        switch (change.kind()) {
+            case JOINED -> clusterPresence.joinedHere(change);
+            case LEFT -> clusterPresence.forget(change.sessionIds());
+            case STATUS -> {
+            }
+        }
+        send(PRESENCE_CHANNEL, Envelope.presence(properties.getNodeId(), change), "presence change in room " + change.roomCode());
+    }
+
+    @Override
+    public boolean isAttached(String participantSessionId) {
+        return sessionRoutingTable.isRoutable(participantSessionId)
+                || clusterPresence.isAttachedElsewhere(participantSessionId, Instant.now());
+    }
+
+    @Override
+    public boolean isReaper(String participantSessionId) {
+        return clusterPresence.isReaper(participantSessionId, Instant.now());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("room-event-listen").daemon(true).start(this::listenLoop);
+        overflowCleanupTask = taskScheduler.scheduleWithFixedDelay(this::deleteExpiredPayloads, properties.getOverflowRetention());
+        heartbeatTask = taskScheduler.scheduleWithFixedDelay(this::sendHeartbeat, properties.getPresenceHeartbeat());
+        log.info("Room event bus started as node {}", properties.getNodeId());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        overflowCleanupTask.cancel(false);
+        heartbeatTask.cancel(false);
+        sender.shutdown();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+            listener.join(properties.getPollInterval().toMillis() * 2 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Keep relaying until the WebSocket message broker has stopped
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String roomCode = roomCodeOf(accessor.getDestination());
+        if (roomCode == null) {
+            return;
+        }
+        if (subscriptions.putIfAbsent(subscriptionKey(accessor.getSessionId(), accessor.getSubscriptionId()), roomCode) == null) {
+            subscribersPerRoom.merge(roomCode, 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String roomCode = subscriptions.remove(subscriptionKey(accessor.getSessionId(), accessor.getSubscriptionId()));
+        if (roomCode != null) {
+            releaseSubscriber(roomCode);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "/";
+        subscriptions.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(prefix)) {
+                return false;
+            }
+            releaseSubscriber(entry.getValue());
+            return true;
+        });
+    }
+
+    @EventListener
+    public void onRouteChanged(SessionRoutingTable.RouteChanged event) {
+        List<String> participant = List.of(event.participantSessionId());
+        send(PRESENCE_CHANNEL, event.routable()
+                ? Envelope.routes(properties.getNodeId(), participant, null)
+                : Envelope.routes(properties.getNodeId(), null, participant), "route change");
+    }
+
+    private void releaseSubscriber(String roomCode) {
+        subscribersPerRoom.computeIfPresent(roomCode, (code, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Lists every participant attached here, also when there are none, so other nodes keep
+     * routing to them and learn that this node is alive.
+     */
+    private void sendHeartbeat() {
+        List<String> attached = sessionRoutingTable.routedParticipants();
+        int from = 0;
+        do {
+            List<String> chunk = attached.subList(from, Math.min(from + HEARTBEAT_CHUNK, attached.size()));
+            send(PRESENCE_CHANNEL, Envelope.routes(properties.getNodeId(), List.copyOf(chunk), null), "presence heartbeat");
+            from += HEARTBEAT_CHUNK;
+        } while (from < attached.size());
+    }
+
+    private void notifyNodes(String roomCode, String destination, String target, Object payload) {
+        RawJson json;
+        try {
+            json = RawJson.of(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.error("Could not encode event for room {}", roomCode, e);
+            return;
+        }
+        send(channelOf(roomCode), Envelope.event(properties.getNodeId(), destination, target, json), "event in room " + roomCode);
+    }
+
+    private void send(String channel, Envelope envelope, String description) {
+        String encoded;
+        try {
+            encoded = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            log.error("Could not encode {}", description, e);
+            return;
+        }
+
+        try {
+            sender.execute(() -> {
+                try {
+                    String message = encoded;
+                    if (message.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+                        UUID reference = UUID.randomUUID();
+                        jdbcTemplate.update("INSERT INTO room_event_payloads (id, payload) VALUES (?, ?)", reference, message);
+                        message = objectMapper.writeValueAsString(Envelope.reference(properties.getNodeId(), reference));
+                    }
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, message);
+                } catch (DataAccessException | JsonProcessingException e) {
+                    log.error("Failed to notify other nodes of {}", description, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Room event bus stopped, {} not sent to other nodes", description);
+        }
+    }
+
+    /**
+     * Owns the listener connection: applies LISTEN/UNLISTEN for rooms whose local subscriber
+     * count changed, then waits up to {@code poll-interval} for notifications. The connection
+     * is re-opened with all channels re-LISTENed if it breaks; since notifications sent in
+     * between are lost, a {@link ListenerReconnected} event then asks for presence to be
+     * reloaded.
+     */
+    private void listenLoop() {
+        int pollMillis = (int) properties.getPollInterval().toMillis();
+        boolean reconnecting = false;
+        while (running) {
+            Set<String> listening = new HashSet<>();
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection.setAutoCommit(true);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                syncChannels(connection, listening);
+                if (reconnecting) {
+                    eventPublisher.publishEvent(new ListenerReconnected());
+                }
+                reconnecting = true;
+                while (running) {
+                    syncChannels(connection, listening);
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Room event listener connection failed, reconnecting in {}", RECONNECT_BACKOFF, e);
+                try {
+                    Thread.sleep(RECONNECT_BACKOFF.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void syncChannels(Connection connection, Set<String> listening) throws SQLException {
+        Set<String> wanted = new HashSet<>();
+        wanted.add(PRESENCE_CHANNEL);
+        subscribersPerRoom.keySet().forEach(roomCode -> wanted.add(channelOf(roomCode)));
+        if (wanted.equals(listening)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : wanted) {
+                if (listening.add(channel)) {
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+            }
+            for (var iterator = listening.iterator(); iterator.hasNext(); ) {
+                String channel = iterator.next();
+                if (!wanted.contains(channel)) {
+                    statement.execute("UNLISTEN \"" + channel + "\"");
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void handle(String message) {
+        try {
+            Envelope envelope = objectMapper.readValue(message, Envelope.class);
+            if (properties.getNodeId().equals(envelope.origin())) {
+                return;
+            }
+            clusterPresence.nodeSeen(envelope.origin(), Instant.now());
+            if (envelope.reference() != null) {
+                String stored = jdbcTemplate.query("SELECT payload FROM room_event_payloads WHERE id = ?",
+                        rs -> rs.next() ? rs.getString(1) : null, envelope.reference());
+                if (stored == null) {
+                    log.warn("Room event payload {} expired before it was read", envelope.reference());
+                    return;
+                }
+                envelope = objectMapper.readValue(stored, Envelope.class);
+            }
+
+            if (envelope.presence() != null) {
+                clusterPresence.apply(envelope.origin(), envelope.presence());
+            } else if (envelope.attached() != null || envelope.detached() != null) {
+                clusterPresence.routesChanged(envelope.origin(), envelope.attached(), envelope.detached(), Instant.now());
+            } else if (envelope.target() != null) {
+                sessionRoutingTable.send(envelope.target(), envelope.payload());
+            } else {
+                // Sequenced by this node, in the order the events arrive here
+                roomEventLog.broadcast(roomCodeOf(envelope.destination()), envelope.destination(), envelope.payload());
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.error("Could not relay room event from another node", e);
+        }
+    }
+
+    private void deleteExpiredPayloads() {
+        try {
+            jdbcTemplate.update("DELETE FROM room_event_payloads WHERE created_at < ?",
+                    LocalDateTime.now().minus(properties.getOverflowRetention()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete expired room event payloads", e);
+        }
+    }
+
+    private static String roomCodeOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        int end = destination.indexOf('/', ROOM_TOPIC_PREFIX.length());
+        return destination.substring(ROOM_TOPIC_PREFIX.length(), end < 0 ? destination.length() : end);
+    }
+
+    /**
+     * Channel names are identifiers, so anything outside {@code [a-z0-9_]} is replaced.
+     * Two codes that collide here only share a channel; delivery is still by destination.
+     */
+    static String channelOf(String roomCode) {
+        StringBuilder channel = new StringBuilder(CHANNEL_PREFIX.length() + roomCode.length()).append(CHANNEL_PREFIX);
+        for (char c : roomCode.toLowerCase(Locale.ROOT).toCharArray()) {
+            channel.append((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : '_');
+        }
+        return channel.length() > 63 ? channel.substring(0, 63) : channel.toString();
+    }
+
+    private static String subscriptionKey(String webSocketSessionId, String subscriptionId) {
+        return webSocketSessionId + "/" + subscriptionId;
+    }
+
+    /**
+     * What travels in a NOTIFY: a room event, a presence change, the participants a node
+     * attached or detached, or a reference to any of these parked in the overflow table.
+     */
+    record Envelope(String origin, String destination, String target, RawJson payload, UUID reference,
+                    PresenceChange presence, List<String> attached, List<String> detached) {
+
+        static Envelope event(String origin, String destination, String target, RawJson payload) {
+            return new Envelope(origin, destination, target, payload, null, null, null, null);
+        }
+
+        static Envelope reference(String origin, UUID reference) {
+            return new Envelope(origin, null, null, null, reference, null, null, null);
+        }
+
+        static Envelope presence(String origin, PresenceChange presence) {
+            return new Envelope(origin, null, null, null, null, presence, null, null);
+        }
+
+        static Envelope routes(String origin, List<String> attached, List<String> detached) {
+            return new Envelope(origin, null, null, null, null, null, attached, detached);
+        }
+    }
+
+    /**
+     * Published when the listener connection was re-opened; notifications sent while it was
+     * down are lost, presence included.
+     */
+    public record ListenerReconnected() {
+    }
+}
@@ -0,0 +1,40 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A change one node made to its {@link PresenceRegistry}, replayed by the other nodes through
+ * {@link RoomEventBus#replicate}. Joins carry the room, so a node that has not seen it yet can
+ * register it; status changes carry the participants' latest states.
+ */
+public record PresenceChange(Kind kind,
+                             UUID roomId,
+                             String roomCode,
+                             String roomName,
+                             LocalDateTime roomCreatedAt,
+                             List<ParticipantPresence> participants,
+                             List<String> sessionIds) {
+
+    public enum Kind {
+        JOINED, LEFT, STATUS
+    }
+
+    public static PresenceChange joined(RoomPresence room, ParticipantPresence participant) {
+        return new PresenceChange(Kind.JOINED, room.getRoomId(), room.getRoomCode(), room.getRoomName(),
+                room.getCreatedAt(), List.of(participant), null);
+    }
+
+    public static PresenceChange left(String roomCode, List<String> sessionIds) {
+        return new PresenceChange(Kind.LEFT, null, roomCode, null, null, null, sessionIds);
+    }
+
+    public static PresenceChange statuses(String roomCode, Collection<ParticipantPresence> participants) {
+        return new PresenceChange(Kind.STATUS, null, roomCode, null, null, List.copyOf(participants), null);
+    }
+}
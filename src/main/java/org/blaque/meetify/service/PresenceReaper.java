@@ -0,0 +1,173 @@
+package org.blaque.meetify.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.PresenceProperties;
+import org.blaque.meetify.dto.ParticipantInfoDTO;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Removes participants whose WebSocket session is gone, whether the client disconnected,
+ * stopped sending STOMP heartbeats or never connected after joining, and closes rooms that
+ * have been empty for {@code empty-room-timeout}. Database changes are made with one
+ * set-based UPDATE per pass through the {@link PresenceWriter}.
+ * <p>
+ * Whether a participant is still connected is asked of the {@link RoomEventBus}, which knows
+ * about WebSocket sessions held by other nodes. Of the nodes that see a participant go stale,
+ * only its {@link RoomEventBus#isReaper reaper} removes it for everyone; the others forget it
+ * locally once it has been stale for twice the grace period, in case that removal never arrived.
+ */
+@Service
+@Slf4j
+public class PresenceReaper {
+
+    private final PresenceRegistry presenceRegistry;
+    private final PresenceWriter presenceWriter;
+    private final SessionRoutingTable sessionRoutingTable;
+    private final ParticipantStatusAggregator participantStatusAggregator;
+    private final RoomCache roomCache;
+    private final RoomEventBus roomEventBus;
+    private final TaskScheduler taskScheduler;
+    private final PresenceProperties properties;
+
+    private ScheduledFuture<?> reaperTask;
+
+    public PresenceReaper(PresenceRegistry presenceRegistry,
+                          PresenceWriter presenceWriter,
+                          SessionRoutingTable sessionRoutingTable,
+                          ParticipantStatusAggregator participantStatusAggregator,
+                          RoomCache roomCache,
+                          RoomEventBus roomEventBus,
+                          @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler,
+                          PresenceProperties properties) {
+        this.presenceRegistry = presenceRegistry;
+        this.presenceWriter = presenceWriter;
+        this.sessionRoutingTable = sessionRoutingTable;
+        this.participantStatusAggregator = participantStatusAggregator;
+        this.roomCache = roomCache;
+        this.roomEventBus = roomEventBus;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        reaperTask = taskScheduler.scheduleWithFixedDelay(this::reap, properties.getReaperInterval());
+    }
+
+    @PreDestroy
+    void stop() {
+        reaperTask.cancel(false);
+    }
+
+    /**
+     * Runs before the routing table forgets the session, so its participants can still be found.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Instant now = Instant.now();
+        for (String participantSessionId : sessionRoutingTable.participantsOf(event.getSessionId())) {
+            presenceRegistry.markDetached(participantSessionId, now);
+            log.debug("Participant {} lost WebSocket session {}", participantSessionId, event.getSessionId());
+        }
+    }
+
+    void reap() {
+        try {
+            reapParticipants();
+            closeIdleRooms();
+        } catch (Exception e) {
+            log.error("Presence reaper pass failed", e);
+        }
+    }
+
+    private void reapParticipants() {
+        Instant cutoff = Instant.now().minus(properties.getDisconnectGrace());
+        Instant forgetCutoff = cutoff.minus(properties.getDisconnectGrace());
+        List<String> reaped = new ArrayList<>();
+
+        for (RoomPresence room : presenceRegistry.rooms()) {
+            List<String> reapedInRoom = new ArrayList<>();
+            for (ParticipantPresence participant : room.getParticipants()) {
+                if (!isStale(participant, cutoff)) {
+                    continue;
+                }
+                if (roomEventBus.isReaper(participant.getSessionId())) {
+                    presenceRegistry.removeParticipant(participant.getSessionId())
+                            .ifPresent(removed -> {
+                                reapedInRoom.add(removed.getSessionId());
+                                announceLeave(room.getRoomCode(), removed);
+                            });
+                } else if (isStale(participant, forgetCutoff)) {
+                    presenceRegistry.removeParticipant(participant.getSessionId());
+                    log.debug("Forgot participant {}, which its reaping node never removed", participant.getSessionId());
+                }
+            }
+            if (!reapedInRoom.isEmpty()) {
+                roomEventBus.replicate(PresenceChange.left(room.getRoomCode(), reapedInRoom));
+                reaped.addAll(reapedInRoom);
+            }
+        }
+
+        if (!reaped.isEmpty()) {
+            presenceWriter.participantsLeft(reaped, LocalDateTime.now());
+            log.info("Reaped {} disconnected participants", reaped.size());
+        }
+    }
+
+    private boolean isStale(ParticipantPresence participant, Instant cutoff) {
+        if (roomEventBus.isAttached(participant.getSessionId())) {
+            return false;
+        }
+        Instant lastSeen = presenceRegistry.findDetachedSince(participant.getSessionId())
+                .orElseGet(() -> participant.getJoinedAt().atZone(ZoneId.systemDefault()).toInstant());
+        return lastSeen.isBefore(cutoff);
+    }
+
+    private void announceLeave(String roomCode, ParticipantPresence participant) {
+        participantStatusAggregator.announceLeave(
+                roomCode, new ParticipantInfoDTO(participant.getUsername(), participant.getSessionId()));
+    }
+
+    private void closeIdleRooms() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> occupied = presenceRegistry.rooms().stream()
+                .filter(room -> room.getParticipantCount() > 0)
+                .map(RoomPresence::getRoomId)
+                .toList();
+
+        presenceWriter.closeIdleRooms(now.minus(properties.getEmptyRoomTimeout()), now, occupied)
+                .thenAccept(closedCodes -> closedCodes.forEach(this::forgetClosedRoom));
+    }
+
+    private void forgetClosedRoom(String roomCode) {
+        roomCache.invalidate(roomCode);
+        presenceRegistry.findRoom(roomCode).ifPresent(room -> {
+            if (room.getParticipantCount() > 0) {
+                // Someone joined between the snapshot and the UPDATE
+                presenceWriter.roomReopened(room.getRoomId());
+            } else {
+                presenceRegistry.removeRoom(roomCode);
+            }
+        });
+        log.info("Closed idle room {}", roomCode);
+    }
+}
@@ -0,0 +1,259 @@
+package org.blaque.meetify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Authoritative in-memory view of active rooms and their connected participants.
+ * Room lookups and {@code RoomResponse} building are served from here; Postgres is
+ * only written to asynchronously by {@link PresenceWriter}.
+ */
+@Component
+public class PresenceRegistry {
+
+    private final ConcurrentMap<String, RoomPresence> roomsByCode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, RoomPresence> roomsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RoomPresence> roomsBySessionId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Instant> detachedSince = new ConcurrentHashMap<>();
+    // Participants removed recently, so frames they sent before leaving can be told apart
+    private final Cache<String, Boolean> departed = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    public RoomPresence registerRoom(UUID roomId, String roomCode, String roomName, LocalDateTime createdAt) {
+        RoomPresence candidate = new RoomPresence(roomId, roomCode, roomName, createdAt);
+        RoomPresence existing = roomsByCode.putIfAbsent(roomCode, candidate);
+        if (existing != null) {
+            return existing;
+        }
+        roomsById.put(roomId, candidate);
+        return candidate;
+    }
+
+    public Optional<RoomPresence> findRoom(String roomCode) {
+        return Optional.ofNullable(roomsByCode.get(roomCode));
+    }
+
+    public Optional<RoomPresence> findRoom(UUID roomId) {
+        return Optional.ofNullable(roomsById.get(roomId));
+    }
+
+    public Optional<RoomPresence> removeRoom(String roomCode) {
+        RoomPresence room = roomsByCode.remove(roomCode);
+        if (room == null) {
+            return Optional.empty();
+        }
+        roomsById.remove(room.getRoomId());
+        room.participants.keySet().forEach(sessionId -> {
+            roomsBySessionId.remove(sessionId);
+            detachedSince.remove(sessionId);
+        });
+        return Optional.of(room);
+    }
+
+    public void addParticipant(RoomPresence room, ParticipantPresence participant) {
+        room.put(participant);
+        roomsBySessionId.put(participant.getSessionId(), room);
+    }
+
+    /**
+     * Adds the participant unless the room already holds one with its session id, whose
+     * state is then kept.
+     *
+     * @return {@code false} if the participant was already there
+     */
+    public boolean addParticipantIfAbsent(RoomPresence room, ParticipantPresence participant) {
+        if (!room.putIfAbsent(participant)) {
+            return false;
+        }
+        roomsBySessionId.put(participant.getSessionId(), room);
+        return true;
+    }
+
+    public Optional<ParticipantPresence> findParticipant(String sessionId) {
+        RoomPresence room = roomsBySessionId.get(sessionId);
+        return room == null ? Optional.empty() : Optional.ofNullable(room.participants.get(sessionId));
+    }
+
+    public Optional<RoomPresence> findRoomOfSession(String sessionId) {
+        return Optional.ofNullable(roomsBySessionId.get(sessionId));
+    }
+
+    public Optional<ParticipantPresence> removeParticipant(String sessionId) {
+        detachedSince.remove(sessionId);
+        RoomPresence room = roomsBySessionId.remove(sessionId);
+        if (room == null) {
+            return Optional.empty();
+        }
+        departed.put(sessionId, Boolean.TRUE);
+        return Optional.ofNullable(room.remove(sessionId));
+    }
+
+    /**
+     * Whether the participant was removed in the last few minutes. Participants this node has
+     * never seen have not left as far as it knows.
+     */
+    public boolean hasLeft(String sessionId) {
+        return departed.getIfPresent(sessionId) != null;
+    }
+
+    /**
+     * Records when a participant lost its WebSocket session, for the presence reaper.
+     */
+    public void markDetached(String sessionId, Instant at) {
+        if (roomsBySessionId.containsKey(sessionId)) {
+            detachedSince.put(sessionId, at);
+        }
+    }
+
+    /**
+     * When the participant last lost its WebSocket session, or empty if it never had one.
+     */
+    public Optional<Instant> findDetachedSince(String sessionId) {
+        return Optional.ofNullable(detachedSince.get(sessionId));
+    }
+
+    /**
+     * Applies a mute/video change atomically; {@code null} arguments leave the current value untouched.
+     */
+    public Optional<ParticipantPresence> updateStatus(String sessionId, Boolean isMuted, Boolean isVideoEnabled) {
+        RoomPresence room = roomsBySessionId.get(sessionId);
+        if (room == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(room.update(sessionId, current -> current.toBuilder()
+                .isMuted(isMuted != null ? isMuted : current.getIsMuted())
+                .isVideoEnabled(isVideoEnabled != null ? isVideoEnabled : current.getIsVideoEnabled())
+                .build()));
+    }
+
+    public Collection<RoomPresence> rooms() {
+        return Collections.unmodifiableCollection(roomsByCode.values());
+    }
+
+    public int sessionCount() {
+        return roomsBySessionId.size();
+    }
+
+    @Getter
+    public static class RoomPresence {
+
+        private final UUID roomId;
+        private final String roomCode;
+        private final String roomName;
+        private final LocalDateTime createdAt;
+
+        @Getter(AccessLevel.NONE)
+        private final ConcurrentMap<String, ParticipantPresence> participants = new ConcurrentHashMap<>();
+        // The same participants in join order, written under the session's entry in participants
+        @Getter(AccessLevel.NONE)
+        private final ConcurrentNavigableMap<ParticipantCursor, ParticipantPresence> byJoinOrder = new ConcurrentSkipListMap<>();
+
+        RoomPresence(UUID roomId, String roomCode, String roomName, LocalDateTime createdAt) {
+            this.roomId = roomId;
+            this.roomCode = roomCode;
+            this.roomName = roomName;
+            this.createdAt = createdAt;
+        }
+
+        /**
+         * Every participant, earliest joined first.
+         */
+        public Collection<ParticipantPresence> getParticipants() {
+            return Collections.unmodifiableCollection(byJoinOrder.values());
+        }
+
+        /**
+         * Up to {@code count} participants that joined after {@code cursor}, or the earliest
+         * ones without a cursor, earliest first. Seeks to the cursor rather than scanning.
+         */
+        public List<ParticipantPresence> getParticipantsAfter(ParticipantCursor cursor, int count) {
+            Collection<ParticipantPresence> tail = cursor == null
+                    ? byJoinOrder.values()
+                    : byJoinOrder.tailMap(cursor, false).values();
+            List<ParticipantPresence> page = new ArrayList<>(Math.min(count, participants.size()));
+            for (ParticipantPresence participant : tail) {
+                if (page.size() == count) {
+                    break;
+                }
+                page.add(participant);
+            }
+            return page;
+        }
+
+        public int getParticipantCount() {
+            return participants.size();
+        }
+
+        void put(ParticipantPresence participant) {
+            participants.compute(participant.getSessionId(), (sessionId, previous) -> {
+                if (previous != null) {
+                    byJoinOrder.remove(ParticipantCursor.of(previous));
+                }
+                byJoinOrder.put(ParticipantCursor.of(participant), participant);
+                return participant;
+            });
+        }
+
+        boolean putIfAbsent(ParticipantPresence participant) {
+            return participants.computeIfAbsent(participant.getSessionId(), sessionId -> {
+                byJoinOrder.put(ParticipantCursor.of(participant), participant);
+                return participant;
+            }) == participant;
+        }
+
+        ParticipantPresence remove(String sessionId) {
+            ParticipantPresence removed = participants.remove(sessionId);
+            if (removed != null) {
+                // Leaves alone an entry a concurrent re-join put under the same key
+                byJoinOrder.remove(ParticipantCursor.of(removed), removed);
+            }
+            return removed;
+        }
+
+        ParticipantPresence update(String sessionId, UnaryOperator<ParticipantPresence> change) {
+            return participants.computeIfPresent(sessionId, (key, current) -> {
+                ParticipantPresence updated = change.apply(current);
+                byJoinOrder.remove(ParticipantCursor.of(current));
+                byJoinOrder.put(ParticipantCursor.of(updated), updated);
+                return updated;
+            });
+        }
+    }
+
+    @Value
+    @Builder(toBuilder = true)
+    @Jacksonized
+    public static class ParticipantPresence {
+
+        UUID id;
+        UUID roomId;
+        String username;
+        String sessionId;
+        LocalDateTime joinedAt;
+        Boolean isMuted;
+        Boolean isVideoEnabled;
+    }
+}
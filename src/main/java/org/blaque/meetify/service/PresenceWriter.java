@@ -0,0 +1,101 @@
+package org.blaque.meetify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.AsyncConfig;
+import org.blaque.meetify.repository.ParticipantJdbcRepository;
+import org.blaque.meetify.repository.RoomJdbcRepository;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Mirrors presence changes into Postgres off the request thread. All writes run on a single
+ * thread so a participant's insert, status changes and disconnect are applied in order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceWriter {
+
+    private final ParticipantJdbcRepository participantJdbcRepository;
+    private final RoomJdbcRepository roomJdbcRepository;
+
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public void participantJoined(ParticipantPresence participant) {
+        try {
+            participantJdbcRepository.insert(
+                    participant.getId(),
+                    participant.getRoomId(),
+                    participant.getUsername(),
+                    participant.getSessionId(),
+                    participant.getJoinedAt(),
+                    participant.getIsMuted(),
+                    participant.getIsVideoEnabled()
+            );
+        } catch (Exception e) {
+            log.error("Failed to persist participant {}", participant.getSessionId(), e);
+        }
+    }
+
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public void participantLeft(String sessionId, LocalDateTime leftAt) {
+        try {
+            participantJdbcRepository.markDisconnected(sessionId, leftAt);
+        } catch (Exception e) {
+            log.error("Failed to persist disconnect of participant {}", sessionId, e);
+        }
+    }
+
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public void participantsLeft(List<String> sessionIds, LocalDateTime leftAt) {
+        try {
+            participantJdbcRepository.markDisconnected(sessionIds, leftAt);
+        } catch (Exception e) {
+            log.error("Failed to persist disconnect of {} participants", sessionIds.size(), e);
+        }
+    }
+
+    /**
+     * Closes idle rooms after all queued participant writes, so a room is never closed
+     * while its last participant's insert is still pending.
+     */
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public CompletableFuture<List<String>> closeIdleRooms(LocalDateTime idleSince, LocalDateTime closedAt,
+                                                         Collection<UUID> occupiedRoomIds) {
+        try {
+            List<String> closed = roomJdbcRepository.closeIdleRooms(idleSince, closedAt, occupiedRoomIds);
+            if (!closed.isEmpty()) {
+                participantJdbcRepository.markDisconnectedInClosedRooms(closedAt);
+            }
+            return CompletableFuture.completedFuture(closed);
+        } catch (Exception e) {
+            log.error("Failed to close idle rooms", e);
+            return CompletableFuture.completedFuture(List.of());
+        }
+    }
+
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public void roomReopened(UUID roomId) {
+        try {
+            roomJdbcRepository.reopen(roomId);
+        } catch (Exception e) {
+            log.error("Failed to reopen room {}", roomId, e);
+        }
+    }
+
+    @Async(AsyncConfig.PRESENCE_WRITE_EXECUTOR)
+    public void participantStatusesChanged(List<ParticipantPresence> participants) {
+        try {
+            participantJdbcRepository.updateStatuses(participants);
+        } catch (Exception e) {
+            log.error("Failed to persist status of {} participants", participants.size(), e);
+        }
+    }
+}
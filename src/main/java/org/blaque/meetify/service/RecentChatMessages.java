@@ -0,0 +1,228 @@
+package org.blaque.meetify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.blaque.meetify.config.EventBusProperties;
+import org.blaque.meetify.config.RecentChatProperties;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory tail of each live room's chat, filled as {@link ChatService} accepts
+ * messages, so the history pages clients load on joining and reconnecting are answered
+ * without touching the database.
+ * <p>
+ * A ring holds every message accepted since it was created, in {@code (sent_at, id)} order,
+ * minus the oldest ones it evicted. It therefore covers every message from its oldest one
+ * onwards, and the whole room when it was created together with the room. Reads it cannot
+ * prove complete return {@code null} and go to the database instead.
+ * <p>
+ * Rings live in a cache weighed by their estimated heap size, which caps memory across all
+ * rooms at {@code memory-limit}; rooms idle for {@code idle-timeout} are evicted. Hits and
+ * misses are published as {@code cache.gets{cache=chat.recent}}.
+ */
+@Component
+public class RecentChatMessages {
+
+    // DTO, UUID, LocalDateTime and three String headers, roughly
+    private static final int MESSAGE_OVERHEAD_BYTES = 200;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final Cache<UUID, Ring> rings;
+
+    public RecentChatMessages(RecentChatProperties properties,
+                              EventBusProperties eventBusProperties,
+                              MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled() && "in-process".equals(eventBusProperties.getType());
+        this.capacity = properties.getCapacity();
+        this.rings = Caffeine.newBuilder()
+                .maximumWeight(properties.getMemoryLimit().toBytes())
+                .<UUID, Ring>weigher((roomId, ring) -> ring.weight())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rings, "chat.recent");
+        Gauge.builder("meetify.chat.recent.memory", rings,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap used by the recent chat messages of all rooms")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A new room has no history, so its ring answers every read until it first evicts.
+     */
+    public void roomCreated(UUID roomId) {
+        if (enabled) {
+            rings.put(roomId, new Ring(capacity, true));
+        }
+    }
+
+    public void append(UUID roomId, ChatMessageDTO message) {
+        if (!enabled) {
+            return;
+        }
+        // Returning the ring from compute has the cache weigh it again
+        rings.asMap().compute(roomId, (id, ring) -> {
+            Ring target = ring != null ? ring : new Ring(capacity, false);
+            target.add(message);
+            return target;
+        });
+    }
+
+    /**
+     * Up to {@code count} messages before {@code cursor}, or the latest ones without a
+     * cursor, newest first; {@code null} if the ring cannot tell.
+     */
+    public List<ChatMessageDTO> before(UUID roomId, ChatCursor cursor, int count) {
+        Ring ring = enabled ? rings.getIfPresent(roomId) : null;
+        return ring != null ? ring.before(cursor, count) : null;
+    }
+
+    /**
+     * Up to {@code count} messages after {@code cursor}, oldest first; {@code null} if the
+     * ring cannot tell.
+     */
+    public List<ChatMessageDTO> after(UUID roomId, ChatCursor cursor, int count) {
+        Ring ring = enabled ? rings.getIfPresent(roomId) : null;
+        return ring != null ? ring.after(cursor, count) : null;
+    }
+
+    private static int weigh(ChatMessageDTO message) {
+        return MESSAGE_OVERHEAD_BYTES
+                + 2 * (length(message.getMessage()) + length(message.getSenderUsername()) + length(message.getSenderSessionId()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * Circular buffer ordered by {@link ChatCursor}, oldest at {@code head}.
+     */
+    private static final class Ring {
+
+        // History requests may run on virtual threads, which a contended monitor would pin
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ChatMessageDTO[] slots;
+        private int head;
+        private int size;
+        private int weight;
+        private boolean complete;
+
+        Ring(int capacity, boolean complete) {
+            this.slots = new ChatMessageDTO[capacity];
+            this.complete = complete;
+        }
+
+        int weight() {
+            lock.lock();
+            try {
+                return weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void add(ChatMessageDTO message) {
+            lock.lock();
+            try {
+                ChatCursor key = ChatCursor.of(message);
+                if (size == slots.length) {
+                    complete = false;
+                    if (key.compareTo(keyAt(0)) < 0) {
+                        // Older than everything kept; the ring still covers all messages from its oldest one
+                        return;
+                    }
+                    weight -= weigh(get(0));
+                    slots[head] = null;
+                    head = (head + 1) % slots.length;
+                    size--;
+                }
+                // Messages arrive almost in order, so this rarely moves more than one slot
+                int position = size;
+                while (position > 0 && keyAt(position - 1).compareTo(key) > 0) {
+                    set(position, get(position - 1));
+                    position--;
+                }
+                set(position, message);
+                size++;
+                weight += weigh(message);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<ChatMessageDTO> before(ChatCursor cursor, int count) {
+            lock.lock();
+            try {
+                int end = cursor == null ? size : firstIndexAfter(cursor, false);
+                if (end < count && !complete) {
+                    return null;
+                }
+                List<ChatMessageDTO> messages = new ArrayList<>(Math.min(count, end));
+                for (int i = end - 1; i >= 0 && messages.size() < count; i--) {
+                    messages.add(get(i));
+                }
+                return messages;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<ChatMessageDTO> after(ChatCursor cursor, int count) {
+            lock.lock();
+            try {
+                if (!complete && (size == 0 || cursor.compareTo(keyAt(0)) < 0)) {
+                    return null;
+                }
+                List<ChatMessageDTO> messages = new ArrayList<>(Math.min(count, size));
+                for (int i = firstIndexAfter(cursor, true); i < size && messages.size() < count; i++) {
+                    messages.add(get(i));
+                }
+                return messages;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Index of the first message after {@code cursor}, or at it unless {@code exclusive}.
+         */
+        private int firstIndexAfter(ChatCursor cursor, boolean exclusive) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = keyAt(middle).compareTo(cursor);
+                if (comparison < 0 || (exclusive && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private ChatMessageDTO get(int index) {
+            return slots[(head + index) % slots.length];
+        }
+
+        private void set(int index, ChatMessageDTO message) {
+            slots[(head + index) % slots.length] = message;
+        }
+
+        private ChatCursor keyAt(int index) {
+            return ChatCursor.of(get(index));
+        }
+    }
+}
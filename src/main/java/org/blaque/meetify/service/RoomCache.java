@@ -0,0 +1,106 @@
+package org.blaque.meetify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Builder;
+import lombok.Value;
+import org.blaque.meetify.config.RoomCacheProperties;
+import org.blaque.meetify.entity.Room;
+import org.blaque.meetify.repository.RoomRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of room code and id to room metadata, consulted when a
+ * room is not in the {@link PresenceRegistry}: closed rooms, rooms hosted by another
+ * node, or rooms not touched since startup. Rooms are invalidated when they close.
+ * Hit and miss counts are published as {@code cache.gets{cache=rooms.by-code|rooms.by-id}}.
+ */
+@Component
+public class RoomCache {
+
+    private final RoomRepository roomRepository;
+    private final Cache<String, CachedRoom> byCode;
+    private final Cache<UUID, CachedRoom> byId;
+
+    public RoomCache(RoomRepository roomRepository, RoomCacheProperties properties, MeterRegistry meterRegistry) {
+        this.roomRepository = roomRepository;
+        this.byCode = newCache(properties);
+        this.byId = newCache(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, byCode, "rooms.by-code");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "rooms.by-id");
+    }
+
+    /**
+     * Resolves a room, active or closed, reading the database only on a miss.
+     * Unknown codes are not cached.
+     */
+    public Optional<CachedRoom> findByCode(String roomCode) {
+        return Optional.ofNullable(byCode.get(roomCode, code -> roomRepository.findByRoomCode(code)
+                .map(room -> index(room, byId, CachedRoom::getId))
+                .orElse(null)));
+    }
+
+    public Optional<CachedRoom> findById(UUID roomId) {
+        return Optional.ofNullable(byId.get(roomId, id -> roomRepository.findById(id)
+                .map(room -> index(room, byCode, CachedRoom::getRoomCode))
+                .orElse(null)));
+    }
+
+    public void put(Room room) {
+        CachedRoom cached = CachedRoom.of(room);
+        byCode.put(cached.getRoomCode(), cached);
+        byId.put(cached.getId(), cached);
+    }
+
+    public void invalidate(String roomCode) {
+        CachedRoom cached = byCode.asMap().remove(roomCode);
+        if (cached != null) {
+            byId.invalidate(cached.getId());
+        }
+    }
+
+    /**
+     * Runs inside one index's loading computation, so it may only write to the other index.
+     */
+    private static <K> CachedRoom index(Room room, Cache<K, CachedRoom> otherIndex, Function<CachedRoom, K> key) {
+        CachedRoom cached = CachedRoom.of(room);
+        otherIndex.put(key.apply(cached), cached);
+        return cached;
+    }
+
+    private static <K> Cache<K, CachedRoom> newCache(RoomCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Value
+    @Builder
+    public static class CachedRoom {
+
+        UUID id;
+        String roomCode;
+        String roomName;
+        LocalDateTime createdAt;
+        boolean active;
+
+        static CachedRoom of(Room room) {
+            return CachedRoom.builder()
+                    .id(room.getId())
+                    .roomCode(room.getRoomCode())
+                    .roomName(room.getRoomName())
+                    .createdAt(room.getCreatedAt())
+                    .active(Boolean.TRUE.equals(room.getIsActive()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.blaque.meetify.service;
+
+/**
+ * Fan-out path for everything broadcast to a room: chat, signaling and participant events.
+ * Implementations decide whether subscribers on other application nodes are reached, and
+ * keep the nodes' presence registries in step.
+ */
+public interface RoomEventBus {
+
+    /**
+     * Broadcasts {@code payload} to every subscriber of {@code destination}, which must be
+     * one of the room's {@code /topic/room/{roomCode}/...} destinations.
+     */
+    void publish(String roomCode, String destination, Object payload);
+
+    /**
+     * Delivers {@code payload} to a participant's signal queue, wherever its session lives.
+     *
+     * @return {@code false} if the participant is known to have no live session
+     */
+    boolean sendToParticipant(String roomCode, String participantSessionId, Object payload);
+
+    /**
+     * Replays a change this node made to its {@link PresenceRegistry} on the other nodes, so
+     * every node can list, update and remove participants that joined through another.
+     */
+    void replicate(PresenceChange change);
+
+    /**
+     * Whether the participant's signal queue has a live WebSocket subscriber on any node.
+     */
+    boolean isAttached(String participantSessionId);
+
+    /**
+     * Whether this node is the one to reap the participant once it is stale, so that exactly
+     * one node announces the leave and writes it to the database.
+     */
+    boolean isReaper(String participantSessionId);
+}
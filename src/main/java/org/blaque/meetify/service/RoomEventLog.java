@@ -0,0 +1,119 @@
+package org.blaque.meetify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.blaque.meetify.config.RoomEventLogProperties;
+import org.blaque.meetify.dto.RoomEventDTO;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequences the room state broadcasts, chat and participant events, for resync after a
+ * reconnect. Each event gets its room's next sequence number, is kept in a bounded per-room
+ * log and goes out with {@code room-seq} and {@code room-epoch} STOMP headers. A client
+ * that sees a gap, or reconnects, asks for what it missed since its last sequence.
+ * <p>
+ * Like presence, sequences are per node: each node numbers the events it delivers to its
+ * own subscribers. The epoch changes whenever a room's log is created anew (restart, idle
+ * eviction, another node), which tells the client that its sequence no longer applies.
+ * Logs are evicted after {@code idle-timeout} and counted as {@code cache.*{cache=room-events}}.
+ */
+@Component
+public class RoomEventLog {
+
+    public static final String SEQUENCE_HEADER = "room-seq";
+    public static final String EPOCH_HEADER = "room-epoch";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int capacity;
+    private final Cache<String, RoomLog> logs;
+
+    public RoomEventLog(SimpMessagingTemplate messagingTemplate,
+                        RoomEventLogProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.capacity = properties.getCapacity();
+        this.logs = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumRooms())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, logs, "room-events");
+    }
+
+    /**
+     * Broadcasts to the local subscribers of {@code destination}. Chat and participant events
+     * are sequenced and logged first, and sent while the room's log is locked, so frames
+     * leave in sequence order.
+     */
+    public void broadcast(String roomCode, String destination, Object payload) {
+        if (roomCode == null || !isSequenced(destination)) {
+            messagingTemplate.convertAndSend(destination, payload);
+            return;
+        }
+        logs.get(roomCode, code -> new RoomLog()).append(destination, payload);
+    }
+
+    /**
+     * The events after {@code sequence} of {@code epoch}, or {@code null} events when this
+     * log cannot tell what the client missed and it has to load a snapshot. Either way the
+     * returned epoch and sequence are the client's new position.
+     */
+    public Since since(String roomCode, String epoch, long sequence) {
+        return logs.get(roomCode, code -> new RoomLog()).since(epoch, sequence);
+    }
+
+    static boolean isSequenced(String destination) {
+        return destination.endsWith("/chat") || destination.endsWith("/participant");
+    }
+
+    public record Since(String epoch, long sequence, List<RoomEventDTO> events) {
+    }
+
+    private final class RoomLog {
+
+        // Held while sending, which may block; a monitor would pin a virtual thread's carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        private final ArrayDeque<RoomEventDTO> events = new ArrayDeque<>(Math.min(capacity, 64));
+        private long sequence;
+
+        void append(String destination, Object payload) {
+            lock.lock();
+            try {
+                long next = ++sequence;
+                if (events.size() == capacity) {
+                    events.removeFirst();
+                }
+                events.addLast(new RoomEventDTO(next, destination, payload));
+                messagingTemplate.convertAndSend(destination, payload, Map.of(SEQUENCE_HEADER, next, EPOCH_HEADER, epoch));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Since since(String clientEpoch, long clientSequence) {
+            lock.lock();
+            try {
+                long firstKept = events.isEmpty() ? sequence + 1 : events.peekFirst().getSequence();
+                if (!epoch.equals(clientEpoch) || clientSequence > sequence || clientSequence + 1 < firstKept) {
+                    return new Since(epoch, sequence, null);
+                }
+                List<RoomEventDTO> missed = events.stream()
+                        .filter(event -> event.getSequence() > clientSequence)
+                        .toList();
+                return new Since(epoch, sequence, missed);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
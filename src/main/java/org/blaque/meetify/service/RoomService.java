@@ -2,15 +2,23 @@ package org.blaque.meetify.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.LargeRoomProperties;
+import org.blaque.meetify.dto.ParticipantPage;
 import org.blaque.meetify.dto.ParticipantResponse;
 import org.blaque.meetify.dto.RoomResponse;
 import org.blaque.meetify.entity.Participant;
 import org.blaque.meetify.entity.Room;
 import org.blaque.meetify.repository.ParticipantRepository;
 import org.blaque.meetify.repository.RoomRepository;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.blaque.meetify.service.RoomCache.CachedRoom;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -21,109 +29,220 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RoomService {
 
+    private static final int MAX_PARTICIPANT_PAGE_SIZE = 500;
+
     private final RoomRepository roomRepository;
     private final ParticipantRepository participantRepository;
+    private final PresenceRegistry presenceRegistry;
+    private final RoomCache roomCache;
+    private final PresenceWriter presenceWriter;
+    private final DatabaseCallTimers databaseCallTimers;
+    private final EventRecorder eventRecorder;
+    private final RecentChatMessages recentChatMessages;
+    private final LargeRoomProperties largeRoomProperties;
+    private final RoomEventBus roomEventBus;
+
+    /**
+     * Rebuilds the presence registry from the database so that rooms and participants
+     * survive a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadPresence() {
+        mergePresenceFromDatabase();
+        log.info("Loaded presence for {} active rooms and {} connected participants",
+                presenceRegistry.rooms().size(), presenceRegistry.sessionCount());
+    }
+
+    /**
+     * Adds the rooms and participants that other nodes registered while this node's event bus
+     * listener was down and their presence changes were lost. Nothing already known is replaced.
+     */
+    @EventListener(PostgresRoomEventBus.ListenerReconnected.class)
+    @Transactional(readOnly = true)
+    public void reloadPresence() {
+        int known = presenceRegistry.sessionCount();
+        mergePresenceFromDatabase();
+        log.info("Reloaded presence after the event bus reconnected, {} participants added",
+                presenceRegistry.sessionCount() - known);
+    }
+
+    private void mergePresenceFromDatabase() {
+        databaseCallTimers.record("room.load-presence", roomRepository::findByIsActiveTrue)
+                .forEach(this::registerRoom);
+        // Loaded participants have no WebSocket session here and get the reaper's grace period to reconnect
+        Instant loadedAt = Instant.now();
+        databaseCallTimers.record("room.load-presence", participantRepository::findByIsConnectedTrueAndRoomIsActiveTrue)
+                .forEach(participant -> presenceRegistry.findRoom(participant.getRoom().getId())
+                        .filter(room -> presenceRegistry.addParticipantIfAbsent(room, toPresence(participant)))
+                        .ifPresent(room -> presenceRegistry.markDetached(participant.getSessionId(), loadedAt)));
+    }
 
     @Transactional
     public RoomResponse createRoom(String roomName) {
-        Room room = Room.builder()
+        Room newRoom = Room.builder()
                 .roomName(roomName)
                 .isActive(true)
                 .build();
 
-        room = roomRepository.save(room);
-        log.info("Created room: {} with code: {}", room.getRoomName(), room.getRoomCode());
+        // Flushed here rather than at commit so the INSERT is what gets timed
+        Room room = databaseCallTimers.record("room.create", () -> roomRepository.saveAndFlush(newRoom));
+        roomCache.put(room);
+        recentChatMessages.roomCreated(room.getId());
+        eventRecorder.record("room.create", room.getRoomCode(), "roomName", room.getRoomName());
 
-        return mapToRoomResponse(room);
+        return mapToRoomResponse(registerRoom(room));
     }
 
-    @Transactional(readOnly = true)
     public RoomResponse getRoomByCode(String roomCode) {
-        Room room = roomRepository.findByRoomCodeAndIsActiveTrue(roomCode)
-                .orElseThrow(() -> new RuntimeException("Room not found or inactive"));
+        return mapToRoomResponse(resolveRoom(roomCode));
+    }
 
-        return mapToRoomResponse(room);
+    /**
+     * Resolves an active room's id without building the participant list.
+     */
+    public UUID getRoomId(String roomCode) {
+        return presenceRegistry.findRoom(roomCode)
+                .map(RoomPresence::getRoomId)
+                .orElseGet(() -> roomCache.findByCode(roomCode)
+                        .filter(CachedRoom::isActive)
+                        .map(CachedRoom::getId)
+                        .orElseThrow(() -> new RuntimeException("Room not found or inactive")));
+    }
+
+    /**
+     * Like {@link #getRoomId(String)} but also resolves closed rooms, for exports of past meetings.
+     */
+    public UUID getRoomIdIncludingClosed(String roomCode) {
+        return presenceRegistry.findRoom(roomCode)
+                .map(RoomPresence::getRoomId)
+                .orElseGet(() -> roomCache.findByCode(roomCode)
+                        .map(CachedRoom::getId)
+                        .orElseThrow(() -> new RuntimeException("Room not found")));
     }
 
-    @Transactional
     public ParticipantResponse joinRoom(String roomCode, String username, String sessionId) {
-        Room room = roomRepository.findByRoomCodeAndIsActiveTrue(roomCode)
-                .orElseThrow(() -> new RuntimeException("Room not found or inactive"));
+        RoomPresence room = resolveRoom(roomCode);
 
-        Participant participant = Participant.builder()
+        ParticipantPresence participant = ParticipantPresence.builder()
+                .id(UUID.randomUUID())
+                .roomId(room.getRoomId())
                 .username(username)
                 .sessionId(sessionId)
-                .room(room)
-                .isConnected(true)
+                .joinedAt(LocalDateTime.now())
                 .isMuted(false)
                 .isVideoEnabled(true)
                 .build();
 
-        participant = participantRepository.save(participant);
-        log.info("Participant {} joined room {}", username, roomCode);
+        presenceRegistry.addParticipant(room, participant);
+        presenceWriter.participantJoined(participant);
+        roomEventBus.replicate(PresenceChange.joined(room, participant));
+        eventRecorder.record("room.join", roomCode, "sessionId", sessionId, "username", username);
 
         return mapToParticipantResponse(participant);
     }
 
-    @Transactional
     public void leaveRoom(String sessionId) {
-        Participant participant = participantRepository.findBySessionId(sessionId)
+        ParticipantPresence participant = presenceRegistry.removeParticipant(sessionId)
                 .orElseThrow(() -> new RuntimeException("Participant not found"));
 
-        participant.setIsConnected(false);
-        participant.setLeftAt(LocalDateTime.now());
-        participantRepository.save(participant);
+        presenceWriter.participantLeft(sessionId, LocalDateTime.now());
 
-        log.info("Participant {} left room", participant.getUsername());
+        String roomCode = presenceRegistry.findRoom(participant.getRoomId()).map(RoomPresence::getRoomCode).orElse(null);
+        if (roomCode != null) {
+            roomEventBus.replicate(PresenceChange.left(roomCode, List.of(sessionId)));
+        }
+        eventRecorder.record("room.leave", roomCode,
+                "sessionId", sessionId, "username", participant.getUsername());
     }
 
-    @Transactional(readOnly = true)
-    public List<ParticipantResponse> getActiveParticipants(UUID roomId) {
-        return participantRepository.findByRoomIdAndIsConnectedTrue(roomId)
-                .stream()
-                .map(this::mapToParticipantResponse)
-                .collect(Collectors.toList());
+    /**
+     * A page of the room's participants in join order, which is how clients of large rooms
+     * load the list {@link RoomResponse} leaves out. Without {@code after} the page starts at
+     * the earliest participant.
+     */
+    public ParticipantPage getParticipantPage(String roomCode, String after, Integer limit) {
+        RoomPresence room = resolveRoom(roomCode);
+        int pageSize = Math.max(1, Math.min(
+                limit != null ? limit : largeRoomProperties.getParticipantPageSize(), MAX_PARTICIPANT_PAGE_SIZE));
+        ParticipantCursor cursor = after != null ? ParticipantCursor.decode(after) : null;
+
+        // One more than the page tells whether another page follows
+        List<ParticipantPresence> window = room.getParticipantsAfter(cursor, pageSize + 1);
+        boolean hasMore = window.size() > pageSize;
+        List<ParticipantPresence> page = hasMore ? window.subList(0, pageSize) : window;
+
+        return ParticipantPage.builder()
+                .participants(page.stream().map(this::mapToParticipantResponse).toList())
+                .afterCursor(page.isEmpty() ? after : ParticipantCursor.of(page.get(page.size() - 1)).encode())
+                .hasMore(hasMore)
+                .participantCount(room.getParticipantCount())
+                .build();
     }
 
-    @Transactional
-    public void updateParticipantStatus(String sessionId, Boolean isMuted, Boolean isVideoEnabled) {
-        Participant participant = participantRepository.findBySessionId(sessionId)
-                .orElseThrow(() -> new RuntimeException("Participant not found"));
-
-        if (isMuted != null) {
-            participant.setIsMuted(isMuted);
-        }
-        if (isVideoEnabled != null) {
-            participant.setIsVideoEnabled(isVideoEnabled);
-        }
+    /**
+     * Returns the room from the registry, falling back to the room cache only for rooms
+     * the registry has not seen yet.
+     */
+    private RoomPresence resolveRoom(String roomCode) {
+        return presenceRegistry.findRoom(roomCode)
+                .orElseGet(() -> {
+                    CachedRoom room = roomCache.findByCode(roomCode)
+                            .filter(CachedRoom::isActive)
+                            .orElseThrow(() -> new RuntimeException("Room not found or inactive"));
+                    RoomPresence presence = presenceRegistry.registerRoom(
+                            room.getId(), room.getRoomCode(), room.getRoomName(), room.getCreatedAt());
+                    databaseCallTimers.record("room.load-participants",
+                                    () -> participantRepository.findByRoomIdAndIsConnectedTrue(room.getId()))
+                            .forEach(participant -> presenceRegistry.addParticipant(presence, toPresence(participant)));
+                    return presence;
+                });
+    }
 
-        participantRepository.save(participant);
+    private RoomPresence registerRoom(Room room) {
+        return presenceRegistry.registerRoom(room.getId(), room.getRoomCode(), room.getRoomName(), room.getCreatedAt());
     }
 
-    private RoomResponse mapToRoomResponse(Room room) {
-        List<ParticipantResponse> participants = participantRepository
-                .findByRoomIdAndIsConnectedTrue(room.getId())
-                .stream()
-                .map(this::mapToParticipantResponse)
-                .collect(Collectors.toList());
+    private ParticipantPresence toPresence(Participant participant) {
+        return ParticipantPresence.builder()
+                .id(participant.getId())
+                .roomId(participant.getRoom().getId())
+                .username(participant.getUsername())
+                .sessionId(participant.getSessionId())
+                .joinedAt(participant.getJoinedAt())
+                .isMuted(participant.getIsMuted())
+                .isVideoEnabled(participant.getIsVideoEnabled())
+                .build();
+    }
 
+    private RoomResponse mapToRoomResponse(RoomPresence room) {
+        int participantCount = room.getParticipantCount();
+        boolean large = participantCount >= largeRoomProperties.getParticipantThreshold();
         return RoomResponse.builder()
-                .id(room.getId())
+                .id(room.getRoomId())
                 .roomCode(room.getRoomCode())
                 .roomName(room.getRoomName())
                 .createdAt(room.getCreatedAt())
-                .isActive(room.getIsActive())
-                .participants(participants)
+                .isActive(true)
+                .participants(large ? null : mapToParticipantResponses(room))
+                .participantCount(participantCount)
                 .build();
     }
 
-    private ParticipantResponse mapToParticipantResponse(Participant participant) {
+    private List<ParticipantResponse> mapToParticipantResponses(RoomPresence room) {
+        return room.getParticipants()
+                .stream()
+                .map(this::mapToParticipantResponse)
+                .collect(Collectors.toList());
+    }
+
+    private ParticipantResponse mapToParticipantResponse(ParticipantPresence participant) {
         return ParticipantResponse.builder()
                 .id(participant.getId())
                 .username(participant.getUsername())
                 .sessionId(participant.getSessionId())
                 .joinedAt(participant.getJoinedAt())
-                .isConnected(participant.getIsConnected())
+                .isConnected(true)
                 .isMuted(participant.getIsMuted())
                 .isVideoEnabled(participant.getIsVideoEnabled())
                 .build();
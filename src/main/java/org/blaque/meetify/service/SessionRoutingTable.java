@@ -0,0 +1,217 @@
+package org.blaque.meetify.service;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.logging.LogFactory;
+import org.blaque.meetify.config.MessagingMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Maps a participant's REST-issued sessionId to the live WebSocket session that subscribed
+ * to {@code /queue/signal/{sessionId}}, so targeted signals can be handed straight to the
+ * client outbound channel instead of going through the broker's subscription matching.
+ * <p>
+ * The first WebSocket session to subscribe owns a participant's route until it unsubscribes
+ * or disconnects. Later subscriptions from other sessions, such as a client reconnecting
+ * before its old session is noticed gone, wait as standbys and take over in order. Nobody
+ * can take a live participant's signals away by subscribing to their queue.
+ * <p>
+ * A {@link RouteChanged} event is published when a participant becomes routable here and
+ * when its last route goes away, so other nodes can learn where a participant is attached.
+ */
+@Service
+@Slf4j
+public class SessionRoutingTable {
+
+    public static final String SIGNAL_QUEUE_PREFIX = "/queue/signal/";
+
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+    // Only touched under routeLock, like every change to routes; send() reads routes without it
+    private final Map<String, List<Route>> standbys = new HashMap<>();
+    private final ReentrantLock routeLock = new ReentrantLock();
+    private final ConcurrentMap<String, MessageChannel> orderedChannels = new ConcurrentHashMap<>();
+
+    private final MessageChannel clientOutboundChannel;
+    private final MessageConverter messageConverter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SessionRoutingTable(@Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                               SimpMessagingTemplate messagingTemplate,
+                               ApplicationEventPublisher eventPublisher) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.messageConverter = messagingTemplate.getMessageConverter();
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Sends the payload to the participant's signal queue.
+     *
+     * @return {@code false} if no live WebSocket session is subscribed for the participant
+     */
+    public boolean send(String participantSessionId, Object payload) {
+        Route route = routes.get(participantSessionId);
+        if (route == null) {
+            return false;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(route.getWebSocketSessionId());
+        accessor.setSubscriptionId(route.getSubscriptionId());
+        accessor.setDestination(SIGNAL_QUEUE_PREFIX + participantSessionId);
+        accessor.setHeader(MessagingMetrics.PUBLISHED_AT_HEADER, System.nanoTime());
+        accessor.setLeaveMutable(true);
+
+        Message<?> message = messageConverter.toMessage(payload, accessor.getMessageHeaders());
+        if (message == null) {
+            log.warn("No converter for signal payload {}", payload.getClass().getName());
+            return false;
+        }
+        return orderedChannel(route.getWebSocketSessionId()).send(message);
+    }
+
+    public boolean isRoutable(String participantSessionId) {
+        return routes.containsKey(participantSessionId);
+    }
+
+    /**
+     * Participants whose signals are currently routed to the given WebSocket session.
+     */
+    public List<String> participantsOf(String webSocketSessionId) {
+        List<String> participants = new ArrayList<>(1);
+        routes.forEach((participantSessionId, route) -> {
+            if (route.getWebSocketSessionId().equals(webSocketSessionId)) {
+                participants.add(participantSessionId);
+            }
+        });
+        return participants;
+    }
+
+    /**
+     * Participants with a route on this node.
+     */
+    public List<String> routedParticipants() {
+        return new ArrayList<>(routes.keySet());
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(SIGNAL_QUEUE_PREFIX)) {
+            return;
+        }
+        String participantSessionId = destination.substring(SIGNAL_QUEUE_PREFIX.length());
+        Route route = new Route(accessor.getSessionId(), accessor.getSubscriptionId());
+
+        routeLock.lock();
+        try {
+            Route owner = routes.get(participantSessionId);
+            if (owner != null && !owner.getWebSocketSessionId().equals(route.getWebSocketSessionId())) {
+                standbys.computeIfAbsent(participantSessionId, id -> new ArrayList<>(1)).add(route);
+                log.warn("WebSocket session {} subscribed to the signals of participant {}, which session {} "
+                                + "already receives; it takes over only once that session is gone",
+                        route.getWebSocketSessionId(), participantSessionId, owner.getWebSocketSessionId());
+                return;
+            }
+            routes.put(participantSessionId, route);
+        } finally {
+            routeLock.unlock();
+        }
+        log.debug("Routing signals for participant {} to WebSocket session {}",
+                participantSessionId, accessor.getSessionId());
+        eventPublisher.publishEvent(new RouteChanged(participantSessionId, true));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Route unsubscribed = new Route(accessor.getSessionId(), accessor.getSubscriptionId());
+        removeRoutes(unsubscribed::equals);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String webSocketSessionId = event.getSessionId();
+        removeRoutes(route -> route.getWebSocketSessionId().equals(webSocketSessionId));
+        orderedChannels.remove(webSocketSessionId);
+    }
+
+    /**
+     * Drops the matching routes and standbys, handing each participant whose route was dropped
+     * to its oldest remaining standby.
+     */
+    private void removeRoutes(Predicate<Route> gone) {
+        List<String> unroutable = new ArrayList<>(1);
+        routeLock.lock();
+        try {
+            standbys.values().forEach(waiting -> waiting.removeIf(gone));
+            for (Map.Entry<String, Route> entry : routes.entrySet()) {
+                if (!gone.test(entry.getValue())) {
+                    continue;
+                }
+                List<Route> waiting = standbys.get(entry.getKey());
+                if (waiting == null || waiting.isEmpty()) {
+                    routes.remove(entry.getKey());
+                    unroutable.add(entry.getKey());
+                } else {
+                    entry.setValue(waiting.remove(0));
+                    log.debug("Routing signals for participant {} to standby WebSocket session {}",
+                            entry.getKey(), entry.getValue().getWebSocketSessionId());
+                }
+            }
+            standbys.entrySet().removeIf(entry -> entry.getValue().isEmpty() || !routes.containsKey(entry.getKey()));
+        } finally {
+            routeLock.unlock();
+        }
+        unroutable.forEach(participantSessionId -> eventPublisher.publishEvent(new RouteChanged(participantSessionId, false)));
+    }
+
+    /**
+     * One ordering decorator per WebSocket session, so signals to the same client leave the
+     * executor-backed outbound channel in the order they were sent. The decorator sends a
+     * session's next message once the channel reports the previous one handled, which only
+     * the interceptor {@code setPreservePublishOrder(true)} in {@code WebSocketConfig} installs
+     * on the outbound channel does; without it every session would stall after one signal.
+     */
+    private MessageChannel orderedChannel(String webSocketSessionId) {
+        return orderedChannels.computeIfAbsent(webSocketSessionId,
+                id -> new OrderedMessageChannelDecorator(clientOutboundChannel, LogFactory.getLog(SessionRoutingTable.class)));
+    }
+
+    public record RouteChanged(String participantSessionId, boolean routable) {
+    }
+
+    @Value
+    static class Route {
+
+        String webSocketSessionId;
+        String subscriptionId;
+    }
+}
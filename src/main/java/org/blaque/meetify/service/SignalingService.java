@@ -0,0 +1,77 @@
+package org.blaque.meetify.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.SignalingProperties;
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Relays WebRTC signals to their target participant, or to the whole room when no
+ * target is given, optionally coalescing trickle ICE candidates. Both go through the
+ * {@link RoomEventBus}, which reaches participants connected to other nodes.
+ */
+@Service
+@Slf4j
+public class SignalingService {
+
+    static final String TARGET_UNAVAILABLE = "target-unavailable";
+
+    private final RoomEventBus roomEventBus;
+    private final IceCandidateCoalescer iceCandidateCoalescer;
+
+    public SignalingService(RoomEventBus roomEventBus,
+                            SignalingProperties properties,
+                            @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.roomEventBus = roomEventBus;
+
+        SignalingProperties.IceCoalescing coalescing = properties.getIceCoalescing();
+        this.iceCandidateCoalescer = coalescing.isEnabled()
+                ? new IceCandidateCoalescer(taskScheduler, coalescing.getWindow(), coalescing.getMaxBatchSize(), this::deliver)
+                : null;
+    }
+
+    public void relay(String roomCode, WebRTCSignalDTO signal) {
+        if (iceCandidateCoalescer != null) {
+            iceCandidateCoalescer.submit(roomCode, signal);
+        } else {
+            deliver(roomCode, signal);
+        }
+    }
+
+    private void deliver(String roomCode, WebRTCSignalDTO signal) {
+        if (signal.getTargetSessionId() != null && !signal.getTargetSessionId().isEmpty()) {
+            if (!roomEventBus.sendToParticipant(roomCode, signal.getTargetSessionId(), signal)) {
+                reportUndeliverable(roomCode, signal);
+            }
+        } else {
+            roomEventBus.publish(
+                    roomCode,
+                    "/topic/room/" + roomCode + "/signal",
+                    signal
+            );
+        }
+    }
+
+    /**
+     * Tells the sender that its target has no live WebSocket session, so the client can
+     * stop retrying offers or tear down the peer connection.
+     */
+    private void reportUndeliverable(String roomCode, WebRTCSignalDTO signal) {
+        log.debug("Signal {} from {} to unknown session {}",
+                signal.getType(), signal.getSenderSessionId(), signal.getTargetSessionId());
+
+        if (signal.getSenderSessionId() == null) {
+            return;
+        }
+        WebRTCSignalDTO notice = WebRTCSignalDTO.builder()
+                .type(TARGET_UNAVAILABLE)
+                .senderSessionId(signal.getTargetSessionId())
+                .targetSessionId(signal.getSenderSessionId())
+                .data(RawJson.of("{\"type\":" + RawJson.quoted(signal.getType()) + "}"))
+                .build();
+        roomEventBus.sendToParticipant(roomCode, signal.getSenderSessionId(), notice);
+    }
+}
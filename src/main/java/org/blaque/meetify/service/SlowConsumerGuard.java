@@ -0,0 +1,151 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.blaque.meetify.config.WebSocketProperties;
+import org.blaque.meetify.service.OutboundFrame.Kind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts an {@link OutboundQueueSession} under every STOMP WebSocket session, so one participant
+ * on a bad connection is shed or disconnected instead of backing up the outbound channel
+ * for everyone. Drops are counted in {@code meetify.websocket.outbound.dropped} by message
+ * kind and reason, disconnects in {@code meetify.websocket.outbound.disconnects} by reason,
+ * and the time written frames spent queued in {@code meetify.websocket.outbound.wait} by kind.
+ */
+@Component
+@Slf4j
+public class SlowConsumerGuard implements WebSocketHandlerDecoratorFactory {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    private static final String PARTICIPANT_SUFFIX = "/participant";
+
+    private final PresenceRegistry presenceRegistry;
+    private final ObjectProvider<ParticipantStatusAggregator> participantStatusAggregator;
+    private final ObjectMapper objectMapper;
+    private final WebSocketProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    // Drain tasks spend their time blocked on slow sockets, which is what virtual threads are for
+    private final Executor drainExecutor = new VirtualThreadTaskExecutor("ws-outbound-");
+    private final ConcurrentMap<String, OutboundQueueSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Kind, Timer> waitTimers = new EnumMap<>(Kind.class);
+    private final OutboundQueueSession.Policy policy = new Policy();
+
+    public SlowConsumerGuard(PresenceRegistry presenceRegistry,
+                             ObjectProvider<ParticipantStatusAggregator> participantStatusAggregator,
+                             ObjectMapper objectMapper,
+                             WebSocketProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.presenceRegistry = presenceRegistry;
+        this.participantStatusAggregator = participantStatusAggregator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("meetify.websocket.outbound.queued", sessions,
+                        queues -> queues.values().stream().mapToLong(OutboundQueueSession::getQueuedBytes).sum())
+                .description("Bytes waiting in per-session outbound queues")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        for (Kind kind : Kind.values()) {
+            waitTimers.put(kind, Timer.builder("meetify.websocket.outbound.wait")
+                    .description("Time a frame waited in its session's outbound queue before being written")
+                    .tag("kind", kind.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                OutboundQueueSession queued = new OutboundQueueSession(session, policy, drainExecutor,
+                        properties.getSlowConsumer().getBudget().toBytes(),
+                        properties.getSendBufferSizeLimit().toBytes(),
+                        properties.getSlowConsumer().getOverBudgetTimeout().toNanos(),
+                        properties.getSendTimeLimit().toNanos());
+                sessions.put(session.getId(), queued);
+                // The STOMP handler keeps this session for sending; later callbacks find it by id
+                super.afterConnectionEstablished(queued);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                OutboundQueueSession queued = sessions.remove(session.getId());
+                if (queued != null) {
+                    queued.discard();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private Counter counter(String name, String... tags) {
+        return counters.computeIfAbsent(name + String.join("/", tags),
+                key -> Counter.builder(name).tags(tags).register(meterRegistry));
+    }
+
+    private class Policy implements OutboundQueueSession.Policy {
+
+        @Override
+        public boolean isPeerGone(String senderSessionId) {
+            return senderSessionId != null && presenceRegistry.hasLeft(senderSessionId);
+        }
+
+        @Override
+        public String statusSnapshot(String destination) {
+            if (!destination.startsWith(ROOM_TOPIC_PREFIX) || !destination.endsWith(PARTICIPANT_SUFFIX)) {
+                return null;
+            }
+            String roomCode = destination.substring(ROOM_TOPIC_PREFIX.length(),
+                    destination.length() - PARTICIPANT_SUFFIX.length());
+            return participantStatusAggregator.getObject().snapshot(roomCode)
+                    .map(snapshot -> {
+                        try {
+                            return objectMapper.writeValueAsString(snapshot);
+                        } catch (JsonProcessingException e) {
+                            log.error("Failed to encode status snapshot of room {}", roomCode, e);
+                            return null;
+                        }
+                    })
+                    .orElse(null);
+        }
+
+        @Override
+        public void dropped(Kind kind, String reason) {
+            counter("meetify.websocket.outbound.dropped", "kind", kind.tag(), "reason", reason).increment();
+        }
+
+        @Override
+        public void written(Kind kind, long queuedNanos) {
+            waitTimers.get(kind).record(queuedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void disconnected(String reason) {
+            counter("meetify.websocket.outbound.disconnects", "reason", reason).increment();
+        }
+    }
+}
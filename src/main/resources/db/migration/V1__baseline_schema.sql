@@ -0,0 +1,42 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE rooms
+(
+    id         uuid         NOT NULL,
+    room_code  varchar(255) NOT NULL,
+    room_name  varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    closed_at  timestamp(6),
+    is_active  boolean      NOT NULL,
+    CONSTRAINT rooms_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_rooms_room_code UNIQUE (room_code)
+);
+
+CREATE TABLE participants
+(
+    id               uuid         NOT NULL,
+    room_id          uuid         NOT NULL,
+    username         varchar(255) NOT NULL,
+    session_id       varchar(255) NOT NULL,
+    joined_at        timestamp(6) NOT NULL,
+    left_at          timestamp(6),
+    is_connected     boolean      NOT NULL,
+    is_muted         boolean      NOT NULL,
+    is_video_enabled boolean      NOT NULL,
+    CONSTRAINT participants_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_participants_session_id UNIQUE (session_id),
+    CONSTRAINT fk_participants_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+
+CREATE TABLE chat_messages
+(
+    id                uuid          NOT NULL,
+    room_id           uuid          NOT NULL,
+    sender_username   varchar(255)  NOT NULL,
+    sender_session_id varchar(255)  NOT NULL,
+    message           varchar(2000) NOT NULL,
+    sent_at           timestamp(6)  NOT NULL,
+    CONSTRAINT chat_messages_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_chat_messages_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
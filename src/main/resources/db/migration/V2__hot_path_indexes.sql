@@ -0,0 +1,11 @@
+-- Chat history pages and transcript export: WHERE room_id = ? ORDER BY sent_at, id
+CREATE INDEX idx_chat_messages_room_sent_at ON chat_messages (room_id, sent_at, id);
+
+-- Connected participants of a room (presence rebuild, resolving a room on a registry miss)
+CREATE INDEX idx_participants_room_connected ON participants (room_id) WHERE is_connected;
+
+-- Idle room reaper: recent leaves per room
+CREATE INDEX idx_participants_room_left_at ON participants (room_id, left_at);
+
+-- Active rooms by age (presence rebuild, idle room reaper); lookups by code use uk_rooms_room_code
+CREATE INDEX idx_rooms_active_created_at ON rooms (created_at) WHERE is_active;
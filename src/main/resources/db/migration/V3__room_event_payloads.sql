@@ -0,0 +1,10 @@
+-- Room events too large for a NOTIFY payload, passed between nodes by reference
+CREATE TABLE IF NOT EXISTS room_event_payloads
+(
+    id         uuid      NOT NULL,
+    payload    text      NOT NULL,
+    created_at timestamp NOT NULL DEFAULT now(),
+    CONSTRAINT room_event_payloads_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_room_event_payloads_created_at ON room_event_payloads (created_at);
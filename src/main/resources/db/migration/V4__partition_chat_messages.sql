@@ -0,0 +1,48 @@
+-- Range-partition chat_messages by month of sent_at. Old months are exported to archive
+-- segments and dropped by ChatPartitionMaintainer; the default partition only catches rows
+-- for months whose partition has not been created yet.
+
+ALTER TABLE chat_messages RENAME TO chat_messages_unpartitioned;
+ALTER INDEX idx_chat_messages_room_sent_at RENAME TO idx_chat_messages_unpartitioned_room_sent_at;
+ALTER TABLE chat_messages_unpartitioned RENAME CONSTRAINT chat_messages_pkey TO chat_messages_unpartitioned_pkey;
+
+CREATE TABLE chat_messages
+(
+    id                uuid          NOT NULL,
+    room_id           uuid          NOT NULL,
+    sender_username   varchar(255)  NOT NULL,
+    sender_session_id varchar(255)  NOT NULL,
+    message           varchar(2000) NOT NULL,
+    sent_at           timestamp(6)  NOT NULL,
+    -- The partition key must be part of every unique constraint
+    CONSTRAINT chat_messages_pkey PRIMARY KEY (id, sent_at),
+    CONSTRAINT fk_chat_messages_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+) PARTITION BY RANGE (sent_at);
+
+CREATE INDEX idx_chat_messages_room_sent_at ON chat_messages (room_id, sent_at, id);
+
+CREATE TABLE chat_messages_default PARTITION OF chat_messages DEFAULT;
+
+DO
+$$
+    DECLARE
+        first_month date := coalesce((SELECT date_trunc('month', min(sent_at)) FROM chat_messages_unpartitioned),
+                                     date_trunc('month', now()));
+        last_month  date := date_trunc('month', now()) + interval '2 months';
+        month       date;
+    BEGIN
+        month := first_month;
+        WHILE month <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF chat_messages FOR VALUES FROM (%L) TO (%L)',
+                               'chat_messages_' || to_char(month, 'YYYYMM'), month, month + interval '1 month');
+                month := month + interval '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO chat_messages (id, room_id, sender_username, sender_session_id, message, sent_at)
+SELECT id, room_id, sender_username, sender_session_id, message, sent_at
+FROM chat_messages_unpartitioned;
+
+DROP TABLE chat_messages_unpartitioned;
@@ -0,0 +1,7 @@
+-- Full-text search over chat messages. The 'simple' configuration lowercases words without
+-- stemming or stop words, since rooms mix languages; queries must use the same expression.
+-- fastupdate collects new entries in a pending list that is merged in bulk by autovacuum,
+-- so the write-behind batch inserts do not pay for a GIN tree update per row.
+CREATE INDEX idx_chat_messages_message_fts ON chat_messages
+    USING gin (to_tsvector('simple', message))
+    WITH (fastupdate = on, gin_pending_list_limit = 4096);
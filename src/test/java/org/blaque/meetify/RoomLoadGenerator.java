@@ -0,0 +1,738 @@
+package org.blaque.meetify;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.dto.CreateRoomRequest;
+import org.blaque.meetify.dto.JoinRoomRequest;
+import org.blaque.meetify.dto.ParticipantResponse;
+import org.blaque.meetify.dto.RoomResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Synthetic production-like load: {@code meetify.load.rooms} rooms are created and joined by
+ * {@code meetify.load.clients} participants each through {@code RoomController}, and every
+ * participant holds a STOMP session that behaves like the frontend's. On joining it announces
+ * itself on {@code /app/participant/{roomCode}/join} and negotiates with every peer already
+ * in the room (targeted offer, answer and ICE candidates over {@code /app/signal}). Then, for
+ * {@code meetify.load.duration}, each participant chats, toggles its mute state and
+ * renegotiates with a random peer, each at exponentially distributed intervals around the
+ * configured means.
+ * <p>
+ * Chat messages and signals carry their send time, so the time until each copy reaches a
+ * subscriber is the fan-out latency. The run reports its percentiles, messages sent and
+ * delivered per second, and database write rates from {@code pg_stat_database}, which counts
+ * everything the application writes. The results are written as JSON to
+ * {@code meetify.load.output} (default {@code build/load-test}) for comparing runs.
+ * <p>
+ * Not part of {@code test}; run with {@code ./gradlew loadTest} against the local database,
+ * e.g. {@code ./gradlew loadTest -Pmeetify.load.rooms=50 -Pmeetify.load.clients=6}. Any
+ * {@code -Pspring.*} or {@code -Pmeetify.*} property is passed to the application, so another
+ * database or configuration can be tried the same way.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomLoadGenerator {
+
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(2);
+    private static final String OFFER_SDP = offerSdp();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${meetify.load.rooms:20}")
+    private int roomCount;
+
+    @Value("${meetify.load.clients:8}")
+    private int clientsPerRoom;
+
+    @Value("${meetify.load.duration:60s}")
+    private Duration duration;
+
+    @Value("${meetify.load.chat-interval:10s}")
+    private Duration chatInterval;
+
+    @Value("${meetify.load.status-interval:15s}")
+    private Duration statusInterval;
+
+    @Value("${meetify.load.renegotiate-interval:30s}")
+    private Duration renegotiateInterval;
+
+    @Value("${meetify.load.ice-candidates:4}")
+    private int iceCandidatesPerOffer;
+
+    /**
+     * {@code native} for {@code /ws-native}, {@code sockjs} for {@code /ws}.
+     */
+    @Value("${meetify.load.transport:native}")
+    private String transport;
+
+    @Value("${meetify.load.output:build/load-test}")
+    private String outputDirectory;
+
+    // Recorded with the results, so runs in different execution modes can be told apart
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${meetify.execution.dispatch:pool}")
+    private String dispatch;
+
+    @Value("${meetify.execution.room-lanes:16}")
+    private int roomLanes;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int datasourcePoolSize;
+
+    @Value("${meetify.event-bus.type:in-process}")
+    private String eventBusType;
+
+    private final TrafficStats stats = new TrafficStats();
+    private final ScheduledExecutorService traffic =
+            Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+
+    private volatile boolean running;
+    private volatile boolean closing;
+
+    @Test
+    void roomsUnderSyntheticLoad() throws Exception {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.initialize();
+        WebSocketStompClient stompClient = stompClient(heartbeatScheduler);
+        List<LoadRoom> rooms = new ArrayList<>();
+        try {
+            long joinStart = System.nanoTime();
+            joinAll(rooms, stompClient);
+            Duration joinPhase = Duration.ofNanos(System.nanoTime() - joinStart);
+            // Let the join-time negotiation finish before measuring
+            Thread.sleep(SETTLE_TIME.toMillis());
+
+            DatabaseSnapshot databaseBefore = DatabaseSnapshot.take(jdbcTemplate);
+            double persistedBefore = persistedChatMessages();
+            stats.measuring = true;
+            running = true;
+            long start = System.nanoTime();
+            for (LoadRoom room : rooms) {
+                for (LoadClient client : room.clients) {
+                    every(chatInterval, client::chat);
+                    every(statusInterval, client::toggleStatus);
+                    every(renegotiateInterval, client::renegotiate);
+                }
+            }
+            Thread.sleep(duration.toMillis());
+            running = false;
+            Duration measured = Duration.ofNanos(System.nanoTime() - start);
+
+            // Deliveries still in flight are counted, then the write-behind queue is drained
+            Thread.sleep(SETTLE_TIME.toMillis());
+            stats.measuring = false;
+            awaitChatPersisted();
+            // Backends publish their statistics within a second of going idle
+            Thread.sleep(SETTLE_TIME.toMillis());
+            DatabaseSnapshot databaseAfter = DatabaseSnapshot.take(jdbcTemplate);
+
+            Map<String, Object> results = results(joinPhase, measured,
+                    databaseAfter.minus(databaseBefore), persistedChatMessages() - persistedBefore);
+            Path file = write(results);
+            print(results, file);
+
+            assertThat(stats.delivered(Traffic.CHAT)).as("chat deliveries").isPositive();
+            assertThat(stats.errors.sum()).as("STOMP errors").isZero();
+        } finally {
+            running = false;
+            closing = true;
+            leaveAll(rooms);
+            traffic.shutdownNow();
+            stompClient.stop();
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    private WebSocketStompClient stompClient(ThreadPoolTaskScheduler heartbeatScheduler) {
+        WebSocketClient webSocketClient = "sockjs".equals(transport)
+                ? new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())))
+                : new StandardWebSocketClient();
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new StringMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                // Frames are JSON, handled here as plain strings
+                return true;
+            }
+        });
+        stompClient.setTaskScheduler(heartbeatScheduler);
+        // Receive the server's heartbeats but send none, so they never race our own sends
+        stompClient.setDefaultHeartbeat(new long[]{0, 10_000});
+        return stompClient;
+    }
+
+    private String endpoint() {
+        return "sockjs".equals(transport)
+                ? "http://localhost:" + port + "/ws"
+                : "ws://localhost:" + port + "/ws-native";
+    }
+
+    /**
+     * Rooms fill in parallel, participants within a room one after another, so each
+     * newcomer negotiates with everyone who joined before it.
+     */
+    private void joinAll(List<LoadRoom> rooms, WebSocketStompClient stompClient) throws Exception {
+        for (int i = 0; i < roomCount; i++) {
+            RoomResponse room = restTemplate.postForObject(
+                    "/api/rooms", new CreateRoomRequest("Load room " + i), RoomResponse.class);
+            rooms.add(new LoadRoom(room.getRoomCode(), room.getId().toString()));
+        }
+
+        try (ExecutorService joiners = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> joins = new ArrayList<>();
+            for (LoadRoom room : rooms) {
+                joins.add(joiners.submit(() -> {
+                    for (int i = 0; i < clientsPerRoom; i++) {
+                        join(room, i, stompClient);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> join : joins) {
+                join.get();
+            }
+        }
+    }
+
+    private void join(LoadRoom room, int index, WebSocketStompClient stompClient) throws Exception {
+        String username = "load-" + room.code + "-" + index;
+        long start = System.nanoTime();
+        ParticipantResponse participant = restTemplate.postForObject(
+                "/api/rooms/join", new JoinRoomRequest(room.code, username), ParticipantResponse.class);
+        stats.restJoin.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        LoadClient client = new LoadClient(room, username, participant.getSessionId());
+        client.session = stompClient.connectAsync(endpoint(), new StompSessionHandlerAdapter() {
+            @Override
+            public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                        byte[] payload, Throwable exception) {
+                stats.errors.increment();
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                if (!closing) {
+                    stats.errors.increment();
+                }
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        client.subscribe("/topic/room/" + room.code + "/signal", payload -> stats.delivered(Traffic.SIGNAL, 0));
+        client.subscribe("/queue/signal/" + client.sessionId, client::onSignal);
+        client.subscribe("/topic/room/" + room.code + "/chat", client::onChat);
+        client.subscribe("/topic/room/" + room.code + "/participant",
+                payload -> stats.delivered(Traffic.PARTICIPANT, 0));
+
+        client.send(Traffic.PARTICIPANT, "/app/participant/" + room.code + "/join",
+                Map.of("username", username, "sessionId", client.sessionId));
+        for (LoadClient peer : room.clients) {
+            client.offer(peer.sessionId);
+        }
+        room.clients.add(client);
+    }
+
+    private void leaveAll(List<LoadRoom> rooms) {
+        for (LoadRoom room : rooms) {
+            for (LoadClient client : room.clients) {
+                try {
+                    client.send(Traffic.PARTICIPANT, "/app/participant/" + room.code + "/leave",
+                            Map.of("username", client.username, "sessionId", client.sessionId));
+                    restTemplate.postForObject("/api/rooms/leave/" + client.sessionId, null, Void.class);
+                    client.session.disconnect();
+                } catch (RuntimeException e) {
+                    // Best effort; the presence reaper cleans up anything left behind
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} at exponentially distributed intervals with the given mean until
+     * the measured window closes.
+     */
+    private void every(Duration mean, Runnable action) {
+        if (mean.isZero() || !running) {
+            return;
+        }
+        long delay = (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean.toNanos());
+        traffic.schedule(() -> {
+            if (!running) {
+                return;
+            }
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                stats.errors.increment();
+            }
+            every(mean, action);
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void awaitChatPersisted() throws InterruptedException {
+        Gauge depth = meterRegistry.find("meetify.chat.persistence.queue.depth").gauge();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (depth != null && depth.value() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private double persistedChatMessages() {
+        Counter persisted = meterRegistry.find("meetify.chat.persistence.messages")
+                .tag("outcome", "persisted")
+                .counter();
+        return persisted == null ? 0 : persisted.count();
+    }
+
+    private Map<String, Object> results(Duration joinPhase, Duration measured,
+                                        DatabaseSnapshot database, double chatMessagesPersisted) {
+        double seconds = measured.toNanos() / 1e9;
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rooms", roomCount);
+        config.put("clientsPerRoom", clientsPerRoom);
+        config.put("transport", transport);
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("chatIntervalMs", chatInterval.toMillis());
+        config.put("statusIntervalMs", statusInterval.toMillis());
+        config.put("renegotiateIntervalMs", renegotiateInterval.toMillis());
+        config.put("iceCandidatesPerOffer", iceCandidatesPerOffer);
+        config.put("virtualThreads", virtualThreads);
+        config.put("dispatch", dispatch);
+        config.put("roomLanes", roomLanes);
+        config.put("datasourcePoolSize", datasourcePoolSize);
+        config.put("eventBus", eventBusType);
+
+        Map<String, Object> join = new LinkedHashMap<>();
+        join.put("seconds", joinPhase.toMillis() / 1e3);
+        join.put("restJoinMs", latency(stats.restJoin));
+
+        Map<String, Object> sent = new LinkedHashMap<>();
+        Map<String, Object> delivered = new LinkedHashMap<>();
+        long sentTotal = 0;
+        long deliveredTotal = 0;
+        for (Traffic kind : Traffic.values()) {
+            sent.put(kind.key(), stats.sent(kind));
+            delivered.put(kind.key(), stats.delivered(kind));
+            sentTotal += stats.sent(kind);
+            deliveredTotal += stats.delivered(kind);
+        }
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("sent", sent);
+        throughput.put("delivered", delivered);
+        throughput.put("sentPerSecond", sentTotal / seconds);
+        throughput.put("deliveredPerSecond", deliveredTotal / seconds);
+        long expectedChat = stats.expectedChatDeliveries.sum();
+        throughput.put("chatDeliveryRatio", expectedChat == 0 ? 1.0 : (double) stats.delivered(Traffic.CHAT) / expectedChat);
+
+        Map<String, Object> fanOut = new LinkedHashMap<>();
+        fanOut.put("chat", latency(stats.latency.get(Traffic.CHAT)));
+        fanOut.put("signal", latency(stats.latency.get(Traffic.SIGNAL)));
+
+        Map<String, Object> writes = new LinkedHashMap<>();
+        writes.put("commitsPerSecond", database.commits() / seconds);
+        writes.put("rowsInsertedPerSecond", database.inserted() / seconds);
+        writes.put("rowsUpdatedPerSecond", database.updated() / seconds);
+        writes.put("rowsDeletedPerSecond", database.deleted() / seconds);
+        writes.put("chatMessagesPersistedPerSecond", chatMessagesPersisted / seconds);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("finishedAt", Instant.now().toString());
+        results.put("config", config);
+        results.put("joinPhase", join);
+        results.put("measuredSeconds", seconds);
+        results.put("throughput", throughput);
+        results.put("fanOutLatencyMs", fanOut);
+        results.put("database", writes);
+        results.put("errors", stats.errors.sum());
+        return results;
+    }
+
+    private static Map<String, Object> latency(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", snapshot.count());
+        latency.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            latency.put("p" + percentileLabel(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        latency.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        return latency;
+    }
+
+    private static String percentileLabel(double percentile) {
+        // 0.5 -> 50, 0.99 -> 99, 0.999 -> 999
+        String digits = Double.toString(percentile).substring(2);
+        return digits.length() == 1 ? digits + "0" : digits;
+    }
+
+    private Path write(Map<String, Object> results) throws IOException {
+        Path directory = Path.of(outputDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("load-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+        return file;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> results, Path file) {
+        Map<String, Object> throughput = (Map<String, Object>) results.get("throughput");
+        Map<String, Object> fanOut = (Map<String, Object>) results.get("fanOutLatencyMs");
+        Map<String, Object> database = (Map<String, Object>) results.get("database");
+        System.out.printf("%nLoad: %s%n", results.get("config"));
+        System.out.printf("sent %s, delivered %s%n", throughput.get("sent"), throughput.get("delivered"));
+        System.out.printf("%.0f msg/s sent, %.0f msg/s delivered, chat delivery ratio %.4f%n",
+                throughput.get("sentPerSecond"), throughput.get("deliveredPerSecond"),
+                throughput.get("chatDeliveryRatio"));
+        System.out.printf("fan-out latency ms: chat %s%n                    signal %s%n",
+                fanOut.get("chat"), fanOut.get("signal"));
+        System.out.printf("database: %s%n", database);
+        System.out.printf("errors: %s%nresults: %s%n", results.get("errors"), file.toAbsolutePath());
+    }
+
+    /**
+     * A browser-like offer with one audio and one video section, about 1.5 KB.
+     */
+    private static String offerSdp() {
+        StringBuilder sdp = new StringBuilder("v=0\r\no=- 4611731400430051336 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n")
+                .append("a=group:BUNDLE 0 1\r\na=msid-semantic: WMS stream\r\n");
+        String[][] sections = {
+                {"audio", "111 opus/48000/2", "9 G722/8000", "0 PCMU/8000", "110 telephone-event/48000"},
+                {"video", "96 VP8/90000", "97 rtx/90000", "98 VP9/90000", "100 H264/90000", "45 AV1/90000"}};
+        for (int mid = 0; mid < sections.length; mid++) {
+            sdp.append("m=").append(sections[mid][0]).append(" 9 UDP/TLS/RTP/SAVPF\r\nc=IN IP4 0.0.0.0\r\n")
+                    .append("a=ice-ufrag:Kx9f\r\na=ice-pwd:0n3rVXzP1wbE6eYkT0q2aL8j\r\na=ice-options:trickle\r\n")
+                    .append("a=fingerprint:sha-256 4A:AD:B9:B1:3F:82:18:3B:54:02:12:DF:3E:5D:49:6B:19:E5:7C:AB:3B:6A:1F:4E:2C:99:08:7A:D3:5D:8F:1C\r\n")
+                    .append("a=setup:actpass\r\na=mid:").append(mid).append("\r\na=sendrecv\r\na=rtcp-mux\r\n");
+            for (int c = 1; c < sections[mid].length; c++) {
+                sdp.append("a=rtpmap:").append(sections[mid][c]).append("\r\n");
+            }
+        }
+        return sdp.toString();
+    }
+
+    private enum Traffic {
+        CHAT, SIGNAL, STATUS, PARTICIPANT;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Counters and fan-out latency for the measured window only.
+     */
+    private static final class TrafficStats {
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final Map<Traffic, LongAdder> sent = new EnumMap<>(Traffic.class);
+        private final Map<Traffic, LongAdder> delivered = new EnumMap<>(Traffic.class);
+        private final Map<Traffic, Timer> latency = new EnumMap<>(Traffic.class);
+        private final LongAdder expectedChatDeliveries = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Timer restJoin = timer("rest-join");
+
+        private volatile boolean measuring;
+
+        TrafficStats() {
+            for (Traffic kind : Traffic.values()) {
+                sent.put(kind, new LongAdder());
+                delivered.put(kind, new LongAdder());
+                latency.put(kind, timer(kind.key()));
+            }
+        }
+
+        private Timer timer(String name) {
+            // One bucket that outlives the run, so the percentiles cover all of it
+            return Timer.builder("load.latency")
+                    .tag("kind", name)
+                    .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                    .percentilePrecision(2)
+                    .distributionStatisticExpiry(Duration.ofDays(1))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry);
+        }
+
+        void sent(Traffic kind, int expectedDeliveries) {
+            if (measuring) {
+                sent.get(kind).increment();
+                if (kind == Traffic.CHAT) {
+                    expectedChatDeliveries.add(expectedDeliveries);
+                }
+            }
+        }
+
+        /**
+         * @param sentAt {@link System#nanoTime()} the message was sent at, or 0 if unknown
+         */
+        void delivered(Traffic kind, long sentAt) {
+            if (measuring) {
+                delivered.get(kind).increment();
+                if (sentAt != 0) {
+                    latency.get(kind).record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        long sent(Traffic kind) {
+            return sent.get(kind).sum();
+        }
+
+        long delivered(Traffic kind) {
+            return delivered.get(kind).sum();
+        }
+    }
+
+    private record DatabaseSnapshot(long commits, long inserted, long updated, long deleted) {
+
+        static DatabaseSnapshot take(JdbcTemplate jdbcTemplate) {
+            return jdbcTemplate.queryForObject("""
+                            SELECT xact_commit, tup_inserted, tup_updated, tup_deleted
+                            FROM pg_stat_database
+                            WHERE datname = current_database()
+                            """,
+                    (rs, rowNum) -> new DatabaseSnapshot(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+        }
+
+        DatabaseSnapshot minus(DatabaseSnapshot before) {
+            return new DatabaseSnapshot(commits - before.commits, inserted - before.inserted,
+                    updated - before.updated, deleted - before.deleted);
+        }
+    }
+
+    private static final class LoadRoom {
+
+        private final String code;
+        private final String id;
+        private final List<LoadClient> clients = new CopyOnWriteArrayList<>();
+
+        LoadRoom(String code, String id) {
+            this.code = code;
+            this.id = id;
+        }
+    }
+
+    /**
+     * One participant's STOMP session, sending what the frontend sends.
+     */
+    private final class LoadClient {
+
+        private final LoadRoom room;
+        private final String username;
+        private final String sessionId;
+        private final AtomicLong chatSequence = new AtomicLong();
+        // A STOMP session must not be written to by two threads at once
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private volatile boolean muted;
+        private StompSession session;
+
+        LoadClient(LoadRoom room, String username, String sessionId) {
+            this.room = room;
+            this.username = username;
+            this.sessionId = sessionId;
+        }
+
+        void subscribe(String destination, Consumer<String> handler) {
+            session.subscribe(destination, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return String.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    handler.accept((String) payload);
+                }
+            });
+        }
+
+        void chat() {
+            long sentAt = System.nanoTime();
+            stats.sent(Traffic.CHAT, room.clients.size());
+            write("/app/chat/" + room.code, Map.of(
+                    "roomId", room.id,
+                    "senderUsername", username,
+                    "senderSessionId", sessionId,
+                    "message", "Message " + chatSequence.incrementAndGet() + " from " + username + " #" + sentAt));
+        }
+
+        void toggleStatus() {
+            muted = !muted;
+            send(Traffic.STATUS, "/app/participant/" + room.code + "/status", Map.of(
+                    "sessionId", sessionId,
+                    "username", username,
+                    "isMuted", muted,
+                    "isVideoEnabled", true));
+        }
+
+        void renegotiate() {
+            List<LoadClient> peers = room.clients;
+            if (peers.size() < 2) {
+                return;
+            }
+            LoadClient peer = peers.get(ThreadLocalRandom.current().nextInt(peers.size()));
+            if (peer != this) {
+                offer(peer.sessionId);
+            }
+        }
+
+        void offer(String peerSessionId) {
+            signal(peerSessionId, "offer", Map.of("type", "offer", "sdp", OFFER_SDP, "sentAt", System.nanoTime()));
+            candidates(peerSessionId);
+        }
+
+        void onSignal(String payload) {
+            JsonNode signal = readTree(payload);
+            JsonNode data = signal.path("data");
+            // ICE candidates arrive as an array when the server coalesces them
+            if (data.isArray()) {
+                data.forEach(candidate -> stats.delivered(Traffic.SIGNAL, candidate.path("sentAt").asLong()));
+            } else {
+                stats.delivered(Traffic.SIGNAL, data.path("sentAt").asLong());
+            }
+
+            if ("offer".equals(signal.path("type").asText())) {
+                String peerSessionId = signal.path("senderSessionId").asText();
+                // Answer off the receiving thread, as a browser would after setRemoteDescription
+                try {
+                    traffic.execute(() -> {
+                        signal(peerSessionId, "answer",
+                                Map.of("type", "answer", "sdp", OFFER_SDP, "sentAt", System.nanoTime()));
+                        candidates(peerSessionId);
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                }
+            }
+        }
+
+        void onChat(String payload) {
+            String message = readTree(payload).path("message").asText();
+            int stamp = message.lastIndexOf('#');
+            stats.delivered(Traffic.CHAT, stamp < 0 ? 0 : Long.parseLong(message.substring(stamp + 1)));
+        }
+
+        private void candidates(String peerSessionId) {
+            for (int i = 0; i < iceCandidatesPerOffer; i++) {
+                signal(peerSessionId, "ice-candidate", Map.of(
+                        "candidate", "candidate:2713480271 1 udp 1686052607 203.0.113.45 " + (52000 + i)
+                                + " typ srflx raddr 192.168.1.23 rport " + (52000 + i) + " generation 0",
+                        "sdpMid", "0",
+                        "sdpMLineIndex", 0,
+                        "sentAt", System.nanoTime()));
+            }
+        }
+
+        private void signal(String peerSessionId, String type, Map<String, Object> data) {
+            send(Traffic.SIGNAL, "/app/signal/" + room.code, Map.of(
+                    "type", type,
+                    "senderSessionId", sessionId,
+                    "targetSessionId", peerSessionId,
+                    "data", data));
+        }
+
+        void send(Traffic kind, String destination, Map<String, Object> payload) {
+            stats.sent(kind, 0);
+            write(destination, payload);
+        }
+
+        private void write(String destination, Map<String, Object> payload) {
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination(destination);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(payload);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            sendLock.lock();
+            try {
+                session.send(headers, json);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        private JsonNode readTree(String payload) {
+            try {
+                return objectMapper.readTree(payload);
+            } catch (JsonProcessingException e) {
+                stats.errors.increment();
+                return objectMapper.missingNode();
+            }
+        }
+    }
+}
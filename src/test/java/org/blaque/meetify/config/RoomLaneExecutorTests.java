@@ -0,0 +1,141 @@
+package org.blaque.meetify.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomLaneExecutorTests {
+
+    private final RoomLaneExecutor executor = new RoomLaneExecutor(16, 4, false, new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        executor.destroy();
+    }
+
+    @Test
+    void roomHashReadsTheRoomCodeOfAppAndTopicDestinations() {
+        int room = RoomLaneExecutor.roomHash("/app/chat/ROOM1");
+
+        assertThat(room).isEqualTo("ROOM1".hashCode());
+        assertThat(RoomLaneExecutor.roomHash("/app/signal/ROOM1/offer")).isEqualTo(room);
+        assertThat(RoomLaneExecutor.roomHash("/topic/room/ROOM1/chat")).isEqualTo(room);
+        assertThat(RoomLaneExecutor.roomHash("/app/chat/ROOM2")).isNotEqualTo(room);
+    }
+
+    @Test
+    void roomHashIsZeroWithoutRoom() {
+        assertThat(RoomLaneExecutor.roomHash(null)).isZero();
+        assertThat(RoomLaneExecutor.roomHash("/app/chat")).isZero();
+        assertThat(RoomLaneExecutor.roomHash("/queue/signal/session-a")).isZero();
+    }
+
+    @Test
+    void sendsOfOneRoomShareALane() {
+        assertThat(executor.laneOf(frame(SimpMessageType.MESSAGE, "a", "/app/chat/ROOM1")))
+                .isEqualTo(executor.laneOf(frame(SimpMessageType.MESSAGE, "b", "/app/status/ROOM1")));
+    }
+
+    @Test
+    void lifecycleFramesOfASessionShareItsLane() {
+        int lane = executor.laneOf(frame(SimpMessageType.CONNECT, "a", null));
+
+        assertThat(executor.laneOf(frame(SimpMessageType.SUBSCRIBE, "a", "/topic/room/ROOM1/chat"))).isEqualTo(lane);
+        assertThat(executor.laneOf(frame(SimpMessageType.SUBSCRIBE, "a", "/queue/signal/a"))).isEqualTo(lane);
+        assertThat(executor.laneOf(frame(SimpMessageType.UNSUBSCRIBE, "a", null))).isEqualTo(lane);
+        assertThat(executor.laneOf(frame(SimpMessageType.DISCONNECT, "a", null))).isEqualTo(lane);
+    }
+
+    @Test
+    void disconnectRunsAfterAQueuedSubscribe() throws InterruptedException {
+        List<SimpMessageType> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch subscribeStarted = new CountDownLatch(1);
+        CountDownLatch releaseSubscribe = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+
+        executor.execute(task(frame(SimpMessageType.SUBSCRIBE, "a", "/topic/room/ROOM1/chat"), () -> {
+            subscribeStarted.countDown();
+            await(releaseSubscribe);
+            handled.add(SimpMessageType.SUBSCRIBE);
+            done.countDown();
+        }));
+        assertThat(subscribeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(task(frame(SimpMessageType.DISCONNECT, "a", null), () -> {
+            handled.add(SimpMessageType.DISCONNECT);
+            done.countDown();
+        }));
+        releaseSubscribe.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handled).containsExactly(SimpMessageType.SUBSCRIBE, SimpMessageType.DISCONNECT);
+    }
+
+    @Test
+    void fullLaneRejectsAfterWaiting() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Message<?> connect = frame(SimpMessageType.CONNECT, "a", null);
+        executor.execute(task(connect, () -> await(release)));
+        // Fills the lane's queue of 4 behind the blocked task
+        for (int i = 0; i < 4; i++) {
+            executor.execute(task(connect, () -> { }));
+        }
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> executor.execute(task(connect, () -> { })))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .isGreaterThanOrEqualTo(RoomLaneExecutor.OFFER_TIMEOUT_MILLIS - 50);
+        release.countDown();
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static MessageHandlingRunnable task(Message<?> message, Runnable body) {
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> { };
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.blaque.meetify.config;
+
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignalMessageConverterTests {
+
+    private final SignalMessageConverter converter = new SignalMessageConverter();
+
+    @Test
+    void readsEnvelopeAndKeepsDataVerbatim() {
+        String data = "{\"type\":\"offer\",\"sdp\":\"v=0\\r\\no=- 46117 2 IN IP4 127.0.0.1\\r\\n\"}";
+        WebRTCSignalDTO signal = read("{\"type\":\"offer\",\"senderSessionId\":\"a\",\"extra\":[1,{\"x\":2}],"
+                + "\"targetSessionId\":\"b\",\"data\":" + data + "}");
+
+        assertThat(signal.getType()).isEqualTo("offer");
+        assertThat(signal.getSenderSessionId()).isEqualTo("a");
+        assertThat(signal.getTargetSessionId()).isEqualTo("b");
+        assertThat(signal.getData()).hasToString(data);
+    }
+
+    @Test
+    void readsScalarAndNullData() {
+        assertThat(read("{\"type\":\"x\",\"data\":\"plain\"}").getData()).hasToString("\"plain\"");
+        assertThat(read("{\"type\":\"x\",\"data\":42}").getData()).hasToString("42");
+        assertThat(read("{\"type\":\"x\",\"data\":null}").getData()).isNull();
+    }
+
+    @Test
+    void writesEnvelopeWithRawData() {
+        WebRTCSignalDTO signal = WebRTCSignalDTO.builder()
+                .type("ice-candidates")
+                .senderSessionId("a\"b")
+                .data(RawJson.array(List.of(RawJson.of("{\"candidate\":\"c1\"}"), RawJson.of("{\"candidate\":\"c2\"}"))))
+                .build();
+
+        Message<?> message = converter.toMessage(signal, null);
+
+        assertThat(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8)).isEqualTo(
+                "{\"type\":\"ice-candidates\",\"senderSessionId\":\"a\\\"b\","
+                        + "\"data\":[{\"candidate\":\"c1\"},{\"candidate\":\"c2\"}]}");
+    }
+
+    private WebRTCSignalDTO read(String json) {
+        Message<byte[]> message = MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8)).build();
+        return (WebRTCSignalDTO) converter.fromMessage(message, WebRTCSignalDTO.class);
+    }
+}
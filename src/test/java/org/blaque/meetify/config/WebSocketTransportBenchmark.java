@@ -0,0 +1,286 @@
+package org.blaque.meetify.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the native and SockJS endpoints on SDP-heavy signaling: every transport relays
+ * the same offers through the room topic back to the sender, and reports round-trip latency
+ * and the bytes that crossed the wire per offer, counted by a TCP proxy in front of the
+ * server so handshakes, framing and compression are all included.
+ * <p>
+ * Not part of {@code test}; run with {@code ./gradlew benchmark} against the local database.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketTransportBenchmark {
+
+    private static final int WARMUP_SIGNALS = 200;
+    private static final int MEASURED_SIGNALS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    private final List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        // Sessions first, then clients, then the proxies they go through
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            resources.get(i).close();
+        }
+    }
+
+    @Test
+    void sdpSignalingOverEachTransport() throws Exception {
+        String offer = offerJson();
+        System.out.printf("%nSDP offer signal: %d bytes of JSON%n", offer.length());
+        System.out.printf("%-22s %12s %12s %10s %10s %10s%n",
+                "transport", "up B/offer", "down B/offer", "p50 us", "p99 us", "max us");
+
+        report("native", offer, () -> new StandardWebSocketClient(), "ws", "/ws-native", false);
+        report("native+deflate", offer, () -> new StandardWebSocketClient(), "ws", "/ws-native", true);
+        report("sockjs websocket", offer,
+                () -> new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))),
+                "http", "/ws", true);
+        report("sockjs xhr-streaming", offer,
+                () -> new SockJsClient(List.of(new RestTemplateXhrTransport())),
+                "http", "/ws", false);
+    }
+
+    private void report(String name, String offer, Supplier<WebSocketClient> client,
+                        String scheme, String path, boolean deflate) throws Exception {
+        CountingProxy proxy = new CountingProxy(port);
+        resources.add(proxy);
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(client.get());
+        stompClient.setMessageConverter(new StringMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                // Frames are JSON, handled here as plain strings
+                return true;
+            }
+        });
+        resources.add(stompClient::stop);
+
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        if (deflate) {
+            handshakeHeaders.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+        }
+        StompSession session = stompClient
+                .connectAsync(scheme + "://localhost:" + proxy.port() + path, handshakeHeaders,
+                        new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+        resources.add(session::disconnect);
+
+        String roomCode = "BENCH" + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe("/topic/room/" + roomCode + "/signal", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+
+        StompHeaders send = new StompHeaders();
+        send.setDestination("/app/signal/" + roomCode);
+        send.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+        for (int i = 0; i < WARMUP_SIGNALS; i++) {
+            roundTrip(session, send, offer, received);
+        }
+        proxy.reset();
+        long[] latencies = new long[MEASURED_SIGNALS];
+        for (int i = 0; i < MEASURED_SIGNALS; i++) {
+            latencies[i] = roundTrip(session, send, offer, received);
+        }
+        long up = proxy.upstreamBytes() / MEASURED_SIGNALS;
+        long down = proxy.downstreamBytes() / MEASURED_SIGNALS;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-22s %12d %12d %10d %10d %10d%n", name, up, down,
+                micros(latencies[MEASURED_SIGNALS / 2]),
+                micros(latencies[MEASURED_SIGNALS * 99 / 100]),
+                micros(latencies[MEASURED_SIGNALS - 1]));
+    }
+
+    private static long roundTrip(StompSession session, StompHeaders send, String offer,
+                                  BlockingQueue<String> received) throws InterruptedException {
+        long start = System.nanoTime();
+        session.send(send, offer);
+        String echoed = received.poll(10, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        assertThat(echoed).as("relayed offer").isNotNull();
+        return elapsed;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * A browser-like offer with audio, camera and screen-share sections and host, srflx and
+     * relay candidates, about 6 KB of JSON once escaped.
+     */
+    private static String offerJson() {
+        StringBuilder sdp = new StringBuilder()
+                .append("v=0\r\no=- 4611731400430051336 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n")
+                .append("a=group:BUNDLE 0 1 2\r\na=extmap-allow-mixed\r\na=msid-semantic: WMS stream\r\n");
+        sdp.append("m=audio 9 UDP/TLS/RTP/SAVPF 111 63 9 0 8 13 110 126\r\n");
+        mediaSection(sdp, "0", new String[]{
+                "111 opus/48000/2", "63 red/48000/2", "9 G722/8000", "0 PCMU/8000", "8 PCMA/8000",
+                "13 CN/8000", "110 telephone-event/48000", "126 telephone-event/8000"});
+        sdp.append("a=fmtp:111 minptime=10;useinbandfec=1\r\n");
+        for (String mid : new String[]{"1", "2"}) {
+            sdp.append("m=video 9 UDP/TLS/RTP/SAVPF 96 97 98 99 100 101 45 46 102 103\r\n");
+            mediaSection(sdp, mid, new String[]{
+                    "96 VP8/90000", "97 rtx/90000", "98 VP9/90000", "99 rtx/90000", "100 H264/90000",
+                    "101 rtx/90000", "45 AV1/90000", "46 rtx/90000", "102 red/90000", "103 ulpfec/90000"});
+            sdp.append("a=fmtp:98 profile-id=0\r\n")
+                    .append("a=fmtp:100 level-asymmetry-allowed=1;packetization-mode=1;profile-level-id=42e01f\r\n")
+                    .append("a=ssrc-group:FID 2381047218 1203948712\r\n")
+                    .append("a=ssrc:2381047218 cname:k3Jm9xQ2pLr7Vt1w\r\n")
+                    .append("a=ssrc:1203948712 cname:k3Jm9xQ2pLr7Vt1w\r\n");
+        }
+        String escaped = sdp.toString().replace("\r\n", "\\r\\n");
+        return "{\"type\":\"offer\",\"senderSessionId\":\"" + UUID.randomUUID()
+                + "\",\"targetSessionId\":null,\"data\":{\"type\":\"offer\",\"sdp\":\"" + escaped + "\"}}";
+    }
+
+    private static void mediaSection(StringBuilder sdp, String mid, String[] codecs) {
+        sdp.append("c=IN IP4 0.0.0.0\r\na=rtcp:9 IN IP4 0.0.0.0\r\n")
+                .append("a=candidate:1467250027 1 udp 2122260223 192.168.1.23 52844 typ host generation 0 network-id 1\r\n")
+                .append("a=candidate:2713480271 1 udp 1686052607 203.0.113.45 52844 typ srflx raddr 192.168.1.23 rport 52844 generation 0\r\n")
+                .append("a=candidate:3049512390 1 udp 41885439 198.51.100.7 61512 typ relay raddr 203.0.113.45 rport 52844 generation 0\r\n")
+                .append("a=ice-ufrag:Kx9f\r\na=ice-pwd:0n3rVXzP1wbE6eYkT0q2aL8j\r\na=ice-options:trickle\r\n")
+                .append("a=fingerprint:sha-256 4A:AD:B9:B1:3F:82:18:3B:54:02:12:DF:3E:5D:49:6B:19:E5:7C:AB:3B:6A:1F:4E:2C:99:08:7A:D3:5D:8F:1C\r\n")
+                .append("a=setup:actpass\r\na=mid:").append(mid).append("\r\n")
+                .append("a=extmap:1 urn:ietf:params:rtp-hdrext:ssrc-audio-level\r\n")
+                .append("a=extmap:2 http://www.webrtc.org/experiments/rtp-hdrext/abs-send-time\r\n")
+                .append("a=extmap:3 http://www.ietf.org/id/draft-holmer-rmcat-transport-wide-cc-extensions-01\r\n")
+                .append("a=extmap:4 urn:ietf:params:rtp-hdrext:sdes:mid\r\n")
+                .append("a=sendrecv\r\na=msid:stream track-").append(mid).append("\r\na=rtcp-mux\r\n");
+        for (String codec : codecs) {
+            String payloadType = codec.substring(0, codec.indexOf(' '));
+            sdp.append("a=rtpmap:").append(codec).append("\r\n")
+                    .append("a=rtcp-fb:").append(payloadType).append(" transport-cc\r\n")
+                    .append("a=rtcp-fb:").append(payloadType).append(" nack\r\n");
+        }
+    }
+
+    /**
+     * Relays TCP connections to the server and counts the bytes in each direction.
+     */
+    private static final class CountingProxy implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final AtomicLong upstream = new AtomicLong();
+        private final AtomicLong downstream = new AtomicLong();
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+        CountingProxy(int targetPort) throws IOException {
+            this.targetPort = targetPort;
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread.ofVirtual().start(this::accept);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        long upstreamBytes() {
+            return upstream.get();
+        }
+
+        long downstreamBytes() {
+            return downstream.get();
+        }
+
+        void reset() {
+            upstream.set(0);
+            downstream.set(0);
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket client = serverSocket.accept();
+                    Socket server = new Socket(InetAddress.getLoopbackAddress(), targetPort);
+                    client.setTcpNoDelay(true);
+                    server.setTcpNoDelay(true);
+                    sockets.add(client);
+                    sockets.add(server);
+                    Thread.ofVirtual().start(() -> pump(client, server, upstream));
+                    Thread.ofVirtual().start(() -> pump(server, client, downstream));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void pump(Socket from, Socket to, AtomicLong counter) {
+            byte[] buffer = new byte[16 * 1024];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                    counter.addAndGet(read);
+                }
+            } catch (IOException e) {
+                // Connection closed by either side
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
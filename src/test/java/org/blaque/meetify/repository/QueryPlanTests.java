@@ -0,0 +1,140 @@
+package org.blaque.meetify.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a few thousand rooms and tens of thousands of chat messages inside a rolled-back
+ * transaction, analyzes the tables and checks that the hot-path queries are planned as
+ * index scans. Runs against the local database like {@code MeetifyApplicationTests}.
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTests {
+
+    // Each monthly partition gets its own copy of idx_chat_messages_room_sent_at
+    private static final String CHAT_TIMELINE_INDEX = "_room_id_sent_at_id_idx";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID busyRoomId;
+    private String busyRoomCode;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO rooms (id, room_code, room_name, created_at, is_active)
+                SELECT gen_random_uuid(), 'QP' || lpad(g::text, 6, '0'), 'Room ' || g,
+                       now() - g * interval '1 minute', g % 10 <> 0
+                FROM generate_series(1, 2000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO chat_messages (id, room_id, sender_username, sender_session_id, message, sent_at)
+                SELECT gen_random_uuid(), r.id, 'user', 'session', 'message ' || g, now() - g * interval '1 second'
+                FROM (SELECT id FROM rooms WHERE room_code LIKE 'QP%' ORDER BY room_code LIMIT 100) r,
+                     generate_series(1, 300) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO participants (id, room_id, username, session_id, joined_at, left_at,
+                                          is_connected, is_muted, is_video_enabled)
+                SELECT gen_random_uuid(), r.id, 'user' || g, 'qp-' || r.room_code || '-' || g, now(),
+                       CASE WHEN g = 1 THEN NULL ELSE now() END, g = 1, false, true
+                FROM rooms r, generate_series(1, 5) g
+                WHERE r.room_code LIKE 'QP%'
+                """);
+        jdbcTemplate.execute("ANALYZE rooms, participants, chat_messages");
+
+        busyRoomCode = "QP000001";
+        busyRoomId = jdbcTemplate.queryForObject("SELECT id FROM rooms WHERE room_code = ?", UUID.class, busyRoomCode);
+    }
+
+    @Test
+    void chatHistoryPagesUseRoomTimelineIndex() {
+        Timestamp cursor = Timestamp.valueOf(LocalDateTime.now().minusMinutes(2));
+        UUID cursorId = UUID.randomUUID();
+
+        assertThat(explain(nativeQuery("findLatest"), busyRoomId, 51))
+                .contains(CHAT_TIMELINE_INDEX);
+        assertThat(explain(nativeQuery("findBefore"), busyRoomId, cursor, cursorId, 51))
+                .contains(CHAT_TIMELINE_INDEX);
+        assertThat(explain(nativeQuery("findAfter"), busyRoomId, cursor, cursorId, 51))
+                .contains(CHAT_TIMELINE_INDEX);
+    }
+
+    @Test
+    void transcriptExportUsesRoomTimelineIndex() {
+        assertThat(explain(ChatMessageJdbcRepository.SELECT_BY_ROOM_SQL, busyRoomId))
+                .contains(CHAT_TIMELINE_INDEX);
+    }
+
+    @Test
+    void chatSearchAcrossRoomsUsesFullTextIndex() {
+        UUID[] roomIds = jdbcTemplate.queryForList(
+                "SELECT id FROM rooms WHERE room_code LIKE 'QP%' ORDER BY room_code LIMIT 100", UUID.class)
+                .toArray(UUID[]::new);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + ChatMessageJdbcRepository.SEARCH_SQL)) {
+                ps.setString(1, "message 7");
+                ps.setArray(2, connection.createArrayOf("uuid", roomIds));
+                ps.setInt(3, 21);
+                ps.setInt(4, 0);
+                ps.setString(5, "");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return lines.toString();
+            }
+        });
+        // Each monthly partition gets its own copy of idx_chat_messages_message_fts
+        assertThat(plan).contains("_to_tsvector_idx");
+    }
+
+    @Test
+    void connectedParticipantsUsePartialIndex() {
+        assertThat(explain("SELECT * FROM participants WHERE room_id = ? AND is_connected = true", busyRoomId))
+                .contains("idx_participants_room_connected");
+    }
+
+    @Test
+    void activeRoomByCodeUsesIndexScan() {
+        assertThat(explain("SELECT * FROM rooms WHERE room_code = ? AND is_active = true", busyRoomCode))
+                .contains("Index Scan")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    /**
+     * Returns a {@link ChatMessageRepository} native query with its named parameters made
+     * positional, so the test always explains the SQL the repository actually runs.
+     */
+    private static String nativeQuery(String methodName) {
+        Method method = Arrays.stream(ChatMessageRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return method.getAnnotation(Query.class).value().replaceAll(":\\w+", "?");
+    }
+}
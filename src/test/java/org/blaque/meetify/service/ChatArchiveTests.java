@@ -0,0 +1,115 @@
+package org.blaque.meetify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.blaque.meetify.config.ChatStorageProperties;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatArchiveTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @TempDir
+    Path directory;
+
+    private final UUID roomId = UUID.randomUUID();
+    private final UUID otherRoomId = UUID.randomUUID();
+    private List<ChatMessageDTO> roomMessages;
+    private ChatArchive archive;
+
+    @BeforeEach
+    void writeSegment() throws Exception {
+        roomMessages = messages(1_200);
+        List<ChatMessageDTO> otherMessages = messages(3);
+
+        // Segments are written in (room_id, sent_at, id) order, as Postgres sorts uuids
+        List<UUID> rooms = new ArrayList<>(List.of(roomId, otherRoomId));
+        rooms.sort((a, b) -> new ChatCursor(LocalDateTime.MIN, a).compareTo(new ChatCursor(LocalDateTime.MIN, b)));
+        try (ChatSegment.Writer writer = new ChatSegment.Writer(directory, MONTH, 500, objectMapper)) {
+            for (UUID room : rooms) {
+                for (ChatMessageDTO message : room.equals(roomId) ? roomMessages : otherMessages) {
+                    writer.append(room, message);
+                }
+            }
+            writer.finish();
+        }
+
+        ChatStorageProperties properties = new ChatStorageProperties();
+        properties.getArchive().setDirectory(directory);
+        archive = new ChatArchive(properties, objectMapper);
+    }
+
+    @Test
+    void pagesBackwardsAcrossBlocks() {
+        List<ChatMessageDTO> newest = archive.findBefore(roomId, null, 50);
+        assertThat(newest).extracting(ChatMessageDTO::getId)
+                .containsExactlyElementsOf(reversed(roomMessages.subList(1_150, 1_200)).stream().map(ChatMessageDTO::getId).toList());
+
+        // The cursor sits just after a block boundary, so the page spans two blocks
+        ChatCursor cursor = ChatCursor.of(roomMessages.get(510));
+        List<ChatMessageDTO> page = archive.findBefore(roomId, cursor, 20);
+        assertThat(page).extracting(ChatMessageDTO::getId)
+                .containsExactlyElementsOf(reversed(roomMessages.subList(490, 510)).stream().map(ChatMessageDTO::getId).toList());
+    }
+
+    @Test
+    void pagesForwardsAcrossBlocks() {
+        ChatCursor cursor = ChatCursor.of(roomMessages.get(489));
+        List<ChatMessageDTO> page = archive.findAfter(roomId, cursor, 20);
+
+        assertThat(page).extracting(ChatMessageDTO::getId)
+                .containsExactlyElementsOf(roomMessages.subList(490, 510).stream().map(ChatMessageDTO::getId).toList());
+    }
+
+    @Test
+    void streamsOnlyTheRequestedRoom() {
+        List<ChatMessageDTO> streamed = new ArrayList<>();
+        archive.forEachInRoom(otherRoomId, streamed::add);
+
+        assertThat(streamed).hasSize(3);
+        assertThat(archive.findBefore(UUID.randomUUID(), null, 10)).isEmpty();
+    }
+
+    private static List<ChatMessageDTO> messages(int count) {
+        LocalDateTime start = MONTH.atDay(1).atTime(9, 0);
+        List<ChatMessageDTO> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Pairs share a timestamp so ordering also depends on the id
+            messages.add(ChatMessageDTO.builder()
+                    .id(UUID.randomUUID())
+                    .senderUsername("user" + i % 7)
+                    .senderSessionId("session" + i % 7)
+                    .message("message " + i)
+                    .sentAt(start.plusSeconds(i / 2))
+                    .build());
+        }
+        messages.sort(Comparator.comparing(ChatCursor::of));
+        return messages;
+    }
+
+    private static <T> List<T> reversed(List<T> list) {
+        List<T> copy = new ArrayList<>(list);
+        Collections.reverse(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,184 @@
+package org.blaque.meetify.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.config.ChatPersistenceProperties;
+import org.blaque.meetify.repository.ChatMessageJdbcRepository;
+import org.blaque.meetify.service.ChatMessageWriter.PendingChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ChatMessageWriterTests {
+
+    private final ChatMessageJdbcRepository repository = mock(ChatMessageJdbcRepository.class);
+    private final ChatPersistenceProperties properties = new ChatPersistenceProperties();
+    // The writer clears its batch after each flush, so the batches are copied as they arrive
+    private final List<List<UUID>> batches = new CopyOnWriteArrayList<>();
+    private ChatMessageWriter writer;
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void flushesWhenABatchFills() throws InterruptedException {
+        properties.setBatchSize(3);
+        properties.setFlushInterval(Duration.ofSeconds(10));
+        recordBatches();
+        startWriter();
+
+        List<PendingChatMessage> messages = enqueue(3);
+
+        awaitBatches(1);
+        assertThat(batches.get(0)).containsExactlyElementsOf(ids(messages));
+    }
+
+    @Test
+    void flushesAPartialBatchAfterTheInterval() throws InterruptedException {
+        properties.setBatchSize(100);
+        properties.setFlushInterval(Duration.ofMillis(100));
+        recordBatches();
+        startWriter();
+
+        List<PendingChatMessage> messages = enqueue(2);
+
+        awaitBatches(1);
+        assertThat(batches.get(0)).containsExactlyElementsOf(ids(messages));
+    }
+
+    @Test
+    void producersWaitWhileTheQueueIsFull() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(1);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            batches.add(ids(invocation.getArgument(0)));
+            return null;
+        }).when(repository).insertBatch(any());
+        startWriter();
+
+        enqueue(1);
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        enqueue(1);
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> enqueue(1));
+
+        Thread.sleep(200);
+        assertThat(blocked).isNotDone();
+        assertThat(writer.getQueueDepth()).isEqualTo(1);
+
+        release.countDown();
+        blocked.get(2, TimeUnit.SECONDS);
+        awaitBatches(3);
+    }
+
+    @Test
+    void stopDrainsTheQueue() {
+        properties.setBatchSize(4);
+        properties.setFlushInterval(Duration.ofMillis(100));
+        recordBatches();
+        startWriter();
+
+        List<PendingChatMessage> messages = enqueue(10);
+        writer.stop();
+
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(ids(messages));
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void stopRetriesAFailedBatchUntilTheTimeout() {
+        properties.setBatchSize(100);
+        properties.setFlushInterval(Duration.ofMillis(100));
+        properties.setRetryBackoff(Duration.ofMillis(20));
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() <= 3) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            batches.add(ids(invocation.getArgument(0)));
+            return null;
+        }).when(repository).insertBatch(any());
+        startWriter();
+
+        List<PendingChatMessage> messages = enqueue(5);
+        writer.stop();
+
+        assertThat(attempts).hasValueGreaterThan(3);
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(ids(messages));
+    }
+
+    @Test
+    void writesDirectlyOnceStopped() {
+        recordBatches();
+        startWriter();
+        writer.stop();
+
+        List<PendingChatMessage> messages = enqueue(1);
+
+        assertThat(batches).containsExactly(ids(messages));
+    }
+
+    private void startWriter() {
+        writer = new ChatMessageWriter(repository, properties, new SimpleMeterRegistry());
+        writer.start();
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(batches).hasSize(count);
+    }
+
+    private void recordBatches() {
+        doAnswer(invocation -> {
+            batches.add(ids(invocation.getArgument(0)));
+            return null;
+        }).when(repository).insertBatch(any());
+    }
+
+    private List<PendingChatMessage> enqueue(int count) {
+        List<PendingChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PendingChatMessage message = PendingChatMessage.builder()
+                    .id(UUID.randomUUID())
+                    .roomId(UUID.randomUUID())
+                    .senderUsername("alice")
+                    .senderSessionId("session-a")
+                    .message("message " + i)
+                    .sentAt(LocalDateTime.now())
+                    .build();
+            writer.enqueue(message);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static List<UUID> ids(List<PendingChatMessage> messages) {
+        return messages.stream().map(PendingChatMessage::getId).toList();
+    }
+}
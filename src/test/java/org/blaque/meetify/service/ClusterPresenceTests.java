@@ -0,0 +1,94 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterPresenceTests {
+
+    private final PresenceRegistry presenceRegistry = new PresenceRegistry();
+    private final ClusterPresence clusterPresence = new ClusterPresence("node-b", presenceRegistry, Duration.ofSeconds(15));
+    private final RoomPresence room = new RoomPresence(UUID.randomUUID(), "ROOM1", "Room", LocalDateTime.now());
+
+    @Test
+    void remoteJoinRegistersRoomAndParticipant() {
+        clusterPresence.apply("node-a", PresenceChange.joined(room, participant("a")));
+
+        assertThat(presenceRegistry.findRoom("ROOM1")).hasValueSatisfying(registered ->
+                assertThat(registered.getParticipants()).extracting(ParticipantPresence::getSessionId).containsExactly("a"));
+    }
+
+    @Test
+    void remoteStatusAndLeaveApplyToParticipantsJoinedElsewhere() {
+        clusterPresence.apply("node-a", PresenceChange.joined(room, participant("a")));
+
+        ParticipantPresence muted = participant("a").toBuilder().isMuted(true).build();
+        clusterPresence.apply("node-a", PresenceChange.statuses("ROOM1", List.of(muted)));
+        assertThat(presenceRegistry.findParticipant("a")).hasValueSatisfying(p -> assertThat(p.getIsMuted()).isTrue());
+
+        clusterPresence.apply("node-a", PresenceChange.left("ROOM1", List.of("a")));
+        assertThat(presenceRegistry.findParticipant("a")).isEmpty();
+    }
+
+    @Test
+    void remoteRouteExpiresWithoutHeartbeats() {
+        Instant listed = Instant.now();
+        clusterPresence.routesChanged("node-c", List.of("a"), null, listed);
+
+        assertThat(clusterPresence.isAttachedElsewhere("a", listed.plusSeconds(10))).isTrue();
+        assertThat(clusterPresence.isAttachedElsewhere("a", listed.plusSeconds(16))).isFalse();
+    }
+
+    @Test
+    void detachFromAnotherNodeKeepsNewerRoute() {
+        Instant now = Instant.now();
+        clusterPresence.routesChanged("node-a", List.of("a"), null, now);
+        clusterPresence.routesChanged("node-c", List.of("a"), null, now);
+
+        clusterPresence.routesChanged("node-a", null, List.of("a"), now);
+
+        assertThat(clusterPresence.isAttachedElsewhere("a", now)).isTrue();
+    }
+
+    @Test
+    void nodeItJoinedThroughReapsWhileLive() {
+        Instant now = Instant.now();
+        clusterPresence.nodeSeen("node-a", now);
+        clusterPresence.apply("node-a", PresenceChange.joined(room, participant("a")));
+
+        assertThat(clusterPresence.isReaper("a", now)).isFalse();
+        // node-a missed three heartbeats; node-b is the lowest live node left
+        assertThat(clusterPresence.isReaper("a", now.plusSeconds(20))).isTrue();
+    }
+
+    @Test
+    void lowestLiveNodeReapsParticipantsOfUnknownOrigin() {
+        Instant now = Instant.now();
+        clusterPresence.nodeSeen("node-a", now);
+
+        assertThat(clusterPresence.isReaper("loaded", now)).isFalse();
+
+        clusterPresence.joinedHere(PresenceChange.joined(room, participant("b")));
+        assertThat(clusterPresence.isReaper("b", now)).isTrue();
+    }
+
+    private ParticipantPresence participant(String sessionId) {
+        return ParticipantPresence.builder()
+                .id(UUID.randomUUID())
+                .roomId(room.getRoomId())
+                .username(sessionId)
+                .sessionId(sessionId)
+                .joinedAt(LocalDateTime.now())
+                .isMuted(false)
+                .isVideoEnabled(true)
+                .build();
+    }
+}
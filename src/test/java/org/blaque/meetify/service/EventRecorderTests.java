@@ -0,0 +1,145 @@
+package org.blaque.meetify.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.config.EventLogProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRecorderTests {
+
+    private final Logger eventsLogger = (Logger) LoggerFactory.getLogger("org.blaque.meetify.events");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final EventLogProperties properties = new EventLogProperties();
+    private EventRecorder recorder;
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        eventsLogger.addAppender(appender);
+        properties.setFlushInterval(Duration.ofMillis(5));
+    }
+
+    @AfterEach
+    void detachAppender() {
+        if (recorder != null) {
+            recorder.stop();
+        }
+        eventsLogger.detachAppender(appender);
+    }
+
+    @Test
+    void chatBodiesAreRedactedUntilSwitchedOff() throws Exception {
+        start();
+
+        recorder.record("chat", "ROOM1", "from", "session-1", "message", "hello there");
+        awaitLines(1);
+        recorder.update(settings -> settings.withRedactBodies(false));
+        recorder.record("chat", "ROOM1", "from", "session-1", "message", "hello there");
+        awaitLines(2);
+
+        assertThat(lines().get(0))
+                .contains("\"type\":\"chat\"", "\"room\":\"ROOM1\"", "\"from\":\"session-1\"")
+                .contains("\"message\":\"[redacted 11 chars]\"")
+                .doesNotContain("hello");
+        assertThat(lines().get(1)).contains("\"message\":\"hello there\"");
+    }
+
+    @Test
+    void sampleRatesApplyToSubtypesAndChangeAtRuntime() throws Exception {
+        properties.getSampleRates().put("signal", 0.0);
+        properties.getSampleRates().put("signal.offer", 1.0);
+        start();
+
+        recorder.record("signal.ice-candidate", "ROOM1");
+        recorder.record("signal.offer", "ROOM1");
+        recorder.update(settings -> settings.withSampleRate("signal", null));
+        recorder.record("signal.ice-candidate", "ROOM1");
+        recorder.update(settings -> settings.withEnabled(false));
+        recorder.record("signal.offer", "ROOM1");
+        awaitLines(2);
+        Thread.sleep(50);
+
+        assertThat(lines()).hasSize(2);
+        assertThat(lines().get(0)).contains("\"type\":\"signal.offer\"");
+        assertThat(lines().get(1)).contains("\"type\":\"signal.ice-candidate\"");
+    }
+
+    @Test
+    void ringDeliversEveryAcceptedElementOnceAndRejectsWhenFull() throws Exception {
+        EventRing<Integer> ring = new EventRing<>(1000);
+        assertThat(ring.capacity()).isEqualTo(1024);
+
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        List<Integer> rejected = Collections.synchronizedList(new ArrayList<>());
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (!ring.offer(base + i)) {
+                        rejected.add(base + i);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> taken = new HashSet<>();
+        int[] lastPerProducer = new int[producers];
+        Arrays.fill(lastPerProducer, -1);
+        while (done.getCount() > 0 || ring.size() > 0) {
+            Integer element = ring.poll();
+            if (element == null) {
+                continue;
+            }
+            assertThat(taken.add(element)).isTrue();
+            // Elements of one producer come out in the order it offered them
+            assertThat(element).isGreaterThan(lastPerProducer[element / perProducer]);
+            lastPerProducer[element / perProducer] = element;
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(taken.size() + rejected.size()).isEqualTo(producers * perProducer);
+        assertThat(taken).doesNotContainAnyElementsOf(rejected);
+    }
+
+    private void start() {
+        recorder = new EventRecorder(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        recorder.start();
+    }
+
+    private List<String> lines() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    private void awaitLines(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.list.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(appender.list).hasSizeGreaterThanOrEqualTo(count);
+    }
+}
@@ -0,0 +1,156 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IceCandidateCoalescerTests {
+
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    // Flushes the coalescer scheduled, run only when a test says the window has elapsed
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<WebRTCSignalDTO> delivered = new ArrayList<>();
+    private final IceCandidateCoalescer coalescer = new IceCandidateCoalescer(
+            scheduler, Duration.ofMillis(25), 3, (roomCode, signal) -> delivered.add(signal));
+
+    @BeforeEach
+    void captureScheduledFlushes() {
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    void candidatesOfAPairAreDeliveredAsOneFrameWhenTheWindowElapses() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        coalescer.submit("ROOM1", candidate("a", "b", 2));
+        assertThat(delivered).isEmpty();
+
+        runScheduledFlushes();
+
+        assertThat(delivered).singleElement().satisfies(batch -> {
+            assertThat(batch.getType()).isEqualTo(IceCandidateCoalescer.ICE_CANDIDATES);
+            assertThat(batch.getSenderSessionId()).isEqualTo("a");
+            assertThat(batch.getTargetSessionId()).isEqualTo("b");
+            assertThat(batch.getData()).hasToString("[{\"candidate\":1},{\"candidate\":2}]");
+        });
+    }
+
+    @Test
+    void aLoneCandidateKeepsItsType() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+
+        runScheduledFlushes();
+
+        assertThat(delivered).singleElement().satisfies(signal -> {
+            assertThat(signal.getType()).isEqualTo(IceCandidateCoalescer.ICE_CANDIDATE);
+            assertThat(signal.getData()).hasToString("{\"candidate\":1}");
+        });
+    }
+
+    @Test
+    void eachPairIsBufferedSeparately() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        coalescer.submit("ROOM1", candidate("a", "c", 2));
+        coalescer.submit("ROOM1", candidate("b", "a", 3));
+        coalescer.submit("ROOM1", candidate("a", "b", 4));
+
+        assertThat(scheduled).hasSize(3);
+        runScheduledFlushes();
+
+        assertThat(delivered).extracting(signal -> signal.getSenderSessionId() + ">" + signal.getTargetSessionId())
+                .containsExactlyInAnyOrder("a>b", "a>c", "b>a");
+        assertThat(delivered).filteredOn(signal -> "c".equals(signal.getTargetSessionId()))
+                .singleElement().extracting(WebRTCSignalDTO::getType).isEqualTo(IceCandidateCoalescer.ICE_CANDIDATE);
+    }
+
+    @Test
+    void aFullBatchIsDeliveredWithoutWaiting() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        coalescer.submit("ROOM1", candidate("a", "b", 2));
+        coalescer.submit("ROOM1", candidate("a", "b", 3));
+
+        assertThat(delivered).singleElement().extracting(signal -> signal.getData().toString())
+                .isEqualTo("[{\"candidate\":1},{\"candidate\":2},{\"candidate\":3}]");
+
+        // The pending timer finds nothing left to send
+        runScheduledFlushes();
+        assertThat(delivered).hasSize(1);
+    }
+
+    @Test
+    void otherSignalsFlushPendingCandidatesAndGoOutAtOnce() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        coalescer.submit("ROOM1", signal("offer", "a", "b"));
+
+        assertThat(delivered).extracting(WebRTCSignalDTO::getType)
+                .containsExactly(IceCandidateCoalescer.ICE_CANDIDATE, "offer");
+    }
+
+    @Test
+    void endOfCandidatesFlushesTheBatchAheadOfTheMarker() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        coalescer.submit("ROOM1", candidate("a", "b", 2));
+        coalescer.submit("ROOM1", signal(IceCandidateCoalescer.END_OF_CANDIDATES, "a", "b"));
+
+        assertThat(delivered).extracting(WebRTCSignalDTO::getType)
+                .containsExactly(IceCandidateCoalescer.ICE_CANDIDATES, IceCandidateCoalescer.END_OF_CANDIDATES);
+    }
+
+    @Test
+    void signalsWithoutPendingCandidatesSkipTheBuffer() {
+        coalescer.submit("ROOM1", signal("answer", "a", "b"));
+
+        assertThat(delivered).extracting(WebRTCSignalDTO::getType).containsExactly("answer");
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void candidatesAfterAFlushStartANewWindow() {
+        coalescer.submit("ROOM1", candidate("a", "b", 1));
+        runScheduledFlushes();
+
+        coalescer.submit("ROOM1", candidate("a", "b", 2));
+        assertThat(scheduled).hasSize(1);
+        runScheduledFlushes();
+
+        assertThat(delivered).extracting(signal -> signal.getData().toString())
+                .containsExactly("{\"candidate\":1}", "{\"candidate\":2}");
+    }
+
+    private void runScheduledFlushes() {
+        List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        due.forEach(Runnable::run);
+    }
+
+    private static WebRTCSignalDTO candidate(String sender, String target, int index) {
+        return WebRTCSignalDTO.builder()
+                .type(IceCandidateCoalescer.ICE_CANDIDATE)
+                .senderSessionId(sender)
+                .targetSessionId(target)
+                .data(RawJson.of("{\"candidate\":" + index + "}"))
+                .build();
+    }
+
+    private static WebRTCSignalDTO signal(String type, String sender, String target) {
+        return WebRTCSignalDTO.builder()
+                .type(type)
+                .senderSessionId(sender)
+                .targetSessionId(target)
+                .build();
+    }
+}
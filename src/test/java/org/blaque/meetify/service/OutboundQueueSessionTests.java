@@ -0,0 +1,169 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.OutboundFrame.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class OutboundQueueSessionTests {
+
+    private static final String PARTICIPANT_TOPIC = "/topic/room/ROOM1/participant";
+    private static final String SNAPSHOT = "{\"type\":\"status\",\"changes\":[],\"timestamp\":\"snapshot\"}";
+
+    private final ExecutorService drainExecutor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch socketUnblocked = new CountDownLatch(1);
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final RecordingPolicy policy = new RecordingPolicy(Set.of("departed"));
+    private final WebSocketSession socket = mock(WebSocketSession.class);
+
+    @AfterEach
+    void stopExecutor() {
+        socketUnblocked.countDown();
+        drainExecutor.shutdownNow();
+    }
+
+    @Test
+    void staleStatusIsShedAndReplacedBySnapshotWhileChatIsKept() throws Exception {
+        OutboundQueueSession session = blockedSession(2_000, 100_000);
+
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"offer\",\"senderSessionId\":\"peer\"}"));
+        for (int i = 0; i < 40; i++) {
+            session.sendMessage(frame(PARTICIPANT_TOPIC, "{\"type\":\"status\",\"changes\":[{\"n\":" + i + "}]}"));
+        }
+        session.sendMessage(frame("/topic/room/ROOM1/chat", "{\"message\":\"hello\"}"));
+        socketUnblocked.countDown();
+
+        awaitWritten(3);
+        assertThat(written.get(0)).contains("\"type\":\"offer\"");
+        assertThat(written).anyMatch(frame -> frame.contains("\"message\":\"hello\""));
+        assertThat(written.get(written.size() - 1))
+                .contains(SNAPSHOT)
+                .contains("destination:" + PARTICIPANT_TOPIC)
+                .contains("content-length:" + SNAPSHOT.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(policy.dropped).contains("participant-status/over-budget");
+        assertThat(policy.disconnects).isEmpty();
+    }
+
+    @Test
+    void candidatesFromDepartedPeersAreDroppedOverBudget() throws Exception {
+        // Room for one queued candidate frame, not two
+        OutboundQueueSession session = blockedSession(250, 200_000);
+
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"answer\",\"senderSessionId\":\"peer\"}"));
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"ice-candidate\",\"senderSessionId\":\"departed\"}"));
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"ice-candidate\",\"senderSessionId\":\"peer\"}"));
+        socketUnblocked.countDown();
+
+        awaitWritten(2);
+        assertThat(written).noneMatch(frame -> frame.contains("departed"));
+        assertThat(policy.dropped).containsExactly("ice-candidate/peer-closed");
+    }
+
+    @Test
+    void candidatesWithinBudgetAreDelivered() throws Exception {
+        OutboundQueueSession session = blockedSession(100_000, 200_000);
+
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"answer\",\"senderSessionId\":\"peer\"}"));
+        session.sendMessage(frame("/queue/signal/me", "{\"type\":\"ice-candidate\",\"senderSessionId\":\"departed\"}"));
+        socketUnblocked.countDown();
+
+        awaitWritten(2);
+        assertThat(written).anyMatch(frame -> frame.contains("departed"));
+        assertThat(policy.dropped).isEmpty();
+    }
+
+    @Test
+    void essentialBacklogOverHardLimitDisconnects() throws Exception {
+        OutboundQueueSession session = blockedSession(1_000, 4_000);
+
+        String chat = "{\"message\":\"" + "x".repeat(900) + "\"}";
+        for (int i = 0; i < 6; i++) {
+            session.sendMessage(frame("/topic/room/ROOM1/chat", chat));
+        }
+
+        verify(socket, timeout(1_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(policy.disconnects).containsExactly("buffer-limit");
+        assertThat(policy.dropped).isEmpty();
+    }
+
+    /**
+     * A session whose first write blocks until {@link #socketUnblocked} is released.
+     */
+    private OutboundQueueSession blockedSession(long budget, long hardLimit) throws Exception {
+        doAnswer(invocation -> {
+            socketUnblocked.await(5, TimeUnit.SECONDS);
+            written.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(socket).sendMessage(any());
+        return new OutboundQueueSession(socket, policy, drainExecutor, budget, hardLimit,
+                TimeUnit.SECONDS.toNanos(5), TimeUnit.SECONDS.toNanos(10));
+    }
+
+    private void awaitWritten(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Let the drain task finish anything it still has
+        Thread.sleep(100);
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json"
+                + "\nsubscription:sub-0\nmessage-id:m-1\ncontent-length:"
+                + body.getBytes(StandardCharsets.UTF_8).length + "\n\n" + body + "\0");
+    }
+
+    private static final class RecordingPolicy implements OutboundQueueSession.Policy {
+
+        private final Set<String> departed;
+        private final List<String> dropped = new CopyOnWriteArrayList<>();
+        private final List<String> disconnects = new CopyOnWriteArrayList<>();
+
+        RecordingPolicy(Set<String> departed) {
+            this.departed = departed;
+        }
+
+        @Override
+        public boolean isPeerGone(String senderSessionId) {
+            return departed.contains(senderSessionId);
+        }
+
+        @Override
+        public String statusSnapshot(String destination) {
+            return SNAPSHOT;
+        }
+
+        @Override
+        public void dropped(Kind kind, String reason) {
+            dropped.add(kind.tag() + "/" + reason);
+        }
+
+        @Override
+        public void written(Kind kind, long queuedNanos) {
+        }
+
+        @Override
+        public void disconnected(String reason) {
+            disconnects.add(reason);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.config.LargeRoomProperties;
+import org.blaque.meetify.config.ParticipantStatusProperties;
+import org.blaque.meetify.dto.ParticipantDigestDTO;
+import org.blaque.meetify.dto.ParticipantEventDTO;
+import org.blaque.meetify.dto.ParticipantInfoDTO;
+import org.blaque.meetify.dto.ParticipantStatusDTO;
+import org.blaque.meetify.dto.ParticipantStatusDeltaDTO;
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ParticipantStatusAggregatorTests {
+
+    private static final String PARTICIPANT = "/topic/room/ROOM1/participant";
+
+    private final PresenceRegistry presenceRegistry = new PresenceRegistry();
+    private final RoomEventBus roomEventBus = mock(RoomEventBus.class);
+    private final RoomPresence room = presenceRegistry.registerRoom(
+            UUID.randomUUID(), "ROOM1", "Room", LocalDateTime.now());
+    private final ParticipantStatusAggregator aggregator = newAggregator(3);
+
+    @Test
+    void smallRoomsAnnounceJoinsAndLeavesAtOnce() {
+        addParticipant("a");
+        addParticipant("b");
+
+        aggregator.announceJoin("ROOM1", info("b"));
+        aggregator.submit("a", true, null);
+        aggregator.broadcastDeltas();
+
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        verify(roomEventBus, times(2)).publish(eq("ROOM1"), eq(PARTICIPANT), frames.capture());
+        assertThat(frames.getAllValues().get(0)).isInstanceOfSatisfying(ParticipantEventDTO.class, event -> {
+            assertThat(event.getType()).isEqualTo("join");
+            assertThat(event.getParticipant().getSessionId()).isEqualTo("b");
+        });
+        assertThat(frames.getAllValues().get(1)).isInstanceOf(ParticipantStatusDeltaDTO.class);
+    }
+
+    @Test
+    void largeRoomsGetOneDigestPerTick() {
+        addParticipant("a");
+        addParticipant("b");
+        addParticipant("c");
+
+        aggregator.announceJoin("ROOM1", info("c"));
+        aggregator.submit("a", true, null);
+        aggregator.submit("b", null, false);
+        addParticipant("d");
+        aggregator.announceJoin("ROOM1", info("d"));
+        presenceRegistry.removeParticipant("d");
+        aggregator.announceLeave("ROOM1", info("d"));
+        presenceRegistry.removeParticipant("b");
+        aggregator.announceLeave("ROOM1", info("b"));
+
+        verify(roomEventBus, never()).publish(anyString(), anyString(), any());
+        aggregator.broadcastDeltas();
+
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(roomEventBus).publish(eq("ROOM1"), eq(PARTICIPANT), frame.capture());
+        assertThat(frame.getValue()).isInstanceOfSatisfying(ParticipantDigestDTO.class, digest -> {
+            assertThat(digest.getType()).isEqualTo("digest");
+            // d joined and left within the tick, and b's status no longer matters
+            assertThat(digest.getJoined()).extracting(ParticipantInfoDTO::getSessionId).containsExactly("c");
+            assertThat(digest.getLeft()).containsExactly("b");
+            assertThat(digest.getChanges()).extracting(ParticipantStatusDTO::getSessionId).containsExactly("a");
+            assertThat(digest.getParticipantCount()).isEqualTo(2);
+        });
+    }
+
+    private void addParticipant(String sessionId) {
+        presenceRegistry.addParticipant(room, ParticipantPresence.builder()
+                .id(UUID.randomUUID())
+                .roomId(room.getRoomId())
+                .username("user-" + sessionId)
+                .sessionId(sessionId)
+                .joinedAt(LocalDateTime.now())
+                .isMuted(false)
+                .isVideoEnabled(true)
+                .build());
+    }
+
+    private static ParticipantInfoDTO info(String sessionId) {
+        return new ParticipantInfoDTO("user-" + sessionId, sessionId);
+    }
+
+    private ParticipantStatusAggregator newAggregator(int participantThreshold) {
+        LargeRoomProperties largeRoomProperties = new LargeRoomProperties();
+        largeRoomProperties.setParticipantThreshold(participantThreshold);
+        return new ParticipantStatusAggregator(presenceRegistry, mock(PresenceWriter.class), null, roomEventBus,
+                mock(TaskScheduler.class), new ParticipantStatusProperties(), largeRoomProperties);
+    }
+}
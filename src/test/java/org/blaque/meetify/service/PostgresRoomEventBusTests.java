@@ -0,0 +1,105 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.MeetifyApplication;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two nodes in one JVM against the local database and checks that an event
+ * published on one reaches a STOMP subscriber connected to the other.
+ */
+class PostgresRoomEventBusTests {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void stopNodes() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void eventPublishedOnOneNodeReachesSubscriberOnAnother() throws Exception {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        String port = nodeB.getEnvironment().getProperty("local.server.port");
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + port + "/ws/websocket", new StompSessionHandlerAdapter() { })
+                .get(5, TimeUnit.SECONDS);
+
+        String roomCode = "BUS" + UUID.randomUUID().toString().substring(0, 5).toUpperCase();
+        String destination = "/topic/room/" + roomCode + "/chat";
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+
+        ChatMessageDTO message = ChatMessageDTO.builder()
+                .id(UUID.randomUUID())
+                .senderUsername("alice")
+                .senderSessionId("session-a")
+                .message("hello from node a")
+                .sentAt(LocalDateTime.now())
+                .build();
+
+        // Node B starts listening on the room's channel within one poll interval of the subscription
+        RoomEventBus busOnA = nodeA.getBean(RoomEventBus.class);
+        String frame = null;
+        for (int attempt = 0; attempt < 20 && frame == null; attempt++) {
+            busOnA.publish(roomCode, destination, message);
+            frame = received.poll(250, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(frame).contains("hello from node a");
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(MeetifyApplication.class)
+                .properties(
+                        "server.port=0",
+                        "meetify.event-bus.type=postgres",
+                        "meetify.event-bus.node-id=" + nodeId,
+                        "spring.jmx.enabled=false",
+                        "spring.devtools.restart.enabled=false")
+                .run();
+    }
+}
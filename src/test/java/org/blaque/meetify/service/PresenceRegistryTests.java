@@ -0,0 +1,123 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.PresenceRegistry.ParticipantPresence;
+import org.blaque.meetify.service.PresenceRegistry.RoomPresence;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceRegistryTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+    private final PresenceRegistry registry = new PresenceRegistry();
+    private final RoomPresence room = registry.registerRoom(UUID.randomUUID(), "ROOM1", "Room", START);
+
+    @Test
+    void registeringAKnownCodeReturnsTheExistingRoom() {
+        RoomPresence again = registry.registerRoom(UUID.randomUUID(), "ROOM1", "Other", START);
+
+        assertThat(again).isSameAs(room);
+        assertThat(registry.findRoom(room.getRoomId())).contains(room);
+    }
+
+    @Test
+    void participantsAreListedAndPagedInJoinOrder() {
+        ParticipantPresence c = participant("c", 2);
+        ParticipantPresence a = participant("a", 1);
+        ParticipantPresence b = participant("b", 1);
+        registry.addParticipant(room, c);
+        registry.addParticipant(room, a);
+        registry.addParticipant(room, b);
+
+        assertThat(room.getParticipants()).containsExactly(a, b, c);
+        assertThat(room.getParticipantsAfter(null, 2)).containsExactly(a, b);
+        assertThat(room.getParticipantsAfter(ParticipantCursor.of(b), 2)).containsExactly(c);
+        assertThat(room.getParticipantsAfter(ParticipantCursor.of(c), 2)).isEmpty();
+    }
+
+    @Test
+    void pagesSkipParticipantsThatLeftWithoutShiftingTheOthers() {
+        ParticipantPresence a = participant("a", 1);
+        ParticipantPresence b = participant("b", 2);
+        ParticipantPresence c = participant("c", 3);
+        registry.addParticipant(room, a);
+        registry.addParticipant(room, b);
+        registry.addParticipant(room, c);
+        ParticipantCursor afterFirstPage = ParticipantCursor.of(a);
+
+        registry.removeParticipant("b");
+        registry.addParticipant(room, participant("d", 4));
+
+        assertThat(room.getParticipantsAfter(afterFirstPage, 10))
+                .extracting(ParticipantPresence::getSessionId)
+                .containsExactly("c", "d");
+        assertThat(room.getParticipantCount()).isEqualTo(3);
+    }
+
+    @Test
+    void addIfAbsentKeepsTheExistingState() {
+        registry.addParticipant(room, participant("a", 1));
+        registry.updateStatus("a", true, null);
+
+        assertThat(registry.addParticipantIfAbsent(room, participant("a", 1))).isFalse();
+        assertThat(registry.findParticipant("a")).get().extracting(ParticipantPresence::getIsMuted).isEqualTo(true);
+        assertThat(room.getParticipants()).hasSize(1);
+    }
+
+    @Test
+    void statusUpdatesReachTheJoinOrderedView() {
+        registry.addParticipant(room, participant("a", 1));
+
+        registry.updateStatus("a", null, false);
+
+        assertThat(room.getParticipants()).singleElement().satisfies(participant -> {
+            assertThat(participant.getIsMuted()).isFalse();
+            assertThat(participant.getIsVideoEnabled()).isFalse();
+        });
+        assertThat(registry.updateStatus("missing", true, true)).isEmpty();
+    }
+
+    @Test
+    void removingAParticipantRemembersThatItLeft() {
+        registry.addParticipant(room, participant("a", 1));
+        registry.markDetached("a", Instant.now());
+
+        assertThat(registry.removeParticipant("a")).isPresent();
+
+        assertThat(registry.hasLeft("a")).isTrue();
+        assertThat(registry.hasLeft("never-seen")).isFalse();
+        assertThat(registry.findDetachedSince("a")).isEmpty();
+        assertThat(registry.findRoomOfSession("a")).isEmpty();
+        assertThat(room.getParticipants()).isEmpty();
+        assertThat(registry.removeParticipant("a")).isEmpty();
+    }
+
+    @Test
+    void removingARoomForgetsItsSessions() {
+        registry.addParticipant(room, participant("a", 1));
+
+        assertThat(registry.removeRoom("ROOM1")).contains(room);
+
+        assertThat(registry.findRoom("ROOM1")).isEmpty();
+        assertThat(registry.findRoom(room.getRoomId())).isEmpty();
+        assertThat(registry.findParticipant("a")).isEmpty();
+        assertThat(registry.sessionCount()).isZero();
+    }
+
+    private ParticipantPresence participant(String sessionId, int minute) {
+        return ParticipantPresence.builder()
+                .id(UUID.randomUUID())
+                .roomId(room.getRoomId())
+                .username("user-" + sessionId)
+                .sessionId(sessionId)
+                .joinedAt(START.plusMinutes(minute))
+                .isMuted(false)
+                .isVideoEnabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package org.blaque.meetify.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.config.EventBusProperties;
+import org.blaque.meetify.config.RecentChatProperties;
+import org.blaque.meetify.dto.ChatMessageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentChatMessagesTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+    private final UUID roomId = UUID.randomUUID();
+    private int sequence;
+
+    @Test
+    void newRoomIsAnsweredFromMemoryUntilItEvicts() {
+        RecentChatMessages recent = newRecent(4, "in-process");
+        recent.roomCreated(roomId);
+        List<ChatMessageDTO> messages = append(recent, 3);
+
+        assertThat(recent.before(roomId, null, 10)).containsExactly(messages.get(2), messages.get(1), messages.get(0));
+
+        messages.addAll(append(recent, 2));
+
+        // The first message is gone, so only pages the remaining four cover are answered
+        assertThat(recent.before(roomId, null, 10)).isNull();
+        assertThat(recent.before(roomId, null, 4)).containsExactly(
+                messages.get(4), messages.get(3), messages.get(2), messages.get(1));
+        assertThat(recent.before(roomId, ChatCursor.of(messages.get(3)), 2)).containsExactly(messages.get(2), messages.get(1));
+        assertThat(recent.before(roomId, ChatCursor.of(messages.get(3)), 3)).isNull();
+    }
+
+    @Test
+    void ringCreatedByTrafficOnlyCoversMessagesFromItsOldest() {
+        RecentChatMessages recent = newRecent(8, "in-process");
+        ChatMessageDTO beforeRestart = message(0, "from the database");
+        List<ChatMessageDTO> messages = append(recent, 3);
+
+        assertThat(recent.before(roomId, null, 3)).containsExactly(messages.get(2), messages.get(1), messages.get(0));
+        assertThat(recent.before(roomId, null, 4)).isNull();
+        assertThat(recent.after(roomId, ChatCursor.of(messages.get(0)), 10)).containsExactly(messages.get(1), messages.get(2));
+        assertThat(recent.after(roomId, ChatCursor.of(messages.get(2)), 10)).isEmpty();
+        assertThat(recent.after(roomId, ChatCursor.of(beforeRestart), 10)).isNull();
+    }
+
+    @Test
+    void messagesAreKeptInCursorOrderWhenTheyArriveOutOfOrder() {
+        RecentChatMessages recent = newRecent(8, "in-process");
+        recent.roomCreated(roomId);
+        ChatMessageDTO second = message(2, "second");
+        ChatMessageDTO first = message(1, "first");
+        ChatMessageDTO third = message(3, "third");
+        recent.append(roomId, second);
+        recent.append(roomId, first);
+        recent.append(roomId, third);
+
+        assertThat(recent.before(roomId, null, 10)).containsExactly(third, second, first);
+        assertThat(recent.after(roomId, ChatCursor.of(first), 1)).containsExactly(second);
+    }
+
+    @Test
+    void staysOffWithTheDistributedEventBus() {
+        RecentChatMessages recent = newRecent(8, "postgres");
+        recent.roomCreated(roomId);
+        append(recent, 2);
+
+        assertThat(recent.before(roomId, null, 1)).isNull();
+    }
+
+    private List<ChatMessageDTO> append(RecentChatMessages recent, int count) {
+        List<ChatMessageDTO> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChatMessageDTO message = message(10 + sequence++, "message " + sequence);
+            recent.append(roomId, message);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static ChatMessageDTO message(int second, String text) {
+        return ChatMessageDTO.builder()
+                .id(UUID.randomUUID())
+                .senderUsername("alice")
+                .senderSessionId("session-a")
+                .message(text)
+                .sentAt(START.plusSeconds(second))
+                .build();
+    }
+
+    private static RecentChatMessages newRecent(int capacity, String eventBusType) {
+        RecentChatProperties properties = new RecentChatProperties();
+        properties.setCapacity(capacity);
+        EventBusProperties eventBusProperties = new EventBusProperties();
+        eventBusProperties.setType(eventBusType);
+        return new RecentChatMessages(properties, eventBusProperties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,87 @@
+package org.blaque.meetify.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.blaque.meetify.config.RoomEventLogProperties;
+import org.blaque.meetify.dto.RoomEventDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RoomEventLogTests {
+
+    private static final String CHAT = "/topic/room/ROOM1/chat";
+    private static final String PARTICIPANT = "/topic/room/ROOM1/participant";
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final RoomEventLog roomEventLog = newLog(3);
+
+    @Test
+    void stateEventsAreStampedAndSignalsAreNot() {
+        roomEventLog.broadcast("ROOM1", CHAT, "first");
+        roomEventLog.broadcast("ROOM1", "/topic/room/ROOM1/signal", "offer");
+        String epoch = roomEventLog.since("ROOM1", null, 0).epoch();
+
+        verify(messagingTemplate).convertAndSend(CHAT, (Object) "first",
+                Map.<String, Object>of(RoomEventLog.SEQUENCE_HEADER, 1L, RoomEventLog.EPOCH_HEADER, epoch));
+        verify(messagingTemplate).convertAndSend("/topic/room/ROOM1/signal", (Object) "offer");
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/room/ROOM1/signal"), any(Object.class), anyMap());
+    }
+
+    @Test
+    void returnsOnlyTheEventsAfterTheClientsSequence() {
+        roomEventLog.broadcast("ROOM1", CHAT, "first");
+        String epoch = roomEventLog.since("ROOM1", null, 0).epoch();
+        roomEventLog.broadcast("ROOM1", PARTICIPANT, "join");
+        roomEventLog.broadcast("ROOM1", CHAT, "second");
+
+        RoomEventLog.Since since = roomEventLog.since("ROOM1", epoch, 1);
+
+        assertThat(since.sequence()).isEqualTo(3);
+        assertThat(since.events()).extracting(RoomEventDTO::getSequence).containsExactly(2L, 3L);
+        assertThat(since.events()).extracting(RoomEventDTO::getPayload).containsExactly("join", "second");
+        assertThat(roomEventLog.since("ROOM1", epoch, 3).events()).isEmpty();
+    }
+
+    @Test
+    void fallsBackToSnapshotWhenTheLogCannotCoverTheGap() {
+        for (int i = 0; i < 5; i++) {
+            roomEventLog.broadcast("ROOM1", CHAT, "message " + i);
+        }
+        String epoch = roomEventLog.since("ROOM1", null, 0).epoch();
+
+        // Events 3 to 5 are kept
+        assertThat(roomEventLog.since("ROOM1", epoch, 2).events()).hasSize(3);
+        assertThat(roomEventLog.since("ROOM1", epoch, 1).events()).isNull();
+        assertThat(roomEventLog.since("ROOM1", epoch, 6).events()).isNull();
+        assertThat(roomEventLog.since("ROOM1", "other-epoch", 5).events()).isNull();
+        assertThat(roomEventLog.since("ROOM1", null, 5).events()).isNull();
+    }
+
+    @Test
+    void roomsAreSequencedIndependently() {
+        roomEventLog.broadcast("ROOM1", CHAT, "first");
+        roomEventLog.broadcast("ROOM2", "/topic/room/ROOM2/chat", "first");
+
+        assertThat(roomEventLog.since("ROOM1", null, 0).sequence()).isEqualTo(1);
+        assertThat(roomEventLog.since("ROOM2", null, 0).sequence()).isEqualTo(1);
+        assertThat(roomEventLog.since("ROOM1", null, 0).epoch())
+                .isNotEqualTo(roomEventLog.since("ROOM2", null, 0).epoch());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private RoomEventLog newLog(int capacity) {
+        RoomEventLogProperties properties = new RoomEventLogProperties();
+        properties.setCapacity(capacity);
+        return new RoomEventLog(messagingTemplate, properties, new SimpleMeterRegistry());
+    }
+}
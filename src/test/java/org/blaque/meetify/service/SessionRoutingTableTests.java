@@ -0,0 +1,158 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.service.SessionRoutingTable.RouteChanged;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionRoutingTableTests {
+
+    private final MessageChannel clientOutboundChannel = mock(MessageChannel.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SessionRoutingTable table = new SessionRoutingTable(
+            clientOutboundChannel, new SimpMessagingTemplate(clientOutboundChannel), eventPublisher);
+
+    @Test
+    void subscribingToASignalQueueRoutesTheParticipant() {
+        subscribe("ws-1", "sub-1", "p");
+
+        assertThat(table.isRoutable("p")).isTrue();
+        assertThat(table.participantsOf("ws-1")).containsExactly("p");
+        verify(eventPublisher).publishEvent((Object) new RouteChanged("p", true));
+    }
+
+    @Test
+    void otherDestinationsAreIgnored() {
+        table.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-1", "sub-1", "/topic/room/ROOM1/chat")));
+
+        assertThat(table.size()).isZero();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void signalsGoToTheOwningSessionAndSubscription() {
+        when(clientOutboundChannel.send(any())).thenReturn(true);
+        subscribe("ws-1", "sub-1", "p");
+
+        assertThat(table.send("p", "offer")).isTrue();
+        assertThat(table.send("unknown", "offer")).isFalse();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel).send(sent.capture());
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(sent.getValue());
+        assertThat(accessor.getSessionId()).isEqualTo("ws-1");
+        assertThat(accessor.getSubscriptionId()).isEqualTo("sub-1");
+        assertThat(accessor.getDestination()).isEqualTo(SessionRoutingTable.SIGNAL_QUEUE_PREFIX + "p");
+    }
+
+    @Test
+    void aSecondSessionWaitsAsStandbyAndTakesOverWhenTheOwnerDisconnects() {
+        subscribe("ws-1", "sub-1", "p");
+        subscribe("ws-2", "sub-9", "p");
+
+        assertThat(table.participantsOf("ws-1")).containsExactly("p");
+        assertThat(table.participantsOf("ws-2")).isEmpty();
+
+        disconnect("ws-1");
+
+        assertThat(table.participantsOf("ws-2")).containsExactly("p");
+        // The participant stayed routable throughout, so other nodes hear nothing
+        verify(eventPublisher, never()).publishEvent((Object) new RouteChanged("p", false));
+    }
+
+    @Test
+    void standbysTakeOverInTheOrderTheySubscribed() {
+        subscribe("ws-1", "sub-1", "p");
+        subscribe("ws-2", "sub-1", "p");
+        subscribe("ws-3", "sub-1", "p");
+
+        unsubscribe("ws-1", "sub-1");
+        assertThat(table.participantsOf("ws-2")).containsExactly("p");
+
+        unsubscribe("ws-2", "sub-1");
+        assertThat(table.participantsOf("ws-3")).containsExactly("p");
+    }
+
+    @Test
+    void aStandbyThatLeavesFirstIsNotHandedTheRoute() {
+        subscribe("ws-1", "sub-1", "p");
+        subscribe("ws-2", "sub-1", "p");
+
+        disconnect("ws-2");
+        disconnect("ws-1");
+
+        assertThat(table.isRoutable("p")).isFalse();
+        verify(eventPublisher).publishEvent((Object) new RouteChanged("p", false));
+    }
+
+    @Test
+    void unsubscribeDropsOnlyThatSubscription() {
+        subscribe("ws-1", "sub-1", "p1");
+        subscribe("ws-1", "sub-2", "p2");
+
+        unsubscribe("ws-1", "sub-1");
+
+        assertThat(table.isRoutable("p1")).isFalse();
+        assertThat(table.participantsOf("ws-1")).containsExactly("p2");
+        verify(eventPublisher).publishEvent((Object) new RouteChanged("p1", false));
+        verify(eventPublisher, never()).publishEvent((Object) new RouteChanged("p2", false));
+    }
+
+    @Test
+    void disconnectDropsEveryRouteOfTheSession() {
+        subscribe("ws-1", "sub-1", "p1");
+        subscribe("ws-1", "sub-2", "p2");
+        subscribe("ws-2", "sub-1", "p3");
+
+        disconnect("ws-1");
+
+        assertThat(table.routedParticipants()).containsExactly("p3");
+        verify(eventPublisher).publishEvent((Object) new RouteChanged("p1", false));
+        verify(eventPublisher).publishEvent((Object) new RouteChanged("p2", false));
+    }
+
+    private void subscribe(String webSocketSessionId, String subscriptionId, String participantSessionId) {
+        table.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, webSocketSessionId, subscriptionId,
+                SessionRoutingTable.SIGNAL_QUEUE_PREFIX + participantSessionId)));
+    }
+
+    private void unsubscribe(String webSocketSessionId, String subscriptionId) {
+        table.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, webSocketSessionId, subscriptionId, null)));
+    }
+
+    private void disconnect(String webSocketSessionId) {
+        table.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, webSocketSessionId, null, null),
+                webSocketSessionId, CloseStatus.NORMAL));
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String webSocketSessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(webSocketSessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
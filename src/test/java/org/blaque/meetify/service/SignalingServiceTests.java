@@ -0,0 +1,75 @@
+package org.blaque.meetify.service;
+
+import org.blaque.meetify.config.SignalingProperties;
+import org.blaque.meetify.dto.RawJson;
+import org.blaque.meetify.dto.WebRTCSignalDTO;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SignalingServiceTests {
+
+    private final RoomEventBus roomEventBus = mock(RoomEventBus.class);
+    // Coalescing is off by default, so no scheduler is needed
+    private final SignalingService signalingService = new SignalingService(roomEventBus, new SignalingProperties(), null);
+
+    @Test
+    void signalsForAnUnknownTargetAreReportedBackToTheSender() {
+        // The mocked bus knows no participants, so sendToParticipant returns false
+        signalingService.relay("ROOM1", offer("a", "b"));
+
+        ArgumentCaptor<Object> notice = ArgumentCaptor.forClass(Object.class);
+        verify(roomEventBus).sendToParticipant(eq("ROOM1"), eq("a"), notice.capture());
+        assertThat(notice.getValue()).isInstanceOfSatisfying(WebRTCSignalDTO.class, signal -> {
+            assertThat(signal.getType()).isEqualTo(SignalingService.TARGET_UNAVAILABLE);
+            assertThat(signal.getSenderSessionId()).isEqualTo("b");
+            assertThat(signal.getTargetSessionId()).isEqualTo("a");
+            assertThat(signal.getData()).hasToString("{\"type\":\"offer\"}");
+        });
+    }
+
+    @Test
+    void deliveredSignalsAreNotReported() {
+        when(roomEventBus.sendToParticipant(anyString(), anyString(), any())).thenReturn(true);
+
+        signalingService.relay("ROOM1", offer("a", "b"));
+
+        verify(roomEventBus, times(1)).sendToParticipant(anyString(), anyString(), any());
+    }
+
+    @Test
+    void anonymousSignalsGetNoNotice() {
+        signalingService.relay("ROOM1", offer(null, "b"));
+
+        verify(roomEventBus).sendToParticipant(eq("ROOM1"), eq("b"), any());
+        verify(roomEventBus, times(1)).sendToParticipant(any(), any(), any());
+    }
+
+    @Test
+    void signalsWithoutTargetGoToTheRoom() {
+        WebRTCSignalDTO signal = offer("a", null);
+
+        signalingService.relay("ROOM1", signal);
+
+        verify(roomEventBus).publish("ROOM1", "/topic/room/ROOM1/signal", signal);
+        verify(roomEventBus, never()).sendToParticipant(anyString(), anyString(), any());
+    }
+
+    private static WebRTCSignalDTO offer(String sender, String target) {
+        return WebRTCSignalDTO.builder()
+                .type("offer")
+                .senderSessionId(sender)
+                .targetSessionId(target)
+                .data(RawJson.of("{\"type\":\"offer\",\"sdp\":\"v=0\"}"))
+                .build();
+    }
+}